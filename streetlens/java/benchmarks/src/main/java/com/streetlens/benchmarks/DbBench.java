@@ -0,0 +1,94 @@
+package com.streetlens.benchmarks;
+
+import com.streetlens.options.persistence.Db;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * SQLite persistence: batched and single-row inserts, and the two {@code latest} queries, on a
+ * fresh database pre-filled with {@code prefill} rows. Inserts keep growing the table over the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DbBench {
+    @Param({"100000"})
+    public int prefill;
+
+    @Param({"500"})
+    public int batchSize;
+
+    @Param({"100"})
+    public int limit;
+
+    private Path dir;
+    private Db db;
+    private List<Db.Entry> batch;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("streetlens-bench-db");
+        db = new Db(dir.resolve("bench.db"));
+        SplittableRandom rnd = new SplittableRandom(SyntheticChain.DEFAULT_SEED);
+        List<Db.Entry> fill = entries(rnd, 10_000);
+        for (int i = 0; i < prefill; i += fill.size()) db.insertAll(fill.subList(0, Math.min(fill.size(), prefill - i)));
+        batch = entries(rnd, batchSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        db.close();
+        try (Stream<Path> s = Files.walk(dir)) {
+            for (Path p : s.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        }
+    }
+
+    @Benchmark
+    public void insertAll(RowCounter counter){
+        db.insertAll(batch);
+        counter.rows += batch.size();
+    }
+
+    @Benchmark
+    public void insert(RowCounter counter){
+        var e = batch.get(0);
+        db.insert(e.symbol(), e.type(), e.strike(), e.dte(), e.mid(), e.score(), e.volume(), e.oi(), e.spreadPct());
+        counter.rows++;
+    }
+
+    @Benchmark
+    public List<Db.Row> latest(RowCounter counter){
+        var rows = db.latest(limit);
+        counter.rows += rows.size();
+        return rows;
+    }
+
+    @Benchmark
+    public List<Db.Row> latestSymbol(RowCounter counter){
+        var rows = db.latest("SYM00007", limit);
+        counter.rows += rows.size();
+        return rows;
+    }
+
+    private static List<Db.Entry> entries(SplittableRandom rnd, int n){
+        List<Db.Entry> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(new Db.Entry(String.format("SYM%05d", rnd.nextInt(50)), rnd.nextBoolean() ? "CALL" : "PUT",
+                50 + rnd.nextInt(400), 7 + rnd.nextInt(365), rnd.nextDouble() * 20, rnd.nextDouble() * 100,
+                rnd.nextLong(6000), rnd.nextLong(25000), rnd.nextDouble() * 0.2));
+        }
+        return out;
+    }
+}
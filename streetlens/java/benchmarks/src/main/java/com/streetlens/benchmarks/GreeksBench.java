@@ -0,0 +1,49 @@
+package com.streetlens.benchmarks;
+
+import com.streetlens.options.domain.OptionChainBatch;
+import com.streetlens.options.pricing.BatchGreeks;
+import com.streetlens.options.pricing.BlackScholes;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Greeks per second: the columnar {@link BatchGreeks} (vector kernel, since the fork enables the
+ * incubator module) against one {@link BlackScholes#greeks} call per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g", "--add-modules", "jdk.incubator.vector"})
+public class GreeksBench {
+    @Param({"1000000"})
+    public int rows;
+
+    private OptionChainBatch batch;
+    private BatchGreeks.Out out;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        batch = SyntheticChain.batch(rows, SyntheticChain.DEFAULT_SEED);
+        out = new BatchGreeks.Out(batch.size());
+    }
+
+    @Benchmark
+    public BatchGreeks.Out batch(RowCounter counter){
+        BatchGreeks.compute(batch, out);
+        counter.rows += batch.size();
+        return out;
+    }
+
+    @Benchmark
+    public void perRow(RowCounter counter, Blackhole bh){
+        var b = batch;
+        for (int i = 0; i < b.size(); i++) {
+            bh.consume(BlackScholes.greeks(b.type(i), b.spot(i), b.strike(i), b.r(i), b.iv(i), b.t(i)));
+        }
+        counter.rows += b.size();
+    }
+}
@@ -0,0 +1,48 @@
+package com.streetlens.benchmarks;
+
+import com.streetlens.options.pricing.Normal;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normal CDF calls per second: Hart's {@link Normal#cdf} against the older
+ * {@link Normal#cdfAbramowitzStegun}, over a fixed array of random points in [-6, 6]. Accuracy
+ * against an 80-digit reference is checked by {@code NormalTest} in the main project.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NormalCdfBench {
+    @Param({"1048576"})
+    public int points;
+
+    private double[] xs;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        xs = new double[points];
+        Random rnd = new Random(42);
+        for (int i = 0; i < points; i++) xs[i] = rnd.nextDouble() * 12.0 - 6.0;
+    }
+
+    @Benchmark
+    public double hart(RowCounter counter){
+        double sum = 0;
+        for (double x : xs) sum += Normal.cdf(x);
+        counter.rows += xs.length;
+        return sum;
+    }
+
+    @Benchmark
+    public double abramowitzStegun(RowCounter counter){
+        double sum = 0;
+        for (double x : xs) sum += Normal.cdfAbramowitzStegun(x);
+        counter.rows += xs.length;
+        return sum;
+    }
+}
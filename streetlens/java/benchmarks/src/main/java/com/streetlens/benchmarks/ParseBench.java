@@ -0,0 +1,51 @@
+package com.streetlens.benchmarks;
+
+import com.streetlens.options.domain.OptionChainBatch;
+import com.streetlens.options.ingestion.OptionCsvLoader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/** CSV ingestion: raw row streaming and loading into an {@link OptionChainBatch}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class ParseBench {
+    @Param({"1000000"})
+    public int rows;
+
+    private Path csv;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        csv = Files.createTempFile("streetlens-bench", ".csv");
+        SyntheticChain.writeCsv(csv, rows, SyntheticChain.DEFAULT_SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException { Files.deleteIfExists(csv); }
+
+    @Benchmark
+    public long stream(RowCounter counter, Blackhole bh) throws IOException {
+        long n = OptionCsvLoader.stream(csv, (symbol, type, strike, expiry, spot, iv, r, t, bid, ask, volume, oi) -> {
+            bh.consume(strike);
+            bh.consume(bid);
+        });
+        counter.rows += n;
+        return n;
+    }
+
+    @Benchmark
+    public OptionChainBatch loadBatch(RowCounter counter) throws IOException {
+        OptionChainBatch b = OptionCsvLoader.loadBatch(csv);
+        counter.rows += b.size();
+        return b;
+    }
+}
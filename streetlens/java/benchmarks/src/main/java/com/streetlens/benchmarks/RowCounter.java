@@ -0,0 +1,16 @@
+package com.streetlens.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Extra JMH result column: rows processed, reported as a rate next to the ops/s score so
+ * benchmarks over different input sizes can be compared in rows/s.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class RowCounter {
+    public long rows;
+
+    @Setup(Level.Iteration)
+    public void reset(){ rows = 0; }
+}
@@ -0,0 +1,44 @@
+package com.streetlens.benchmarks;
+
+import com.streetlens.options.domain.OptionChainBatch;
+import com.streetlens.options.ranking.Ranker;
+import com.streetlens.options.screening.RulePlanner;
+import com.streetlens.options.screening.ScreenSpec;
+import com.streetlens.options.screening.ScreeningEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Screen plus rank to a top-K with the API's default screen, over synthetic chains of increasing size. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ScreenRankBench {
+    static final ScreenSpec SPEC = new ScreenSpec(500, 2000, 0.12, 7, 400, -0.50, 0.50);
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"100"})
+    public int k;
+
+    private OptionChainBatch batch;
+    private ScreeningEngine engine;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        batch = SyntheticChain.batch(rows, SyntheticChain.DEFAULT_SEED);
+        engine = new ScreeningEngine(RulePlanner.compile(SPEC), new Ranker());
+    }
+
+    @Benchmark
+    public List<Ranker.Scored> screenRank(RowCounter counter){
+        var top = engine.topK(batch, k);
+        counter.rows += batch.size();
+        return top;
+    }
+}
@@ -0,0 +1,86 @@
+package com.streetlens.benchmarks;
+
+import com.streetlens.options.domain.OptionChainBatch;
+import com.streetlens.options.domain.OptionType;
+import com.streetlens.options.ingestion.OptionCsvLoader;
+import com.streetlens.options.pricing.BlackScholes;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic option chains for benchmarks: the same {@code (rows, seed)} always yields the
+ * same rows, relative to today so nothing is expired. Each symbol gets a chain of expiries,
+ * strikes from 60% to 140% of spot, a skewed smile, Black-Scholes mids and random spreads and
+ * liquidity, so screens reject a realistic share of rows.
+ */
+public final class SyntheticChain {
+    private SyntheticChain(){}
+
+    public static final long DEFAULT_SEED = 0x5EEDL;
+    private static final int[] DTE = {3, 7, 14, 30, 45, 60, 90, 120, 180, 270, 365, 540};
+    private static final int STRIKES = 41;
+    private static final double RATE = 0.045;
+    static final String HEADER = "symbol,type,strike,expiry,spot,iv,r,bid,ask,volume,openInterest";
+
+    /** Pushes {@code rows} rows to {@code sink}, grouped by symbol, expiry and strike. */
+    public static void generate(int rows, long seed, OptionCsvLoader.RowSink sink){
+        SplittableRandom rnd = new SplittableRandom(seed);
+        long today = LocalDate.now().toEpochDay();
+        int n = 0;
+        for (int s = 0; n < rows; s++) {
+            String symbol = String.format("SYM%05d", s);
+            double spot = 20 + rnd.nextDouble() * 480;
+            double baseVol = 0.15 + rnd.nextDouble() * 0.45;
+            for (int e = 0; e < DTE.length && n < rows; e++) {
+                double t = DTE[e] / 365.0;
+                for (int k = 0; k < STRIKES && n < rows; k++) {
+                    double strike = Math.round(spot * (0.6 + 0.8 * k / (STRIKES - 1)) * 100) / 100.0;
+                    double m = Math.log(strike / spot);
+                    double iv = baseVol * (1 - 0.4*m + 0.8*m*m);
+                    for (int c = 0; c < 2 && n < rows; c++, n++) {
+                        OptionType type = c == 0 ? OptionType.CALL : OptionType.PUT;
+                        double mid = Math.max(0.01, BlackScholes.price(type, spot, strike, RATE, iv, t));
+                        double half = mid * (0.005 + rnd.nextDouble() * 0.15) / 2;
+                        sink.row(symbol, type, strike, today + DTE[e], spot, iv, RATE, t,
+                            Math.max(0.01, mid - half), mid + half,
+                            rnd.nextLong(6000), rnd.nextLong(25000));
+                    }
+                }
+            }
+        }
+    }
+
+    public static OptionChainBatch batch(int rows, long seed){
+        var b = new OptionChainBatch.Builder(rows);
+        generate(rows, seed, b::add);
+        return b.build();
+    }
+
+    /** Writes the rows in {@link OptionCsvLoader}'s format. */
+    public static void writeCsv(Path file, int rows, long seed) throws IOException {
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write(HEADER);
+            w.newLine();
+            StringBuilder sb = new StringBuilder(128);
+            IOException[] failed = {null};
+            generate(rows, seed, (symbol, type, strike, expiry, spot, iv, r, t, bid, ask, volume, oi) -> {
+                if (failed[0] != null) return;
+                sb.setLength(0);
+                sb.append(symbol).append(',').append(type).append(',').append(strike).append(',')
+                  .append(LocalDate.ofEpochDay(expiry)).append(',').append(spot).append(',').append(iv).append(',')
+                  .append(r).append(',').append(round(bid)).append(',').append(round(ask)).append(',')
+                  .append(volume).append(',').append(oi).append('\n');
+                try { w.append(sb); } catch (IOException e) { failed[0] = e; }
+            });
+            if (failed[0] != null) throw failed[0];
+        }
+    }
+
+    private static double round(double price){ return Math.round(price * 100) / 100.0; }
+}
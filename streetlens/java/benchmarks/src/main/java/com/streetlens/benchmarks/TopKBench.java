@@ -0,0 +1,58 @@
+package com.streetlens.benchmarks;
+
+import com.streetlens.options.domain.*;
+import com.streetlens.options.ranking.IndexTopK;
+import com.streetlens.options.ranking.Ranker;
+import com.streetlens.options.ranking.TopK;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Bounded top-K selection over random scores: the primitive index heap vs the {@link Ranker.Scored} heap. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class TopKBench {
+    @Param({"1000000"})
+    public int n;
+
+    @Param({"10", "100", "1000"})
+    public int k;
+
+    private double[] scores;
+    private Ranker.Scored[] scored;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        SplittableRandom rnd = new SplittableRandom(SyntheticChain.DEFAULT_SEED);
+        var contract = new OptionContract("SYM", OptionType.CALL, 100, LocalDate.now().plusDays(30), 100);
+        var quote = new Quote(100, 0.3, 0.045, 30 / 365.0, 1.0, 1.1, 1000, 5000);
+        scores = new double[n];
+        scored = new Ranker.Scored[n];
+        for (int i = 0; i < n; i++) {
+            scores[i] = rnd.nextDouble() * 100;
+            scored[i] = new Ranker.Scored(contract, quote, scores[i]);
+        }
+    }
+
+    @Benchmark
+    public IndexTopK indexTopK(RowCounter counter){
+        IndexTopK top = new IndexTopK(k);
+        for (int i = 0; i < n; i++) top.offer(i, scores[i]);
+        counter.rows += n;
+        return top;
+    }
+
+    @Benchmark
+    public TopK scoredTopK(RowCounter counter){
+        TopK top = new TopK(k);
+        for (int i = 0; i < n; i++) top.offer(scored[i]);
+        counter.rows += n;
+        return top;
+    }
+}
@@ -0,0 +1,225 @@
+package com.streetlens.options.analytics;
+
+import com.streetlens.options.domain.OptionContract;
+import com.streetlens.options.domain.OptionType;
+import com.streetlens.options.domain.Quote;
+import com.streetlens.options.pricing.BlackScholes;
+import com.streetlens.options.pricing.Normal;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Portfolio P&L and greeks over a spot x vol x horizon grid, priced with Black-Scholes.
+ *
+ * <p>Positions are flattened into primitive columns once, at construction. Per run, every grid
+ * axis is reduced to what varies along it: {@code ln(1+shock)} per spot point, and per
+ * (position, horizon, vol) plane {@code sigma*sqrt(T)}, the drift term and the discounted strike, so the
+ * innermost spot loop is one division, two CDFs and a PDF per point. Puts take {@code N(-d1)} and
+ * {@code N(-d2)} directly rather than {@code 1 - N(d)}, which would cancel to 0 far out of the money. The work is cut into
+ * (position block x plane) tasks on a {@link ForkJoinPool}; each position block accumulates into
+ * its own buffers, which are summed at the end.
+ *
+ * <p>P&L is against the model value at the unshocked inputs, so the zero-shock point at horizon 0
+ * is 0 up to rounding. Greeks are in Black-Scholes units (per unit of spot, vol and year) scaled by
+ * multiplier x quantity.
+ */
+public final class ScenarioEngine {
+    /** {@code quote} supplies the spot, iv, rate and time to expiry; {@code quantity} is negative for shorts. */
+    public record Position(OptionContract contract, Quote quote, double quantity) {}
+
+    /**
+     * {@code spotShocks} are relative ({@code 0.05} = spot up 5%), {@code volShocks} absolute
+     * ({@code 0.02} = iv plus 2 vol points), {@code horizonDays} calendar days from now.
+     */
+    public record Grid(double[] spotShocks, double[] volShocks, double[] horizonDays) {
+        public Grid {
+            if (spotShocks.length == 0 || volShocks.length == 0 || horizonDays.length == 0)
+                throw new IllegalArgumentException("every grid axis needs at least one point");
+            for (double s : spotShocks) if (!(s > -1)) throw new IllegalArgumentException("spot shock must be > -1: " + s);
+        }
+
+        /** Symmetric axes: {@code +/-spotRange} in {@code spotStep}s and {@code +/-volRange} in {@code volStep}s. */
+        public static Grid of(double spotRange, double spotStep, double volRange, double volStep, double... horizonDays){
+            return new Grid(axis(spotRange, spotStep), axis(volRange, volStep), horizonDays.clone());
+        }
+
+        private static double[] axis(double range, double step){
+            int n = step > 0 ? (int) Math.round(range / step) : 0;
+            double[] a = new double[2 * n + 1];
+            for (int i = -n; i <= n; i++) a[i + n] = i * step;
+            return a;
+        }
+
+        public int cells(){ return spotShocks.length * volShocks.length * horizonDays.length; }
+    }
+
+    /**
+     * Aggregated surfaces. Cell {@code (h, v, s)} (horizon, vol, spot index) sits at
+     * {@link #index}{@code (h, v, s)} in every array: spot varies fastest.
+     */
+    public static final class Surface {
+        public final Grid grid;
+        public final double baseValue;
+        public final double[] pnl, delta, gamma, vega, theta;
+        public final long nanos;
+
+        Surface(Grid grid, double baseValue, double[][] cols, long nanos){
+            this.grid = grid;
+            this.baseValue = baseValue;
+            this.pnl = cols[PNL]; this.delta = cols[DELTA]; this.gamma = cols[GAMMA];
+            this.vega = cols[VEGA]; this.theta = cols[THETA];
+            this.nanos = nanos;
+        }
+
+        public int index(int h, int v, int s){
+            return (h * grid.volShocks.length + v) * grid.spotShocks.length + s;
+        }
+
+        public double pnl(int h, int v, int s){ return pnl[index(h, v, s)]; }
+
+        /** Most negative P&L over the whole grid. */
+        public double worstPnl(){
+            double w = Double.POSITIVE_INFINITY;
+            for (double p : pnl) w = Math.min(w, p);
+            return w;
+        }
+    }
+
+    private static final int PNL = 0, DELTA = 1, GAMMA = 2, VEGA = 3, THETA = 4, COLS = 5;
+    private static final double MIN_VOL = 1e-4;
+    /** Positions per task block; a block's buffers are one grid's worth of each surface. */
+    private static final int BLOCK = 64;
+
+    private final int n;
+    private final boolean[] call;
+    private final double[] spot, strike, r, iv, t, weight, lnSK;
+    private final double baseValue;
+
+    public ScenarioEngine(List<Position> positions){
+        n = positions.size();
+        call = new boolean[n];
+        spot = new double[n]; strike = new double[n]; r = new double[n]; iv = new double[n]; t = new double[n];
+        weight = new double[n]; lnSK = new double[n];
+        double base = 0;
+        for (int i = 0; i < n; i++) {
+            var p = positions.get(i);
+            var q = p.quote();
+            call[i] = p.contract().type() == OptionType.CALL;
+            spot[i] = q.spot(); strike[i] = p.contract().strike(); r[i] = q.r(); iv[i] = q.iv(); t[i] = q.t();
+            weight[i] = p.contract().multiplier() * p.quantity();
+            lnSK[i] = Math.log(spot[i] / strike[i]);
+            base += weight[i] * (t[i] > 0 ? BlackScholes.price(p.contract().type(), spot[i], strike[i], r[i], iv[i], t[i])
+                                          : intrinsic(call[i], spot[i], strike[i]));
+        }
+        baseValue = base;
+    }
+
+    public int positions(){ return n; }
+
+    /** Model value of the book at the current inputs. */
+    public double baseValue(){ return baseValue; }
+
+    public Surface run(Grid grid){ return run(grid, ForkJoinPool.commonPool()); }
+
+    public Surface run(Grid grid, ForkJoinPool pool){
+        long t0 = System.nanoTime();
+        int ns = grid.spotShocks.length, planes = grid.volShocks.length * grid.horizonDays.length;
+        double[] onePlus = new double[ns], lnOnePlus = new double[ns];
+        for (int j = 0; j < ns; j++) {
+            onePlus[j] = 1 + grid.spotShocks[j];
+            lnOnePlus[j] = Math.log1p(grid.spotShocks[j]);
+        }
+        int blocks = Math.max(1, Math.min((n + BLOCK - 1) / BLOCK, pool.getParallelism()));
+        double[][][] acc = new double[blocks][COLS][grid.cells()];
+        if (n > 0) pool.invoke(new Tasks(grid, onePlus, lnOnePlus, blocks, acc, 0, blocks * planes));
+
+        double[][] out = acc[0];
+        for (int b = 1; b < blocks; b++) {
+            for (int c = 0; c < COLS; c++) {
+                double[] dst = out[c], src = acc[b][c];
+                for (int i = 0; i < dst.length; i++) dst[i] += src[i];
+            }
+        }
+        double[] pnl = out[PNL];
+        for (int i = 0; i < pnl.length; i++) pnl[i] -= baseValue; // accumulated as value, reported as P&L
+        return new Surface(grid, baseValue, out, System.nanoTime() - t0);
+    }
+
+    /** Task id {@code = plane * blocks + block}; leaves are single tasks, ranges split in half. */
+    @SuppressWarnings("serial") // fork-join tasks are never serialized
+    private final class Tasks extends RecursiveAction {
+        private final Grid grid;
+        private final double[] onePlus, lnOnePlus;
+        private final int blocks;
+        private final double[][][] acc;
+        private final int from, to;
+
+        Tasks(Grid grid, double[] onePlus, double[] lnOnePlus, int blocks, double[][][] acc, int from, int to){
+            this.grid = grid; this.onePlus = onePlus; this.lnOnePlus = lnOnePlus;
+            this.blocks = blocks; this.acc = acc; this.from = from; this.to = to;
+        }
+
+        @Override protected void compute(){
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Tasks(grid, onePlus, lnOnePlus, blocks, acc, from, mid),
+                          new Tasks(grid, onePlus, lnOnePlus, blocks, acc, mid, to));
+                return;
+            }
+            int block = from % blocks, plane = from / blocks;
+            int per = (n + blocks - 1) / blocks;
+            plane(grid, onePlus, lnOnePlus, plane, block * per, Math.min(n, (block + 1) * per), acc[block]);
+        }
+    }
+
+    /** Adds positions {@code [p0, p1)} at one (horizon, vol) plane into {@code out}. */
+    private void plane(Grid grid, double[] onePlus, double[] lnOnePlus, int plane, int p0, int p1, double[][] out){
+        int nv = grid.volShocks.length, ns = grid.spotShocks.length;
+        double days = grid.horizonDays[plane / nv], dv = grid.volShocks[plane % nv];
+        int base = plane * ns;
+        double[] pnl = out[PNL], delta = out[DELTA], gamma = out[GAMMA], vega = out[VEGA], theta = out[THETA];
+        for (int i = p0; i < p1; i++) {
+            double w = weight[i], K = strike[i], S0 = spot[i];
+            double T = t[i] - days / 365.0;
+            if (T <= 0) {
+                for (int j = 0; j < ns; j++) {
+                    double S = S0 * onePlus[j];
+                    pnl[base + j] += w * intrinsic(call[i], S, K);
+                    delta[base + j] += w * (call[i] ? (S > K ? 1 : 0) : (S < K ? -1 : 0));
+                }
+                continue;
+            }
+            double sigma = Math.max(MIN_VOL, iv[i] + dv), ri = r[i];
+            double sqrtT = Math.sqrt(T), sst = sigma * sqrtT;
+            double drift = (ri + 0.5 * sigma * sigma) * T;
+            double kDisc = K * Math.exp(-ri * T);
+            double x0 = lnSK[i] + drift;
+            for (int j = 0; j < ns; j++) {
+                double S = S0 * onePlus[j];
+                double d1 = (x0 + lnOnePlus[j]) / sst, d2 = d1 - sst;
+                double nd1 = Normal.pdf(d1);
+                double decay = -(S * nd1 * sigma) / (2 * sqrtT);
+                int c = base + j;
+                if (call[i]) {
+                    double cd1 = Normal.cdf(d1), cd2 = Normal.cdf(d2);
+                    pnl[c] += w * (S * cd1 - kDisc * cd2);
+                    delta[c] += w * cd1;
+                    theta[c] += w * (decay - ri * kDisc * cd2);
+                } else {
+                    double pd1 = Normal.cdf(-d1), pd2 = Normal.cdf(-d2);
+                    pnl[c] += w * (kDisc * pd2 - S * pd1);
+                    delta[c] += w * -pd1;
+                    theta[c] += w * (decay + ri * kDisc * pd2);
+                }
+                gamma[c] += w * nd1 / (S * sst);
+                vega[c] += w * S * nd1 * sqrtT;
+            }
+        }
+    }
+
+    private static double intrinsic(boolean call, double S, double K){
+        return call ? Math.max(0, S - K) : Math.max(0, K - S);
+    }
+}
@@ -1,29 +1,108 @@
 package com.streetlens.options.api;
 
 import io.javalin.Javalin;
+import io.javalin.util.ConcurrencyUtil;
 
+import com.streetlens.options.domain.OptionChainBatch;
+import com.streetlens.options.ingestion.ChainFileSource;
 import com.streetlens.options.ingestion.OptionCsvLoader;
+import com.streetlens.options.metrics.LatencyHistogram;
+import com.streetlens.options.metrics.PipelineMetrics;
+import com.streetlens.options.metrics.PipelineMetrics.Stage;
+import com.streetlens.options.metrics.PrometheusText;
+import com.streetlens.options.pricing.ImpliedVol;
 import com.streetlens.options.ranking.Ranker;
-import com.streetlens.options.screening.Rules;
+import com.streetlens.options.screening.RulePlanner;
+import com.streetlens.options.screening.ScreenSpec;
+import com.streetlens.options.screening.ScreeningEngine;
+import com.streetlens.options.streaming.LiveScreen;
+import com.streetlens.options.streaming.SnapshotDiff;
+import com.streetlens.options.strategies.Strategy;
+import com.streetlens.options.strategies.StrategyRanker;
+import com.streetlens.options.strategies.StrategySearch;
+import com.streetlens.options.strategies.StrategyType;
+import com.streetlens.stockanalysis.TrendScanner;
 import com.streetlens.options.persistence.Db;
+import com.streetlens.options.persistence.WriteBehind;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.concurrent.*;
 
 public class ApiServer {
+    private static final ScreenSpec DEFAULT_SCREEN = new ScreenSpec(500, 2000, 0.12, 7, 400, -0.50, 0.50);
+
+    /** Baseline identity for {@code /screen?diff=true}: the same file screened the same way. */
+    private record DiffKey(Path csv, ScreenSpec spec, int k) {}
 
     public static void main(String[] args) {
         int port = 7070;
+        Path dbPath = Paths.get("target", "streetlens.db");
+        Db db = new Db(dbPath); // shared: schema init once, one writer, pooled readers
+        var metrics = new PipelineMetrics();
+        var dbWrites = new LatencyHistogram();
+        WriteBehind writeBehind = new WriteBehind(db, 10_000, 500, (rows, nanos) -> dbWrites.record(nanos));
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        var screening = new ScreeningExecutor(
+            Integer.getInteger("streetlens.screen.threads", cores),
+            Integer.getInteger("streetlens.screen.maxConcurrent", Math.max(2, cores / 2)),
+            Integer.getInteger("streetlens.screen.maxQueued", 32),
+            Long.getLong("streetlens.screen.queueTimeoutMs", 10_000L));
+
+        var chains = new ChainCache(Long.getLong("streetlens.cache.maxBytes", 512L << 20), p -> {
+            long t0 = System.nanoTime();
+            long[] solve = {0};
+            var batch = OptionCsvLoader.loadBatch(p, screening.pool(), screening.threads(), s -> solve[0] = ivSolved(metrics, s));
+            metrics.record(Stage.PARSE, System.nanoTime() - t0 - solve[0], batch.size(), batch.size());
+            return batch;
+        });
+
+        // background screens for POST /jobs/screen: bounded workers and queue, finished jobs kept for a TTL
+        var jobs = new ScreenJobs(
+            Integer.getInteger("streetlens.jobs.workers", 1),
+            Integer.getInteger("streetlens.jobs.maxQueued", 16),
+            Long.getLong("streetlens.jobs.ttlMs", 600_000L));
+
+        // previous snapshot per (csv, spec, limit) for /screen?diff=true; least recently used baselines go past the count or byte budget
+        var diffs = new DiffBaselines<DiffKey>(
+            Integer.getInteger("streetlens.diff.maxBaselines", 16),
+            Long.getLong("streetlens.diff.maxBytes", 256L << 20));
+
+        // optional live screen: -Dstreetlens.live.source=DIR|FILE replays/follows chain CSVs into a continuously ranked top-K
+        String liveSource = System.getProperty("streetlens.live.source");
+        LiveScreen live = liveSource == null ? null
+            : new LiveScreen(RulePlanner.compile(DEFAULT_SCREEN), new Ranker(), Integer.getInteger("streetlens.live.k", 20));
+        if (live != null) live.startSnapshots(ChainFileSource.follow(Path.of(liveSource))::nextBatch, Long.getLong("streetlens.live.pollMs", 1000L));
+
+        ConcurrencyUtil.INSTANCE.setUseLoom(true); // request handlers run on virtual threads
         var app = Javalin.create(cfg -> {
             cfg.showJavalinBanner = false;
-        }).start(port);
+        });
+        app.exception(ScreeningExecutor.Saturated.class, (e, ctx) ->
+            ctx.status(e.status()).header("Retry-After", "1").json(Map.of("error", e.getMessage())));
+        app.exception(Db.Busy.class, (e, ctx) ->
+            ctx.status(503).header("Retry-After", "1").json(Map.of("error", e.getMessage())));
+        app.events(ev -> ev.serverStopped(() -> {
+            if (live != null) live.close();
+            jobs.close();
+            screening.close();
+            writeBehind.close(); // flushes anything still queued
+            db.close();
+        }));
+        Runtime.getRuntime().addShutdownHook(new Thread(app::stop));
+        app.start(port);
 
-        app.get("/health", ctx -> ctx.json(Map.of("status", "ok")));
+        app.get("/health", ctx -> ctx.json(Map.of(
+            "status", "ok",
+            "screening", screening.stats(),
+            "jobs", jobs.stats(),
+            "chainCache", chains.stats(),
+            "diffBaselines", diffs.stats())));
 
-        // GET /screen?csv=C:\path\to\options.csv&save=true&limit=20
+        // GET /screen?csv=C:\path\to\options.csv&save=true&limit=20[&format=ndjson][&diff=true][&minVolume=&minOi=&maxSpread=&minDte=&maxDte=&minDelta=&maxDelta=]
         app.get("/screen", ctx -> {
             String csvPath = ctx.queryParam("csv");
             if (csvPath == null || csvPath.isBlank()) {
@@ -35,88 +114,319 @@ public class ApiServer {
             limit = Math.max(1, Math.min(limit, 500));
 
             var path = Path.of(csvPath);
-            var rows = OptionCsvLoader.load(path);
-
-            // --- same screen as CLI (tweak as you like)
-            var screen = Rules.and(
-                Rules.minVolume(500),
-                Rules.minOpenInterest(2000),
-                Rules.maxSpreadPct(0.12),
-                Rules.dteBetween(7, 400),
-                Rules.deltaBetween(-0.50, 0.50)
-            );
-
-            var ranker = new Ranker();
-            var pool = Executors.newFixedThreadPool(Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+            // thresholds can be overridden per request; each distinct spec gets one cached adaptive plan
+            var spec = ScreenSpec.from(ctx::queryParam, DEFAULT_SCREEN);
+            var screen = RulePlanner.compile(spec);
+
+            // parse (on a cache miss) and screen both count against the server-wide screening limit
+            int k = limit;
             List<Ranker.Scored> results;
-            try {
-                List<Future<Ranker.Scored>> futures = new ArrayList<>();
-                for (var e : rows) {
-                    futures.add(pool.submit(() -> {
-                        if (!screen.accept(e.getKey(), e.getValue())) return null;
-                        return ranker.score(e.getKey(), e.getValue());
-                    }));
-                }
-                results = futures.stream().map(f -> {
-                    try { return f.get(); } catch (Exception ex) { return null; }
-                }).filter(Objects::nonNull)
-                  .sorted(Comparator.comparingDouble(Ranker.Scored::score).reversed())
-                  .limit(limit)
-                  .toList();
-            } finally {
-                pool.shutdownNow();
+            SnapshotDiff.Result delta = null;
+            long failedRows = 0;
+            if (Boolean.parseBoolean(ctx.queryParam("diff"))) {
+                // diff=true: only rows changed since this file was last screened the same way are rescored
+                var key = new DiffKey(path.toAbsolutePath().normalize(), spec, k);
+                var diff = diffs.get(key, () -> new SnapshotDiff(screen, new Ranker(), k));
+                delta = screening.run(() -> diff.next(chains.get(path)));
+                diffs.trim(key);
+                metrics.record(Stage.SCREEN, delta.nanos(), delta.rows().rows(), delta.rows().rescored());
+                results = delta.top();
+            } else {
+                var engine = new ScreeningEngine(screen, new Ranker(), screening.pool(), screening.threads(), metrics);
+                results = screening.run(() -> engine.topK(chains.get(path), k));
+                failedRows = engine.failedRows();
             }
 
-            // save if requested
+            // save if requested: handed to the write-behind queue, the request never waits on disk
+            int saved = 0;
             if (save && !results.isEmpty()) {
-                Path dbPath = Paths.get("target", "streetlens.db");
-                try (Db db = new Db(dbPath)) {
-                    for (var s : results) {
-                        long dte = s.contract().expiry().toEpochDay() - LocalDate.now().toEpochDay();
-                        db.insert(
-                            s.contract().symbol(),
-                            s.contract().type().name(),
-                            s.contract().strike(),
-                            dte,
-                            s.quote().mid(),
-                            s.score(),
-                            s.quote().volume(),
-                            s.quote().openInterest(),
-                            s.quote().spreadPct() * 100.0
-                        );
-                    }
+                long t0 = System.nanoTime();
+                saved = writeBehind.offerAll(results.stream().map(ApiServer::toEntry).toList());
+                metrics.record(Stage.DB_SAVE, System.nanoTime() - t0, results.size(), saved);
+            }
+
+            // stream JSON (or ndjson with format=ndjson) straight from the scored rows
+            long t0 = System.nanoTime();
+            try (var out = JsonOut.open(ctx, "results")) {
+                for (var s : results) out.scored(s);
+                out.endItems();
+                if (save) out.summary("saved", saved);
+                if (failedRows > 0) out.summary("failedRows", failedRows); // rows whose rule or score threw were skipped
+                if (delta != null) out.delta(delta);
+            }
+            metrics.record(Stage.SERIALIZE, System.nanoTime() - t0, results.size(), results.size());
+        });
+
+        // POST /jobs/screen?csv=PATH&limit=20[&minVolume=...] -> 202 {id}; same screen as /screen, run in the background
+        app.post("/jobs/screen", ctx -> {
+            String csvPath = ctx.queryParam("csv");
+            if (csvPath == null || csvPath.isBlank()) {
+                ctx.status(400).json(Map.of("error", "missing query param 'csv'"));
+                return;
+            }
+            var path = Path.of(csvPath);
+            if (!Files.isReadable(path)) {
+                ctx.status(400).json(Map.of("error", "cannot read '" + csvPath + "'"));
+                return;
+            }
+            int limit = Math.max(1, Math.min(parseIntOr(ctx.queryParam("limit"), 20), 500));
+            var screen = RulePlanner.compile(ScreenSpec.from(ctx::queryParam, DEFAULT_SCREEN));
+
+            // parsed straight from the file rather than through the chain cache, so the parse reports progress and can be cancelled
+            var job = jobs.submit(csvPath, limit, j -> {
+                long t0 = System.nanoTime();
+                var b = new OptionChainBatch.Builder();
+                OptionCsvLoader.stream(path, j.sink(b::add));
+                var parsed = b.build();
+                metrics.record(Stage.PARSE, System.nanoTime() - t0, parsed.size(), parsed.size());
+                // the iv solve and the screen run on the screening pool, so they hold a slot like any request
+                return screening.runWhenFree(() -> {
+                    var batch = OptionCsvLoader.fillMissingIv(parsed, screening.pool(), screening.threads(), s -> ivSolved(metrics, s), j::cancelled);
+                    var engine = new ScreeningEngine(screen, new Ranker(), screening.pool(), screening.threads(), metrics);
+                    return engine.topK(batch, limit, j);
+                }, j::cancelled);
+            });
+            ctx.status(202).header("Location", "/jobs/" + job.id).json(jobJson(job));
+        });
+
+        // GET /jobs/{id} -> state, progress counters, and the results once done
+        app.get("/jobs/{id}", ctx -> {
+            var job = jobs.get(ctx.pathParam("id"));
+            if (job == null) ctx.status(404).json(Map.of("error", "unknown or expired job"));
+            else ctx.json(jobJson(job));
+        });
+
+        // DELETE /jobs/{id} -> cancels a queued or running job; the job stays readable until its TTL
+        app.delete("/jobs/{id}", ctx -> {
+            var job = jobs.cancel(ctx.pathParam("id"));
+            if (job == null) ctx.status(404).json(Map.of("error", "unknown or expired job"));
+            else ctx.status(202).json(jobJson(job));
+        });
+
+        // GET /strategies?csv=PATH&limit=20[&types=IRON_CONDOR,BULL_PUT_CREDIT][&maxLoss=1000&maxWidthPct=0.15&minCreditPct=0.2&minDte=7&maxDte=120]
+        app.get("/strategies", ctx -> {
+            String csvPath = ctx.queryParam("csv");
+            if (csvPath == null || csvPath.isBlank()) {
+                ctx.status(400).json(Map.of("error", "missing query param 'csv'"));
+                return;
+            }
+            int limit = Math.max(1, Math.min(parseIntOr(ctx.queryParam("limit"), 20), 500));
+            Set<StrategyType> types = EnumSet.allOf(StrategyType.class);
+            String typeList = ctx.queryParam("types");
+            if (typeList != null && !typeList.isBlank()) {
+                types = EnumSet.noneOf(StrategyType.class);
+                try {
+                    for (String t : typeList.split(",")) types.add(StrategyType.valueOf(t.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    ctx.status(400).json(Map.of("error", "unknown strategy type in '" + typeList + "'", "types", StrategyType.values()));
+                    return;
                 }
             }
+            var d = StrategySearch.Limits.DEFAULT;
+            var limits = new StrategySearch.Limits(d.minVolume(), d.minOpenInterest(), d.maxLegSpreadPct(),
+                parseIntOr(ctx.queryParam("minDte"), d.minDte()), parseIntOr(ctx.queryParam("maxDte"), d.maxDte()),
+                parseDoubleOr(ctx.queryParam("maxWidthPct"), d.maxWidthPct()), parseDoubleOr(ctx.queryParam("maxLoss"), d.maxLoss()),
+                parseDoubleOr(ctx.queryParam("minCreditPct"), d.minCreditPct()), d.condorSide());
+            var search = new StrategySearch(limits, new StrategyRanker(), screening.pool());
+            var path = Path.of(csvPath);
+            Set<StrategyType> wanted = types;
+            var result = screening.run(() -> search.search(chains.get(path), wanted, limit));
+            ctx.json(Map.of(
+                "legs", result.legs(),
+                "groups", result.groups(),
+                "candidates", result.candidates(),
+                "millis", result.nanos() / 1e6,
+                "strategies", result.top().stream().map(ApiServer::strategyJson).toList()));
+        });
+
+        // GET /metrics -> Prometheus text format: stage latencies/rows, rule rejections, executor, db, cache
+        app.get("/metrics", ctx -> ctx.contentType(PrometheusText.CONTENT_TYPE)
+            .result(prometheus(metrics, dbWrites, screening, writeBehind, chains)));
 
-            // return JSON
-            var json = results.stream().map(s -> Map.of(
-                "symbol", s.contract().symbol(),
-                "type", s.contract().type().name(),
-                "strike", s.contract().strike(),
-                "dte", s.contract().expiry().toEpochDay() - LocalDate.now().toEpochDay(),
-                "mid", s.quote().mid(),
-                "score", s.score(),
-                "volume", s.quote().volume(),
-                "openInterest", s.quote().openInterest(),
-                "spreadPct", s.quote().spreadPct() * 100.0
-            )).toList();
-
-            ctx.json(Map.of("count", json.size(), "results", json));
+        // GET /live/top[?symbol=AAPL] -> current live top-K (global or one symbol)
+        app.get("/live/top", ctx -> {
+            if (live == null) {
+                ctx.status(404).json(Map.of("error", "live screen not enabled (start with -Dstreetlens.live.source=DIR|FILE)"));
+                return;
+            }
+            String symbol = ctx.queryParam("symbol");
+            var top = symbol == null || symbol.isBlank() ? live.top() : live.top(symbol);
+            ctx.json(Map.of("contracts", live.size(), "accepted", live.accepted(), "failedRows", live.failedRows(),
+                "top", top.stream().map(JsonOut::fields).toList()));
         });
 
-        // GET /latest?limit=50
+        // GET /live/stream[?symbol=AAPL] (Accept: text/event-stream) -> "topk" events: the current list on connect, then every change
+        app.sse("/live/stream", client -> {
+            if (live == null) {
+                client.sendEvent("error", Map.of("error", "live screen not enabled"));
+                client.close();
+                return;
+            }
+            String symbol = client.ctx().queryParam("symbol");
+            String wanted = symbol == null || symbol.isBlank() ? null : symbol;
+            client.keepAlive();
+            // sent from the feed's own thread: a slow client never holds up the live screen, it only misses superseded lists
+            var feed = new LiveFeed(client, wanted, ApiServer::topEvent);
+            Runnable unsubscribe = live.subscribe(feed);
+            client.onClose(() -> {
+                unsubscribe.run();
+                feed.close();
+            });
+            feed.offer(wanted == null ? live.top() : live.top(wanted));
+        });
+
+        // GET /plans -> cached screen plans with rule order and per-rule rejection counts
+        app.get("/plans", ctx -> ctx.json(RulePlanner.cachedPlans().entrySet().stream()
+            .map(e -> Map.of("spec", e.getKey(), "rules", e.getValue()))
+            .toList()));
+
+        // GET /trends/scan?dir=PATH | manifest=FILE [&limit=100] -> ranked trend summaries, per-file timing and errors
+        app.get("/trends/scan", ctx -> {
+            String dir = ctx.queryParam("dir"), manifest = ctx.queryParam("manifest");
+            if ((dir == null || dir.isBlank()) == (manifest == null || manifest.isBlank())) {
+                ctx.status(400).json(Map.of("error", "pass exactly one of 'dir' or 'manifest'"));
+                return;
+            }
+            int limit = Math.max(1, parseIntOr(ctx.queryParam("limit"), 100));
+            var files = dir != null && !dir.isBlank()
+                ? TrendScanner.listCsv(Path.of(dir))
+                : TrendScanner.readManifest(Path.of(manifest));
+            var report = screening.run(() -> TrendScanner.scan(files));
+            ctx.json(Map.of(
+                "files", report.files(),
+                "wallMillis", report.wallMillis(),
+                "ranked", report.ranked().subList(0, Math.min(limit, report.ranked().size())),
+                "failed", report.failed()));
+        });
+
+        // GET /latest?limit=50[&symbol=AAPL][&format=ndjson] -> rows streamed as they are read
         app.get("/latest", ctx -> {
             int limit = parseIntOr(ctx.queryParam("limit"), 50);
             limit = Math.max(1, Math.min(limit, 500));
-            Path dbPath = Paths.get("target", "streetlens.db");
-            try (Db db = new Db(dbPath)) {
-                var rows = db.latest(limit);
-                ctx.json(Map.of("count", rows.size(), "rows", rows));
+            String symbol = ctx.queryParam("symbol");
+            // the page is read first (limit is bounded) so the read connection is back in the pool before any slow client write
+            var rows = db.latest(symbol == null || symbol.isBlank() ? null : symbol, limit);
+            try (var out = JsonOut.open(ctx, "rows")) {
+                for (var r : rows) out.row(r);
+                out.endItems();
             }
         });
 
         System.out.println("API listening on http://localhost:" + port);
-        System.out.println("Try:  /health,  /screen?csv=PATH&save=true,  /latest");
+        System.out.println("Try:  /health,  /screen?csv=PATH&save=true,  /latest,  /plans,  /metrics,  /trends/scan?dir=PATH,  /strategies?csv=PATH,  POST /jobs/screen?csv=PATH,  /live/top,  /live/stream");
+    }
+
+    private static Map<String, Object> topEvent(String symbol, List<Ranker.Scored> top){
+        return Map.of("scope", symbol == null ? "global" : symbol, "top", top.stream().map(JsonOut::fields).toList());
+    }
+
+    /** Records one implied-vol solve under {@link Stage#IV_SOLVE} and returns its time, which the caller keeps out of PARSE. */
+    private static long ivSolved(PipelineMetrics metrics, ImpliedVol.Stats s){
+        metrics.record(Stage.IV_SOLVE, s.nanos(), s.rows(), s.converged());
+        if (s.failed() > 0) System.err.println("iv solve: " + s.failed() + " of " + s.rows() + " rows unsolved, filled from the vol surface");
+        return s.nanos();
+    }
+
+    private static String prometheus(PipelineMetrics metrics, LatencyHistogram dbWrites, ScreeningExecutor screening,
+                                     WriteBehind writeBehind, ChainCache chains){
+        var out = new PrometheusText();
+        metrics.writeTo(out);
+
+        // per rule name over every plan, evicted ones included, so these stay monotonic
+        var rules = RulePlanner.ruleTotals();
+        out.type("streetlens_rule_evaluated_total", "counter", "Rows each screen rule was evaluated on.");
+        rules.forEach((name, c) -> out.sample("streetlens_rule_evaluated_total", c.evaluated(), "rule", name));
+        out.type("streetlens_rule_rejected_total", "counter", "Rows each screen rule rejected.");
+        rules.forEach((name, c) -> out.sample("streetlens_rule_rejected_total", c.rejected(), "rule", name));
+
+        var ex = screening.stats();
+        out.gauge("streetlens_screen_threads", "Screening pool threads.", ex.threads());
+        out.gauge("streetlens_screen_inflight", "Screens currently admitted.", ex.inFlight());
+        out.gauge("streetlens_screen_waiting", "Requests waiting for a screening slot.", ex.waiting());
+        out.gauge("streetlens_screen_pool_queue_depth", "Engine chunks queued in the screening pool.", ex.poolQueueDepth());
+        out.gauge("streetlens_screen_pool_active", "Screening pool threads busy.", ex.poolActive());
+        out.counter("streetlens_screen_completed_total", "Screens completed.", ex.completed());
+        out.counter("streetlens_screen_rejected_total", "Screens turned away (429/503).", ex.rejected());
+
+        var wb = writeBehind.stats();
+        out.type("streetlens_db_write_seconds", "summary", "Latency of one write-behind batch insert.");
+        out.summary("streetlens_db_write_seconds", dbWrites);
+        out.gauge("streetlens_db_write_queue", "Entries waiting in the write-behind queue.", wb.queued());
+        out.counter("streetlens_db_written_total", "Rows written by the write-behind queue.", wb.written());
+        out.counter("streetlens_db_dropped_total", "Rows refused because the write-behind queue was full.", wb.dropped());
+        out.counter("streetlens_db_failed_total", "Rows in batches that failed to insert.", wb.failed());
+
+        var cc = chains.stats();
+        out.gauge("streetlens_chain_cache_entries", "Parsed chains cached.", cc.entries());
+        out.gauge("streetlens_chain_cache_bytes", "Estimated bytes held by cached chains.", cc.bytes());
+        out.counter("streetlens_chain_cache_hits_total", "Chain cache hits.", cc.hits());
+        out.counter("streetlens_chain_cache_misses_total", "Chain cache misses (parses).", cc.misses());
+        out.counter("streetlens_chain_cache_evictions_total", "Chains evicted.", cc.evictions());
+        return out.toString();
+    }
+
+    private static Db.Entry toEntry(Ranker.Scored s){
+        long dte = s.contract().expiry().toEpochDay() - LocalDate.now().toEpochDay();
+        return new Db.Entry(
+            s.contract().symbol(),
+            s.contract().type().name(),
+            s.contract().strike(),
+            dte,
+            s.quote().mid(),
+            s.score(),
+            s.quote().volume(),
+            s.quote().openInterest(),
+            s.quote().spreadPct() * 100.0
+        );
+    }
+
+    private static Map<String, Object> jobJson(ScreenJobs.Job job){
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", job.id);
+        m.put("state", job.state());
+        m.put("csv", job.csv);
+        m.put("limit", job.limit);
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("parsed", job.parsed.get());
+        progress.put("screened", job.screened.get());
+        progress.put("scored", job.scored.get());
+        m.put("progress", progress);
+        long started = job.startedMillis(), ended = job.endedMillis();
+        m.put("queuedMillis", (started > 0 ? started : ended > 0 ? ended : System.currentTimeMillis()) - job.createdMillis);
+        if (started > 0) m.put("runMillis", (ended > 0 ? ended : System.currentTimeMillis()) - started);
+        if (job.error() != null) m.put("error", job.error());
+        var results = job.results();
+        if (results != null) m.put("results", results.stream().map(JsonOut::fields).toList());
+        return m;
+    }
+
+    private static Map<String, Object> strategyJson(Strategy s){
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("type", s.type().name());
+        m.put("symbol", s.symbol());
+        m.put("expiry", s.expiry().toString());
+        m.put("score", s.score());
+        m.put("netCredit", s.netCredit());
+        m.put("maxProfit", s.maxProfit());
+        m.put("maxLoss", s.maxLoss());
+        m.put("breakEvenLow", s.breakEvenLow());
+        if (!Double.isNaN(s.breakEvenHigh())) m.put("breakEvenHigh", s.breakEvenHigh());
+        m.put("probProfit", s.probProfit());
+        m.put("modelEdge", s.modelEdge());
+        m.put("legs", s.legs().stream().map(l -> Map.of(
+            "type", l.contract().type().name(),
+            "strike", l.contract().strike(),
+            "quantity", l.quantity(),
+            "bid", l.quote().bid(),
+            "ask", l.quote().ask(),
+            "iv", l.quote().iv(),
+            "model", l.modelPrice())).toList());
+        return m;
+    }
+
+    private static double parseDoubleOr(String s, double def){
+        try { return Double.parseDouble(s); } catch (Exception e) { return def; }
     }
 
     private static int parseIntOr(String s, int def){
@@ -0,0 +1,109 @@
+package com.streetlens.options.api;
+
+import com.streetlens.options.domain.OptionChainBatch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Parsed chains keyed by file fingerprint (path, size, mtime, and the load day, since time to
+ * expiry is computed against today). Entries are evicted least-recently-used first until the
+ * summed {@link OptionChainBatch#estimatedBytes()} fits the budget. Concurrent misses for the same
+ * fingerprint share one parse.
+ */
+final class ChainCache {
+    interface Loader { OptionChainBatch load(Path path) throws IOException; }
+
+    record Key(Path path, long size, long modifiedMillis, long epochDay) {}
+
+    record Stats(int entries, long bytes, long maxBytes, long hits, long misses, long coalesced, long evictions) {}
+
+    private record Entry(OptionChainBatch batch, long bytes) {}
+
+    private final long maxBytes;
+    private final Loader loader;
+    private final LinkedHashMap<Key, Entry> lru = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Key, CompletableFuture<OptionChainBatch>> loading = new HashMap<>();
+    private long bytes, hits, misses, coalesced, evictions;
+
+    ChainCache(long maxBytes, Loader loader){
+        this.maxBytes = maxBytes;
+        this.loader = loader;
+    }
+
+    OptionChainBatch get(Path path) throws IOException {
+        Path abs = path.toAbsolutePath().normalize();
+        var attrs = Files.readAttributes(abs, BasicFileAttributes.class);
+        Key key = new Key(abs, attrs.size(), attrs.lastModifiedTime().toMillis(), LocalDate.now().toEpochDay());
+
+        CompletableFuture<OptionChainBatch> pending;
+        boolean owner = false;
+        synchronized (this) {
+            Entry e = lru.get(key);
+            if (e != null) { hits++; return e.batch(); }
+            pending = loading.get(key);
+            if (pending != null) {
+                coalesced++;
+            } else {
+                misses++;
+                pending = new CompletableFuture<>();
+                loading.put(key, pending);
+                owner = true;
+            }
+        }
+        if (owner) load(key, pending);
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    private void load(Key key, CompletableFuture<OptionChainBatch> pending){
+        try {
+            OptionChainBatch batch = loader.load(key.path());
+            synchronized (this) {
+                loading.remove(key);
+                put(key, batch);
+            }
+            pending.complete(batch);
+        } catch (Throwable t) {
+            synchronized (this) { loading.remove(key); }
+            pending.completeExceptionally(t);
+        }
+    }
+
+    private void put(Key key, OptionChainBatch batch){
+        // older fingerprints of the same file will never be asked for again
+        lru.entrySet().removeIf(e -> {
+            if (!e.getKey().path().equals(key.path())) return false;
+            bytes -= e.getValue().bytes();
+            evictions++;
+            return true;
+        });
+        long size = batch.estimatedBytes();
+        if (size > maxBytes) return;
+        lru.put(key, new Entry(batch, size));
+        bytes += size;
+        var it = lru.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            var eldest = it.next();
+            bytes -= eldest.getValue().bytes();
+            evictions++;
+            it.remove();
+        }
+    }
+
+    synchronized Stats stats(){
+        return new Stats(lru.size(), bytes, maxBytes, hits, misses, coalesced, evictions);
+    }
+}
@@ -0,0 +1,58 @@
+package com.streetlens.options.api;
+
+import com.streetlens.options.streaming.SnapshotDiff;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Baselines for {@code /screen?diff=true}: one {@link SnapshotDiff} per key. Least recently used
+ * baselines are dropped while there are more than {@code maxEntries} or their summed
+ * {@link SnapshotDiff#estimatedBytes()} is over {@code maxBytes}. Sizes are only known after a
+ * diff has run, so {@link #trim} is called after each one. As in {@link ChainCache}, a baseline
+ * larger than the whole budget is not kept; the next diff of that key starts from scratch.
+ */
+final class DiffBaselines<K> {
+    record Stats(int entries, long bytes, long maxBytes, long evictions) {}
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<K, SnapshotDiff> lru = new LinkedHashMap<>(16, 0.75f, true);
+    private long evictions;
+
+    DiffBaselines(int maxEntries, long maxBytes){
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized SnapshotDiff get(K key, Supplier<SnapshotDiff> create){
+        return lru.computeIfAbsent(key, k -> create.get());
+    }
+
+    /** Evicts least recently used baselines until count and bytes fit, sparing {@code keep}. */
+    synchronized void trim(K keep){
+        long bytes = bytes();
+        Iterator<Map.Entry<K, SnapshotDiff>> it = lru.entrySet().iterator();
+        while ((lru.size() > maxEntries || bytes > maxBytes) && it.hasNext()) {
+            var eldest = it.next();
+            if (eldest.getKey().equals(keep)) continue;
+            bytes -= eldest.getValue().estimatedBytes();
+            evictions++;
+            it.remove();
+        }
+        if (bytes > maxBytes && lru.size() == 1) {
+            lru.remove(keep); // one baseline bigger than the whole budget: not worth keeping
+            evictions++;
+        }
+    }
+
+    synchronized Stats stats(){ return new Stats(lru.size(), bytes(), maxBytes, evictions); }
+
+    private long bytes(){
+        long sum = 0;
+        for (var d : lru.values()) sum += d.estimatedBytes();
+        return sum;
+    }
+}
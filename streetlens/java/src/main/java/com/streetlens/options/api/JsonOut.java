@@ -0,0 +1,163 @@
+package com.streetlens.options.api;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.streetlens.options.persistence.Db;
+import com.streetlens.options.ranking.Ranker;
+import com.streetlens.options.streaming.SnapshotDiff;
+import io.javalin.http.Context;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes a list-shaped response item by item straight to the response stream. In
+ * {@code format=ndjson} mode every item is one line; otherwise the items go into a JSON array
+ * field of a single object, followed by the summary fields. Nothing is buffered per item.
+ *
+ * <p>If the writer fails part way, {@link #close()} leaves the body unfinished instead of closing
+ * it into JSON that looks complete; whatever is still in the generator's buffer is dropped, so a
+ * short response never reaches the client and the error handler can still answer with an error.
+ */
+final class JsonOut implements AutoCloseable {
+    // close() decides what to close itself; Jackson must not complete a half-written body
+    private static final JsonFactory FACTORY = JsonFactory.builder().disable(StreamWriteFeature.AUTO_CLOSE_CONTENT).build();
+
+    private final JsonGenerator gen;
+    private final boolean ndjson;
+    private final long today = LocalDate.now().toEpochDay();
+    private int count;
+
+    private JsonOut(JsonGenerator gen, boolean ndjson){
+        this.gen = gen;
+        this.ndjson = ndjson;
+    }
+
+    /** Opens the response; {@code arrayField} names the item array in plain JSON mode. */
+    static JsonOut open(Context ctx, String arrayField) throws IOException {
+        boolean ndjson = "ndjson".equalsIgnoreCase(ctx.queryParam("format"));
+        ctx.contentType(ndjson ? "application/x-ndjson" : "application/json");
+        var out = new JsonOut(FACTORY.createGenerator(ctx.outputStream()), ndjson);
+        if (ndjson) {
+            out.gen.setRootValueSeparator(null); // lines are terminated explicitly
+        } else {
+            out.gen.writeStartObject();
+            out.gen.writeArrayFieldStart(arrayField);
+        }
+        return out;
+    }
+
+    int count(){ return count; }
+
+    void scored(Ranker.Scored s) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("symbol", s.contract().symbol());
+        gen.writeStringField("type", s.contract().type().name());
+        gen.writeNumberField("strike", s.contract().strike());
+        gen.writeNumberField("dte", s.contract().expiry().toEpochDay() - today);
+        gen.writeNumberField("mid", s.quote().mid());
+        gen.writeNumberField("score", s.score());
+        gen.writeNumberField("volume", s.quote().volume());
+        gen.writeNumberField("openInterest", s.quote().openInterest());
+        gen.writeNumberField("spreadPct", s.quote().spreadPct() * 100.0);
+        endItem();
+    }
+
+    /** Same fields as {@link #scored}, as a map for callers that hand objects to a JSON mapper. */
+    static Map<String, Object> fields(Ranker.Scored s){
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("symbol", s.contract().symbol());
+        m.put("type", s.contract().type().name());
+        m.put("strike", s.contract().strike());
+        m.put("dte", s.contract().expiry().toEpochDay() - LocalDate.now().toEpochDay());
+        m.put("mid", s.quote().mid());
+        m.put("score", s.score());
+        m.put("volume", s.quote().volume());
+        m.put("openInterest", s.quote().openInterest());
+        m.put("spreadPct", s.quote().spreadPct() * 100.0);
+        return m;
+    }
+
+    void row(Db.Row r) {
+        try {
+            gen.writeStartObject();
+            gen.writeNumberField("id", r.id());
+            gen.writeStringField("ts", r.ts());
+            gen.writeStringField("symbol", r.symbol());
+            gen.writeStringField("type", r.type());
+            gen.writeNumberField("strike", r.strike());
+            gen.writeNumberField("dte", r.dte());
+            gen.writeNumberField("mid", r.mid());
+            gen.writeNumberField("score", r.score());
+            gen.writeNumberField("volume", r.volume());
+            gen.writeNumberField("oi", r.oi());
+            gen.writeNumberField("spreadPct", r.spreadPct());
+            endItem();
+        } catch (IOException e) { throw new UncheckedIOException(e); }
+    }
+
+    private void endItem() throws IOException {
+        gen.writeEndObject();
+        if (ndjson) { gen.writeRaw('\n'); gen.flush(); }
+        count++;
+    }
+
+    /** Closes the array; summary fields follow it in plain JSON mode and are dropped for ndjson. */
+    void endItems() throws IOException {
+        if (!ndjson) {
+            gen.writeEndArray();
+            gen.writeNumberField("count", count);
+        }
+    }
+
+    void summary(String field, long value) throws IOException {
+        if (!ndjson) gen.writeNumberField(field, value);
+    }
+
+    /** Summary object for a diffed screen: row counts, and the contracts that entered or left the top-K. */
+    void delta(SnapshotDiff.Result r) throws IOException {
+        if (ndjson) return;
+        var u = r.rows();
+        gen.writeObjectFieldStart("delta");
+        gen.writeNumberField("rows", u.rows());
+        gen.writeNumberField("added", u.added());
+        gen.writeNumberField("changed", u.changed());
+        gen.writeNumberField("removed", u.removed());
+        gen.writeNumberField("unchanged", u.unchanged());
+        gen.writeNumberField("millis", r.nanos() / 1e6);
+        gen.writeArrayFieldStart("entered");
+        for (var s : r.entered()) {
+            gen.writeStartObject();
+            gen.writeStringField("symbol", s.contract().symbol());
+            gen.writeStringField("type", s.contract().type().name());
+            gen.writeNumberField("strike", s.contract().strike());
+            gen.writeNumberField("dte", s.contract().expiry().toEpochDay() - today);
+            gen.writeNumberField("score", s.score());
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("left");
+        for (var key : r.left()) {
+            gen.writeStartObject();
+            gen.writeStringField("symbol", key.symbol());
+            gen.writeStringField("type", key.type().name());
+            gen.writeNumberField("strike", key.strike());
+            gen.writeNumberField("dte", key.expiryEpochDay() - today);
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    @Override public void close() throws IOException {
+        var at = gen.getOutputContext();
+        boolean whole = ndjson ? at.inRoot() : at.inObject() && at.getParent().inRoot();
+        if (!whole) return; // stopped inside an item or array: abort rather than close what was never finished
+        if (!ndjson) gen.writeEndObject();
+        gen.close();
+    }
+}
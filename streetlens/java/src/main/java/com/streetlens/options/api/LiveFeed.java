@@ -0,0 +1,61 @@
+package com.streetlens.options.api;
+
+import com.streetlens.options.ranking.Ranker;
+import com.streetlens.options.streaming.LiveScreen;
+import io.javalin.http.sse.SseClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+
+/**
+ * One {@code /live/stream} client. {@link LiveScreen} listeners run on its poll thread, so this
+ * one only parks the list in a one-slot mailbox; the client's own virtual thread does the network
+ * write. A client that falls behind is coalesced: a list not yet sent is replaced by the newer
+ * one (each event is a whole top-K, so only the latest matters).
+ */
+final class LiveFeed implements LiveScreen.Listener {
+    private final SseClient client;
+    private final String symbol;
+    private final BiFunction<String, List<Ranker.Scored>, Map<String, Object>> event;
+    private final AtomicReference<List<Ranker.Scored>> pending = new AtomicReference<>();
+    private final Thread sender;
+    private volatile boolean closed;
+
+    /** {@code symbol} is {@code null} to follow the global list. */
+    LiveFeed(SseClient client, String symbol, BiFunction<String, List<Ranker.Scored>, Map<String, Object>> event){
+        this.client = client;
+        this.symbol = symbol;
+        this.event = event;
+        this.sender = Thread.ofVirtual().name("live-feed").start(this::send);
+    }
+
+    @Override public void topChanged(String s, List<Ranker.Scored> top){
+        if (Objects.equals(s, symbol)) offer(top);
+    }
+
+    /** Queues {@code top} for sending, replacing one still waiting; never blocks. */
+    void offer(List<Ranker.Scored> top){
+        pending.set(top);
+        LockSupport.unpark(sender);
+    }
+
+    void close(){
+        closed = true;
+        LockSupport.unpark(sender);
+    }
+
+    private void send(){
+        while (!closed && !client.terminated()) {
+            var top = pending.getAndSet(null);
+            if (top == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            client.sendEvent("topk", event.apply(symbol, top));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.streetlens.options.api;
+
+import com.streetlens.options.ingestion.OptionCsvLoader;
+import com.streetlens.options.ranking.Ranker;
+import com.streetlens.options.screening.ScreeningEngine;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Screens run in the background for {@code POST /jobs/screen}. A fixed set of {@code workers}
+ * threads takes jobs from a queue of at most {@code maxQueued}; a submit beyond that is refused
+ * with {@link ScreeningExecutor.Saturated} (429) instead of starting more work. A worker parses on
+ * its own thread; the {@link Work} then takes a {@link ScreeningExecutor} slot for the iv solve
+ * and screen, which run on that pool, so jobs count against the same concurrency limit as requests.
+ *
+ * <p>Each {@link Job} counts rows parsed, screened and accepted (scored) as it goes.
+ * {@link #cancel} drops a queued job outright; a running one sees the flag in its parse sink,
+ * while waiting for a slot, in the iv solve and in the engine chunks, and stops with a
+ * {@link CancellationException}. Finished jobs (done, failed or
+ * cancelled) are kept for {@code ttlMillis} after they end and purged lazily on the next call.
+ */
+final class ScreenJobs implements AutoCloseable {
+    enum State { QUEUED, RUNNING, DONE, FAILED, CANCELLED }
+
+    /** The background part of a job; reads its input through {@link Job#sink} and screens with {@link Job} as progress. */
+    @FunctionalInterface
+    interface Work { List<Ranker.Scored> run(Job job) throws Exception; }
+
+    record Stats(int queued, int running, int retained, long submitted, long rejected, int workers, int maxQueued) {}
+
+    static final class Job implements ScreeningEngine.Progress {
+        private static final int CHECK_ROWS = 4096;
+
+        final String id;
+        final String csv;
+        final int limit;
+        final long createdMillis = System.currentTimeMillis();
+        final AtomicLong parsed = new AtomicLong(), screened = new AtomicLong(), scored = new AtomicLong();
+        private volatile State state = State.QUEUED;
+        private volatile boolean cancelled;
+        private volatile long startedMillis, endedMillis;
+        private volatile List<Ranker.Scored> results;
+        private volatile String error;
+        private Future<?> future;
+
+        Job(String id, String csv, int limit){
+            this.id = id;
+            this.csv = csv;
+            this.limit = limit;
+        }
+
+        State state(){ return state; }
+        List<Ranker.Scored> results(){ return results; }
+        String error(){ return error; }
+        long startedMillis(){ return startedMillis; }
+        long endedMillis(){ return endedMillis; }
+
+        @Override public boolean cancelled(){ return cancelled; }
+
+        @Override public void screened(long rows, long accepted){
+            screened.addAndGet(rows);
+            scored.addAndGet(accepted);
+        }
+
+        /** Wraps {@code into} so every row is counted and the parse stops once the job is cancelled. */
+        OptionCsvLoader.RowSink sink(OptionCsvLoader.RowSink into){
+            return (symbol, type, strike, expiry, spot, iv, r, t, bid, ask, volume, oi) -> {
+                into.row(symbol, type, strike, expiry, spot, iv, r, t, bid, ask, volume, oi);
+                if (parsed.incrementAndGet() % CHECK_ROWS == 0 && cancelled) throw new CancellationException("parse cancelled");
+            };
+        }
+
+        boolean finished(){ return state != State.QUEUED && state != State.RUNNING; }
+    }
+
+    private final ThreadPoolExecutor workers;
+    private final long ttlMillis;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong submitted = new AtomicLong(), rejected = new AtomicLong();
+    private final AtomicInteger running = new AtomicInteger();
+
+    ScreenJobs(int workers, int maxQueued, long ttlMillis){
+        AtomicInteger n = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(maxQueued), r -> {
+            Thread t = new Thread(r, "screen-job-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.ttlMillis = ttlMillis;
+    }
+
+    /** Queues {@code work}; throws {@link ScreeningExecutor.Saturated} (429) when the queue is full. */
+    Job submit(String csv, int limit, Work work){
+        purge();
+        Job job = new Job(UUID.randomUUID().toString(), csv, limit);
+        try {
+            job.future = workers.submit(() -> run(job, work));
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new ScreeningExecutor.Saturated(429, "job queue full (" + workers.getQueue().size() + " queued)");
+        }
+        jobs.put(job.id, job);
+        submitted.incrementAndGet();
+        return job;
+    }
+
+    private void run(Job job, Work work){
+        synchronized (job) {
+            if (job.cancelled) return; // cancel() already ended it
+            job.startedMillis = System.currentTimeMillis();
+            job.state = State.RUNNING;
+        }
+        running.incrementAndGet();
+        State end;
+        try {
+            job.results = List.copyOf(work.run(job));
+            end = State.DONE;
+        } catch (CancellationException e) {
+            end = State.CANCELLED;
+        } catch (Exception e) {
+            job.error = String.valueOf(e.getMessage());
+            end = job.cancelled ? State.CANCELLED : State.FAILED;
+        } finally {
+            running.decrementAndGet();
+        }
+        synchronized (job) {
+            job.endedMillis = System.currentTimeMillis(); // before the state, so purge never sees a finished job without it
+            job.state = end;
+        }
+    }
+
+    Job get(String id){
+        purge();
+        return jobs.get(id);
+    }
+
+    /**
+     * Requests cancellation; a queued job is removed from the queue and ends at once, a running
+     * one stops at its next check. Returns the job, or {@code null} if unknown.
+     */
+    Job cancel(String id){
+        Job job = get(id);
+        if (job == null) return null;
+        boolean dequeued = false;
+        synchronized (job) {
+            if (job.finished()) return job;
+            job.cancelled = true;
+            if (job.state == State.QUEUED) {
+                dequeued = job.future.cancel(false);
+                job.endedMillis = System.currentTimeMillis();
+                job.state = State.CANCELLED;
+            }
+        }
+        if (dequeued) workers.purge(); // frees the queue slot now rather than when a worker reaches it
+        return job;
+    }
+
+    private void purge(){
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        jobs.values().removeIf(j -> j.finished() && j.endedMillis < cutoff);
+    }
+
+    Stats stats(){
+        purge();
+        return new Stats(workers.getQueue().size(), running.get(), jobs.size(), submitted.get(), rejected.get(),
+            workers.getCorePoolSize(), workers.getQueue().size() + workers.getQueue().remainingCapacity());
+    }
+
+    @Override public void close(){ workers.shutdownNow(); }
+}
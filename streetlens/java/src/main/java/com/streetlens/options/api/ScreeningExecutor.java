@@ -0,0 +1,96 @@
+package com.streetlens.options.api;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Server-wide home for CPU-bound screening. One fixed pool (sized to the cores) runs the
+ * {@code ScreeningEngine} chunks for every request and background job; admission is bounded
+ * separately so the pool never sees more than {@code maxConcurrent} screens at once. Up to
+ * {@code maxQueued} further requests wait (on their own virtual threads) for a slot; beyond that,
+ * or after {@code queueTimeout}, {@link #run} throws {@link Saturated}. Background jobs, already
+ * bounded by their own queue, wait in {@link #runWhenFree} instead and are never refused.
+ */
+final class ScreeningExecutor implements AutoCloseable {
+    /** Thrown when a request is turned away; {@link #status()} is the HTTP status to answer with. */
+    static final class Saturated extends RejectedExecutionException {
+        private static final long serialVersionUID = 1L;
+        private final int status;
+        Saturated(int status, String message){ super(message); this.status = status; }
+        int status(){ return status; }
+    }
+
+    record Stats(int threads, int inFlight, int waiting, int poolQueueDepth, int poolActive,
+                 long completed, long rejected) {}
+
+    private final ThreadPoolExecutor pool;
+    private final Semaphore slots;
+    private final int maxConcurrent, maxQueued;
+    private final long queueTimeoutMs;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong(), rejected = new AtomicLong();
+
+    ScreeningExecutor(int threads, int maxConcurrent, int maxQueued, long queueTimeoutMs){
+        AtomicInteger n = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "screen-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.slots = new Semaphore(maxConcurrent, true);
+    }
+
+    /** Pool for engine chunks; only tasks of admitted requests are submitted here. */
+    Executor pool(){ return pool; }
+    int threads(){ return pool.getCorePoolSize(); }
+
+    /** Runs {@code work} on the calling thread once a slot is free. */
+    <T> T run(Callable<T> work) throws Exception {
+        if (waiting.incrementAndGet() > maxQueued) {
+            waiting.decrementAndGet();
+            rejected.incrementAndGet();
+            throw new Saturated(429, "screening queue full (" + maxQueued + " waiting)");
+        }
+        boolean admitted;
+        try {
+            admitted = slots.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        if (!admitted) {
+            rejected.incrementAndGet();
+            throw new Saturated(503, "no screening slot within " + queueTimeoutMs + " ms");
+        }
+        try {
+            return work.call();
+        } finally {
+            slots.release();
+            completed.incrementAndGet();
+        }
+    }
+
+    /** Runs {@code work} once a slot is free, however long that takes; gives up with a {@link CancellationException} once {@code cancelled}. */
+    <T> T runWhenFree(Callable<T> work, BooleanSupplier cancelled) throws Exception {
+        while (!slots.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+            if (cancelled.getAsBoolean()) throw new CancellationException("cancelled while waiting for a screening slot");
+        }
+        try {
+            return work.call();
+        } finally {
+            slots.release();
+            completed.incrementAndGet();
+        }
+    }
+
+    Stats stats(){
+        return new Stats(pool.getCorePoolSize(), maxConcurrent - slots.availablePermits(), waiting.get(),
+            pool.getQueue().size(), pool.getActiveCount(), completed.get(), rejected.get());
+    }
+
+    @Override public void close(){ pool.shutdownNow(); }
+}
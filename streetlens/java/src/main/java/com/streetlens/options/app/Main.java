@@ -5,7 +5,6 @@ import com.streetlens.options.screening.*;
 import com.streetlens.options.ranking.*;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.concurrent.*;
 
 public class Main {
     public static void main(String[] args) throws Exception {
@@ -26,35 +25,19 @@ public class Main {
             Rules.deltaBetween(-0.35, 0.35)
         );
 
-        var ranker = new Ranker();
-        var pool = Executors.newFixedThreadPool(Math.min(4, Runtime.getRuntime().availableProcessors()));
-        try {
-            var futures = new ArrayList<Future<Ranker.Scored>>();
-            for (var e : universe) {
-                futures.add(pool.submit(() -> {
-                    if (!screen.accept(e.getKey(), e.getValue())) return null;
-                    return ranker.score(e.getKey(), e.getValue());
-                }));
-            }
-            var results = futures.stream().map(f -> {
-                try { return f.get(); } catch (Exception ex) { return null; }
-            }).filter(Objects::nonNull)
-              .sorted(Comparator.comparingDouble(Ranker.Scored::score).reversed())
-              .toList();
+        var engine = new ScreeningEngine(screen, new Ranker());
+        var results = engine.topK(universe, Math.max(1, universe.size()));
 
-            System.out.println("Top candidates:");
-            for (var s : results) {
-                long dte = s.contract().expiry().toEpochDay() - today.toEpochDay();
-                System.out.printf("%s %s dte=%d strike=%.2f mid=%.2f score=%.4f%n",
-                    s.contract().symbol(),
-                    s.contract().type(),
-                    dte,
-                    s.contract().strike(),
-                    s.quote().mid(),
-                    s.score());
-            }
-        } finally {
-            pool.shutdownNow();
+        System.out.println("Top candidates:");
+        for (var s : results) {
+            long dte = s.contract().expiry().toEpochDay() - today.toEpochDay();
+            System.out.printf("%s %s dte=%d strike=%.2f mid=%.2f score=%.4f%n",
+                s.contract().symbol(),
+                s.contract().type(),
+                dte,
+                s.contract().strike(),
+                s.quote().mid(),
+                s.score());
         }
     }
 }
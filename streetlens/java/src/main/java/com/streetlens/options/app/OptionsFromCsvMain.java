@@ -5,26 +5,34 @@ import com.streetlens.options.ingestion.OptionCsvLoader;
 import com.streetlens.options.screening.*;
 import com.streetlens.options.ranking.*;
 import com.streetlens.options.persistence.Db;     // <-- add
+import com.streetlens.options.streaming.SnapshotDiff;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;                      // <-- add
 import java.util.*;
-import java.util.concurrent.*;
 
 public class OptionsFromCsvMain {
     public static void main(String[] args) throws Exception {
         boolean save = Arrays.stream(args).anyMatch("--save"::equals);
+        int limit = Arrays.stream(args)
+            .filter(a -> a.startsWith("--limit="))
+            .mapToInt(a -> Integer.parseInt(a.substring("--limit=".length())))
+            .findFirst().orElse(Integer.MAX_VALUE);
+        String diffAgainst = Arrays.stream(args)
+            .filter(a -> a.startsWith("--diff="))
+            .map(a -> a.substring("--diff=".length()))
+            .findFirst().orElse(null);
         Path dbPath = Paths.get("target", "streetlens.db");
 
         if (args.length < 1) {
-            System.out.println("Usage: java -cp <jar> com.streetlens.options.app.OptionsFromCsvMain <CSV_PATH> [--save]");
+            System.out.println("Usage: java -cp <jar> com.streetlens.options.app.OptionsFromCsvMain <CSV_PATH> [--save] [--limit=N] [--diff=PREV_CSV_PATH]");
             return;
         }
 
         var path = Path.of(args[0]);
-        var rows = OptionCsvLoader.load(path);
+        var rows = OptionCsvLoader.loadBatch(path);
 
-        var screen = Rules.and(
+        var screen = RulePlanner.plan(
             Rules.minVolume(500),
             Rules.minOpenInterest(2000),
             Rules.maxSpreadPct(0.08),
@@ -32,53 +40,53 @@ public class OptionsFromCsvMain {
             Rules.deltaBetween(-0.35, 0.35)
         );
 
-        var ranker = new Ranker();
-        var pool = Executors.newFixedThreadPool(Math.min(8, Runtime.getRuntime().availableProcessors()));
-        List<Ranker.Scored> results;                     // <-- declare outside
-
-        try {
-            List<Future<Ranker.Scored>> futures = new ArrayList<>();
-            for (var e : rows) {
-                futures.add(pool.submit(() -> {
-                    if (!screen.accept(e.getKey(), e.getValue())) return null;
-                    return ranker.score(e.getKey(), e.getValue());
-                }));
-            }
-            results = futures.stream().map(f -> {
-                try { return f.get(); } catch (Exception ex) { return null; }
-            }).filter(Objects::nonNull)
-              .sorted(Comparator.comparingDouble(Ranker.Scored::score).reversed())
-              .toList();
+        List<Ranker.Scored> results;
+        if (diffAgainst != null) {
+            // --diff: screen the previous file, then only rescreen what changed in this one
+            var diff = new SnapshotDiff(screen, new Ranker(), Math.max(1, limit));
+            diff.next(OptionCsvLoader.loadBatch(Path.of(diffAgainst)));
+            var r = diff.next(rows);
+            results = r.top();
+            var u = r.rows();
+            System.out.printf("Diff vs %s: %d rows, %d added, %d changed, %d removed, %d unchanged (%.2f ms)%n",
+                diffAgainst, u.rows(), u.added(), u.changed(), u.removed(), u.unchanged(), r.nanos() / 1e6);
+            for (var s : r.entered()) System.out.printf("  + %s %s %.2f %s score=%.4f%n",
+                s.contract().symbol(), s.contract().type(), s.contract().strike(), s.contract().expiry(), s.score());
+            for (var key : r.left()) System.out.printf("  - %s %s %.2f %s%n",
+                key.symbol(), key.type(), key.strike(), java.time.LocalDate.ofEpochDay(key.expiryEpochDay()));
+        } else {
+            var engine = new ScreeningEngine(screen, new Ranker());
+            results = engine.topK(rows, Math.max(1, limit));
+        }
+        System.out.println("Screen plan: " + screen.plan());
 
-            if (results.isEmpty()) {
-                System.out.println("No candidates passed the screen.");
-            } else {
-                System.out.println("Top candidates:");
-                for (var s : results) {
-                    long dte = s.contract().expiry().toEpochDay() - java.time.LocalDate.now().toEpochDay();
-                    System.out.printf("%s %s dte=%d strike=%.2f mid=%.2f score=%.4f (vol=%d oi=%d spread=%.2f%%)%n",
-                        s.contract().symbol(),
-                        s.contract().type(),
-                        dte,
-                        s.contract().strike(),
-                        s.quote().mid(),
-                        s.score(),
-                        s.quote().volume(),
-                        s.quote().openInterest(),
-                        s.quote().spreadPct()*100.0
-                    );
-                }
+        if (results.isEmpty()) {
+            System.out.println("No candidates passed the screen.");
+        } else {
+            System.out.println("Top candidates:");
+            for (var s : results) {
+                long dte = s.contract().expiry().toEpochDay() - java.time.LocalDate.now().toEpochDay();
+                System.out.printf("%s %s dte=%d strike=%.2f mid=%.2f score=%.4f (vol=%d oi=%d spread=%.2f%%)%n",
+                    s.contract().symbol(),
+                    s.contract().type(),
+                    dte,
+                    s.contract().strike(),
+                    s.quote().mid(),
+                    s.score(),
+                    s.quote().volume(),
+                    s.quote().openInterest(),
+                    s.quote().spreadPct()*100.0
+                );
             }
-        } finally {
-            pool.shutdownNow();
         }
 
         // Save after we have 'results'
         if (save && results != null && !results.isEmpty()) {
             try (Db db = new Db(dbPath)) {
+                var entries = new ArrayList<Db.Entry>(results.size());
                 for (var s : results) {
                     long dte = s.contract().expiry().toEpochDay() - java.time.LocalDate.now().toEpochDay();
-                    db.insert(
+                    entries.add(new Db.Entry(
                         s.contract().symbol(),
                         s.contract().type().name(),
                         s.contract().strike(),
@@ -88,8 +96,9 @@ public class OptionsFromCsvMain {
                         s.quote().volume(),
                         s.quote().openInterest(),
                         s.quote().spreadPct() * 100.0
-                    );
+                    ));
                 }
+                db.insertAll(entries);
                 System.out.println("Saved " + results.size() + " rows to " + dbPath);
             }
         }
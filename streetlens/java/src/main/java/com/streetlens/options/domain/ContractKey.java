@@ -0,0 +1,24 @@
+package com.streetlens.options.domain;
+
+import java.util.Comparator;
+
+/**
+ * Identity of a listed contract, independent of its quote: two rows with the same key are the
+ * same instrument at different times. Orders by symbol, expiry, type, then strike.
+ */
+public record ContractKey(String symbol, OptionType type, double strike, long expiryEpochDay) implements Comparable<ContractKey> {
+    private static final Comparator<ContractKey> ORDER = Comparator.comparing(ContractKey::symbol)
+        .thenComparingLong(ContractKey::expiryEpochDay)
+        .thenComparing(ContractKey::type)
+        .thenComparingDouble(ContractKey::strike);
+
+    public static ContractKey of(OptionContract c){
+        return new ContractKey(c.symbol(), c.type(), c.strike(), c.expiry().toEpochDay());
+    }
+
+    public static ContractKey of(OptionChainBatch b, int i){
+        return new ContractKey(b.symbol(i), b.type(i), b.strike(i), b.expiryEpochDay(i));
+    }
+
+    @Override public int compareTo(ContractKey o){ return ORDER.compare(this, o); }
+}
@@ -0,0 +1,233 @@
+package com.streetlens.options.domain;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Structure-of-arrays view of a whole option chain. Every per-row field lives in a primitive
+ * column; symbols and expiries are dictionary-encoded as int codes. Row accessors are index
+ * based and allocation-free; {@link #contract(int)} / {@link #quote(int)} materialize the
+ * record types only when a caller needs them (e.g. for the final top-K).
+ *
+ * <p>The column accessors ({@link #strikes()}, {@link #spots()}, ...) return the backing arrays
+ * for bulk kernels; only the first {@link #size()} entries are meaningful and callers must not
+ * modify them.
+ */
+public final class OptionChainBatch {
+    private final int size;
+    private final String[] symbolDict;
+    private final long[] expiryDict;
+    private final int[] symbolCode, expiryCode, multiplier;
+    private final boolean[] call;
+    private final double[] strike, spot, iv, r, t, bid, ask;
+    private final long[] volume, openInterest;
+
+    private OptionChainBatch(Builder b){
+        this.size = b.size;
+        this.symbolDict = b.symbols.toArray(new String[0]);
+        this.expiryDict = Arrays.copyOf(b.expiries, b.expiryCount);
+        this.symbolCode = b.symbolCode;
+        this.expiryCode = b.expiryCode;
+        this.multiplier = b.multiplier;
+        this.call = b.call;
+        this.strike = b.strike;
+        this.spot = b.spot;
+        this.iv = b.iv;
+        this.r = b.r;
+        this.t = b.t;
+        this.bid = b.bid;
+        this.ask = b.ask;
+        this.volume = b.volume;
+        this.openInterest = b.openInterest;
+    }
+
+    private OptionChainBatch(OptionChainBatch o, double[] iv){
+        this.size = o.size;
+        this.symbolDict = o.symbolDict;
+        this.expiryDict = o.expiryDict;
+        this.symbolCode = o.symbolCode;
+        this.expiryCode = o.expiryCode;
+        this.multiplier = o.multiplier;
+        this.call = o.call;
+        this.strike = o.strike;
+        this.spot = o.spot;
+        this.iv = iv;
+        this.r = o.r;
+        this.t = o.t;
+        this.bid = o.bid;
+        this.ask = o.ask;
+        this.volume = o.volume;
+        this.openInterest = o.openInterest;
+    }
+
+    public static OptionChainBatch of(List<Map.Entry<OptionContract, Quote>> rows){
+        var b = new Builder(rows.size());
+        for (var e : rows) b.add(e.getKey(), e.getValue());
+        return b.build();
+    }
+
+    public int size(){ return size; }
+
+    public int symbolCount(){ return symbolDict.length; }
+    public String symbolOf(int code){ return symbolDict[code]; }
+    public int expiryCount(){ return expiryDict.length; }
+    public long expiryEpochDayOf(int code){ return expiryDict[code]; }
+
+    public int symbolCode(int i){ return symbolCode[i]; }
+    public String symbol(int i){ return symbolDict[symbolCode[i]]; }
+    public int expiryCode(int i){ return expiryCode[i]; }
+    public long expiryEpochDay(int i){ return expiryDict[expiryCode[i]]; }
+    public boolean isCall(int i){ return call[i]; }
+    public OptionType type(int i){ return call[i] ? OptionType.CALL : OptionType.PUT; }
+    public int multiplier(int i){ return multiplier[i]; }
+    public double strike(int i){ return strike[i]; }
+    public double spot(int i){ return spot[i]; }
+    public double iv(int i){ return iv[i]; }
+    public double r(int i){ return r[i]; }
+    public double t(int i){ return t[i]; }
+    public double bid(int i){ return bid[i]; }
+    public double ask(int i){ return ask[i]; }
+    public long volume(int i){ return volume[i]; }
+    public long openInterest(int i){ return openInterest[i]; }
+
+    /** Same as {@link Quote#mid()}. */
+    public double mid(int i){ return (bid[i] + ask[i]) / 2.0; }
+    /** Same as {@link Quote#spreadPct()}. */
+    public double spreadPct(int i){ return (ask[i] - bid[i]) / Math.max(1e-9, mid(i)); }
+
+    /** Approximate heap footprint of the columns and dictionaries, for cache budgeting. */
+    public long estimatedBytes(){
+        long perRow = 3L*Integer.BYTES + 1 + 7L*Double.BYTES + 2L*Long.BYTES;
+        long dict = expiryDict.length * (long) Long.BYTES;
+        for (String s : symbolDict) dict += 48 + 2L*s.length();
+        return 256 + perRow * strike.length + dict;
+    }
+
+    /** A view sharing every column but iv, e.g. after backing vols out of the quotes; {@code iv} is not copied. */
+    public OptionChainBatch withIv(double[] iv){
+        if (iv.length < size) throw new IllegalArgumentException("iv length " + iv.length + " < " + size);
+        return new OptionChainBatch(this, iv);
+    }
+
+    public boolean[] calls(){ return call; }
+    public double[] strikes(){ return strike; }
+    public double[] spots(){ return spot; }
+    public double[] ivs(){ return iv; }
+    public double[] rates(){ return r; }
+    public double[] times(){ return t; }
+
+    public OptionContract contract(int i){
+        return new OptionContract(symbol(i), type(i), strike[i], LocalDate.ofEpochDay(expiryEpochDay(i)), multiplier[i]);
+    }
+
+    public Quote quote(int i){
+        return new Quote(spot[i], iv[i], r[i], t[i], bid[i], ask[i], volume[i], openInterest[i]);
+    }
+
+    /** Growable column builder; its {@code add} overload matches {@code OptionCsvLoader.RowSink}. */
+    public static final class Builder {
+        private final Map<String, Integer> symbolIndex = new HashMap<>();
+        private final List<String> symbols = new ArrayList<>();
+        private final Map<Long, Integer> expiryIndex = new HashMap<>();
+        private long[] expiries = new long[16];
+        private int expiryCount;
+        private String lastSymbol;
+        private int lastSymbolCode;
+        private long lastExpiry = Long.MIN_VALUE;
+        private int lastExpiryCode;
+
+        private int size;
+        private int[] symbolCode, expiryCode, multiplier;
+        private boolean[] call;
+        private double[] strike, spot, iv, r, t, bid, ask;
+        private long[] volume, openInterest;
+
+        public Builder(){ this(1024); }
+
+        public Builder(int capacity){
+            int c = Math.max(16, capacity);
+            symbolCode = new int[c]; expiryCode = new int[c]; multiplier = new int[c];
+            call = new boolean[c];
+            strike = new double[c]; spot = new double[c]; iv = new double[c]; r = new double[c];
+            t = new double[c]; bid = new double[c]; ask = new double[c];
+            volume = new long[c]; openInterest = new long[c];
+        }
+
+        public Builder add(OptionContract c, Quote q){
+            return add(c.symbol(), c.type(), c.strike(), c.expiry().toEpochDay(), c.multiplier(),
+                q.spot(), q.iv(), q.r(), q.t(), q.bid(), q.ask(), q.volume(), q.openInterest());
+        }
+
+        public Builder add(String symbol, OptionType type, double strike, long expiryEpochDay,
+                           double spot, double iv, double r, double tYears,
+                           double bid, double ask, long volume, long openInterest){
+            return add(symbol, type, strike, expiryEpochDay, 100, spot, iv, r, tYears, bid, ask, volume, openInterest);
+        }
+
+        public Builder add(String symbol, OptionType type, double strike, long expiryEpochDay, int multiplier,
+                           double spot, double iv, double r, double tYears,
+                           double bid, double ask, long volume, long openInterest){
+            if (size == this.strike.length) grow();
+            int i = size++;
+            this.symbolCode[i] = symbolCode(symbol);
+            this.expiryCode[i] = expiryCode(expiryEpochDay);
+            this.multiplier[i] = multiplier;
+            this.call[i] = type == OptionType.CALL;
+            this.strike[i] = strike;
+            this.spot[i] = spot;
+            this.iv[i] = iv;
+            this.r[i] = r;
+            this.t[i] = tYears;
+            this.bid[i] = bid;
+            this.ask[i] = ask;
+            this.volume[i] = volume;
+            this.openInterest[i] = openInterest;
+            return this;
+        }
+
+        public int size(){ return size; }
+
+        public OptionChainBatch build(){
+            trim(size);
+            return new OptionChainBatch(this);
+        }
+
+        private int symbolCode(String symbol){
+            if (symbol == lastSymbol) return lastSymbolCode; // loaders reuse the String while it repeats
+            Integer code = symbolIndex.get(symbol);
+            if (code == null) {
+                code = symbols.size();
+                symbols.add(symbol);
+                symbolIndex.put(symbol, code);
+            }
+            lastSymbol = symbol;
+            lastSymbolCode = code;
+            return code;
+        }
+
+        private int expiryCode(long epochDay){
+            if (epochDay == lastExpiry) return lastExpiryCode;
+            Integer code = expiryIndex.get(epochDay);
+            if (code == null) {
+                if (expiryCount == expiries.length) expiries = Arrays.copyOf(expiries, expiryCount * 2);
+                code = expiryCount++;
+                expiries[code] = epochDay;
+                expiryIndex.put(epochDay, code);
+            }
+            lastExpiry = epochDay;
+            lastExpiryCode = code;
+            return code;
+        }
+
+        private void grow(){ trim(Math.max(16, strike.length + (strike.length >> 1))); }
+
+        private void trim(int c){
+            if (c == strike.length) return;
+            symbolCode = Arrays.copyOf(symbolCode, c); expiryCode = Arrays.copyOf(expiryCode, c);
+            multiplier = Arrays.copyOf(multiplier, c); call = Arrays.copyOf(call, c);
+            strike = Arrays.copyOf(strike, c); spot = Arrays.copyOf(spot, c); iv = Arrays.copyOf(iv, c);
+            r = Arrays.copyOf(r, c); t = Arrays.copyOf(t, c); bid = Arrays.copyOf(bid, c); ask = Arrays.copyOf(ask, c);
+            volume = Arrays.copyOf(volume, c); openInterest = Arrays.copyOf(openInterest, c);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.streetlens.options.ingestion;
+
+import com.streetlens.options.domain.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * {@link MarketDataSource} over chain CSV files, for local testing and file drops. Each call to
+ * {@link #latest()} returns one full snapshot per symbol from the next file that has not been
+ * delivered yet, or an empty list when there is nothing new; {@link #nextBatch()} returns that
+ * file as one batch instead, for consumers that treat each file as the whole market:
+ * <ul>
+ *   <li>{@link #replay} walks a fixed list of files once, in order;</li>
+ *   <li>{@link #follow} watches a directory (new {@code *.csv} names, in name order) or a single
+ *       file (re-read whenever its size or modification time changes).</li>
+ * </ul>
+ * A followed file is only read once it has kept the same size and modification time across two
+ * polls, so one still being written is left for a later poll rather than read in part. It counts
+ * as delivered only once it parses: in a directory, later names are not looked at before it is.
+ * One that fails is reported by throwing and tried again once it changes; in a directory, a newer
+ * file that loads meanwhile moves past it for good.
+ */
+public final class ChainFileSource implements MarketDataSource {
+    private final List<Path> fixed;
+    private final Path followed;
+    private int next;
+    private String lastName;
+    /** Followed file as of the previous poll, the version last delivered, and the last one that failed to parse. */
+    private Stamp seen, delivered, failed;
+
+    private ChainFileSource(List<Path> fixed, Path followed){
+        this.fixed = fixed;
+        this.followed = followed;
+    }
+
+    public static ChainFileSource replay(List<Path> files){ return new ChainFileSource(List.copyOf(files), null); }
+
+    public static ChainFileSource follow(Path dirOrFile){ return new ChainFileSource(null, dirOrFile); }
+
+    @Override
+    public synchronized List<MarketSnapshot> latest(){
+        var rows = load(OptionCsvLoader::load);
+        return rows == null ? List.of() : snapshots(rows);
+    }
+
+    /** The next undelivered file as one columnar batch, or {@code null} when there is nothing new. */
+    public synchronized OptionChainBatch nextBatch(){
+        return load(OptionCsvLoader::loadBatch);
+    }
+
+    private interface Parser<T> { T parse(Path file) throws IOException; }
+
+    /** Size and modification time of one file, as seen on a poll. */
+    private record Stamp(Path file, long size, FileTime modified) {
+        static Stamp of(Path file) throws IOException {
+            return new Stamp(file, Files.size(file), Files.getLastModifiedTime(file));
+        }
+    }
+
+    /** Parses the next file; only a successful parse marks it delivered. */
+    private <T> T load(Parser<T> parser){
+        try {
+            if (fixed != null) return next < fixed.size() ? parser.parse(fixed.get(next++)) : null;
+            Stamp ready = nextStable();
+            if (ready == null) return null;
+            T parsed;
+            try {
+                parsed = parser.parse(ready.file());
+            } catch (IOException | RuntimeException e) {
+                failed = ready;
+                throw e;
+            }
+            if (ready.file().equals(followed)) delivered = ready;
+            else lastName = ready.file().getFileName().toString();
+            return parsed;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** The followed file that is new and has not changed since the previous poll, if any. */
+    private Stamp nextStable() throws IOException {
+        Stamp now = null;
+        if (Files.isDirectory(followed)) {
+            List<Path> names;
+            try (Stream<Path> s = Files.list(followed)) {
+                names = s.filter(p -> p.getFileName().toString().toLowerCase().endsWith(".csv"))
+                    .filter(p -> lastName == null || p.getFileName().toString().compareTo(lastName) > 0)
+                    .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                    .toList();
+            }
+            for (Path p : names) {
+                Stamp st = Stamp.of(p);
+                if (st.equals(failed)) continue; // complete but unreadable: wait for a rewrite, don't hold up newer files
+                now = st;
+                break;
+            }
+        } else if (Files.isRegularFile(followed)) {
+            now = Stamp.of(followed);
+            if (now.equals(delivered) || now.equals(failed)) return null;
+        }
+        if (now == null || !now.equals(seen)) {
+            seen = now; // first sighting, or still being written: look again next poll
+            return null;
+        }
+        return now;
+    }
+
+    /** Groups rows by symbol, keeping file order; the first row's spot stands for the symbol. */
+    static List<MarketSnapshot> snapshots(List<Map.Entry<OptionContract, Quote>> rows){
+        Map<String, List<Map.Entry<OptionContract, Quote>>> bySymbol = new LinkedHashMap<>();
+        for (var e : rows) bySymbol.computeIfAbsent(e.getKey().symbol(), s -> new ArrayList<>()).add(e);
+        List<MarketSnapshot> out = new ArrayList<>(bySymbol.size());
+        bySymbol.forEach((symbol, list) -> {
+            List<OptionContract> chain = new ArrayList<>(list.size());
+            List<Quote> quotes = new ArrayList<>(list.size());
+            for (var e : list) { chain.add(e.getKey()); quotes.add(e.getValue()); }
+            out.add(new MarketSnapshot(symbol, quotes.get(0).spot(), chain, quotes));
+        });
+        return out;
+    }
+}
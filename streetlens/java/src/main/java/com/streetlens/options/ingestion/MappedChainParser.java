@@ -0,0 +1,233 @@
+package com.streetlens.options.ingestion;
+
+import com.streetlens.options.domain.OptionType;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Byte-level parser behind {@link OptionCsvLoader#stream}. The file is mapped in windows of
+ * up to {@link #WINDOW} bytes and each line is tokenized in place: numbers and dates are read
+ * straight from the mapped bytes, and symbol strings / expiry days are reused while they repeat,
+ * so a steady-state row allocates nothing.
+ */
+final class MappedChainParser {
+    static final long WINDOW = 1L << 30;
+    private static final int FIELDS = 11;
+    private static final double[] POW10 = new double[23];
+    static {
+        POW10[0] = 1.0;
+        for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i-1] * 10.0;
+    }
+
+    private final OptionCsvLoader.RowSink sink;
+    private final long todayEpochDay;
+    private final long window;
+    private final int[] start = new int[FIELDS];
+    private final int[] end = new int[FIELDS];
+
+    private MappedByteBuffer buf;
+    private byte[] lastSymbolBytes = new byte[0];
+    private String lastSymbol = "";
+    private int lastYmd = -1;
+    private long lastEpochDay;
+    private long rows;
+
+    MappedChainParser(OptionCsvLoader.RowSink sink, LocalDate today) {
+        this(sink, today, WINDOW);
+    }
+
+    /** {@code window} bytes per mapping instead of {@link #WINDOW}; tests use small ones to put rows across the seams. */
+    MappedChainParser(OptionCsvLoader.RowSink sink, LocalDate today, long window) {
+        this.sink = sink;
+        this.todayEpochDay = today.toEpochDay();
+        this.window = window;
+    }
+
+    long parse(Path csvPath) throws IOException {
+        try (FileChannel ch = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+            long size = ch.size();
+            long pos = 0;
+            boolean header = true;
+            while (pos < size) {
+                long len = Math.min(size - pos, window);
+                boolean last = pos + len == size;
+                buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, len);
+                int n = (int) len;
+                int i = 0;
+                while (i < n) {
+                    int eol = i;
+                    int nf = 0;
+                    start[0] = i;
+                    while (eol < n) {
+                        byte b = buf.get(eol);
+                        if (b == '\n') break;
+                        if (b == ',' && nf < FIELDS) {
+                            end[nf++] = eol;
+                            if (nf < FIELDS) start[nf] = eol + 1;
+                        }
+                        eol++;
+                    }
+                    if (eol == n && !last) break; // partial line, re-map from its start
+                    int lineEnd = (eol > i && buf.get(eol-1) == '\r') ? eol - 1 : eol;
+                    if (nf < FIELDS) end[nf++] = lineEnd;
+                    else if (end[FIELDS-1] > lineEnd) end[FIELDS-1] = lineEnd;
+                    if (header) header = false;
+                    else if (!isBlank(i, lineEnd) && nf >= FIELDS) row();
+                    i = eol + 1;
+                }
+                if (i == 0 && !last) throw new IOException("line longer than " + window + " bytes in " + csvPath);
+                pos += Math.min(i, n);
+            }
+        } finally {
+            buf = null;
+        }
+        return rows;
+    }
+
+    // symbol,type,strike,expiry,spot,iv,r,bid,ask,volume,openInterest
+    private void row() {
+        for (int f = 0; f < FIELDS; f++) trim(f);
+
+        long expiry = epochDay(start[3], end[3]);
+        // time to expiry in years (ACT/365 approx)
+        long daysToExp = expiry - todayEpochDay;
+        if (daysToExp <= 0) return; // skip expired
+
+        String symbol = symbol(start[0], end[0]);
+        OptionType type = type(start[1], end[1]);
+        double strike = parseDouble(start[2], end[2]);
+        double spot   = parseDouble(start[4], end[4]);
+        double iv     = start[5] == end[5] ? Double.NaN : parseDouble(start[5], end[5]); // blank: solved later
+        double r      = parseDouble(start[6], end[6]);
+        double bid    = parseDouble(start[7], end[7]);
+        double ask    = parseDouble(start[8], end[8]);
+        long volume   = parseLong(start[9], end[9]);
+        long oi       = parseLong(start[10], end[10]);
+
+        sink.row(symbol, type, strike, expiry, spot, iv, r, daysToExp / 365.0, bid, ask, volume, oi);
+        rows++;
+    }
+
+    private boolean isBlank(int s, int e) {
+        for (int i = s; i < e; i++) if (!isSpace(buf.get(i))) return false;
+        return true;
+    }
+
+    private static boolean isSpace(byte b) { return b == ' ' || b == '\t' || b == '\r'; }
+
+    private void trim(int f) {
+        int s = start[f], e = end[f];
+        while (s < e && isSpace(buf.get(s))) s++;
+        while (e > s && isSpace(buf.get(e-1))) e--;
+        start[f] = s; end[f] = e;
+    }
+
+    private String symbol(int s, int e) {
+        int len = e - s;
+        byte[] prev = lastSymbolBytes;
+        if (prev.length == len) {
+            int i = 0;
+            while (i < len && prev[i] == buf.get(s + i)) i++;
+            if (i == len) return lastSymbol;
+        }
+        byte[] bytes = new byte[len];
+        buf.get(s, bytes);
+        lastSymbolBytes = bytes;
+        lastSymbol = new String(bytes, StandardCharsets.UTF_8);
+        return lastSymbol;
+    }
+
+    private OptionType type(int s, int e) {
+        if (matches(s, e, "CALL")) return OptionType.CALL;
+        if (matches(s, e, "PUT")) return OptionType.PUT;
+        return OptionType.valueOf(text(s, e).toUpperCase()); // throws for unknown types
+    }
+
+    private boolean matches(int s, int e, String upper) {
+        if (e - s != upper.length()) return false;
+        for (int i = 0; i < upper.length(); i++) {
+            int c = buf.get(s + i) & 0xDF; // ASCII upper-case
+            if (c != upper.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /** yyyy-MM-dd to epoch day; the last expiry seen is cached since chains are grouped by it. */
+    private long epochDay(int s, int e) {
+        if (e - s != 10 || buf.get(s+4) != '-' || buf.get(s+7) != '-') return LocalDate.parse(text(s, e)).toEpochDay();
+        int y = digits(s, 4), m = digits(s+5, 2), d = digits(s+8, 2);
+        if (y < 0 || m < 0 || d < 0) return LocalDate.parse(text(s, e)).toEpochDay();
+        int ymd = y*10000 + m*100 + d;
+        if (ymd != lastYmd) {
+            lastEpochDay = LocalDate.of(y, m, d).toEpochDay();
+            lastYmd = ymd;
+        }
+        return lastEpochDay;
+    }
+
+    private int digits(int s, int n) {
+        int v = 0;
+        for (int i = s; i < s + n; i++) {
+            int c = buf.get(i) - '0';
+            if (c < 0 || c > 9) return -1;
+            v = v*10 + c;
+        }
+        return v;
+    }
+
+    /**
+     * Exact fast path for plain decimals with at most 15 significant digits: the mantissa and
+     * the power of ten are both exact doubles, so one division gives the correctly rounded value.
+     * Anything else (exponents, long mantissas, malformed input) goes through {@link Double#parseDouble}.
+     */
+    private double parseDouble(int s, int e) {
+        int i = s;
+        boolean neg = false;
+        if (i < e && (buf.get(i) == '-' || buf.get(i) == '+')) { neg = buf.get(i) == '-'; i++; }
+        long m = 0;
+        int nd = 0, frac = 0;
+        boolean dot = false, any = false;
+        for (; i < e; i++) {
+            byte c = buf.get(i);
+            if (c >= '0' && c <= '9') {
+                any = true;
+                if (m != 0 || c != '0') { if (++nd > 15) return Double.parseDouble(text(s, e)); }
+                m = m*10 + (c - '0');
+                if (dot) frac++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                return Double.parseDouble(text(s, e));
+            }
+        }
+        if (!any || frac >= POW10.length) return Double.parseDouble(text(s, e));
+        double v = frac == 0 ? (double) m : m / POW10[frac];
+        return neg ? -v : v;
+    }
+
+    private long parseLong(int s, int e) {
+        int i = s;
+        boolean neg = false;
+        if (i < e && (buf.get(i) == '-' || buf.get(i) == '+')) { neg = buf.get(i) == '-'; i++; }
+        if (i == e || e - i > 18) return Long.parseLong(text(s, e));
+        long v = 0;
+        for (; i < e; i++) {
+            int c = buf.get(i) - '0';
+            if (c < 0 || c > 9) return Long.parseLong(text(s, e));
+            v = v*10 + c;
+        }
+        return neg ? -v : v;
+    }
+
+    private String text(int s, int e) {
+        byte[] bytes = new byte[e - s];
+        buf.get(s, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
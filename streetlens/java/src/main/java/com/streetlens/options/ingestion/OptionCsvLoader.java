@@ -1,52 +1,103 @@
 package com.streetlens.options.ingestion;
 
 import com.streetlens.options.domain.*;
-import java.io.BufferedReader;
+import com.streetlens.options.pricing.ImpliedVol;
+import com.streetlens.options.pricing.VolSurface;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.*;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 public final class OptionCsvLoader {
     private OptionCsvLoader(){}
 
+    /**
+     * Receives each non-expired row of an option chain CSV as primitives, in file order.
+     * {@code expiryEpochDay} is {@link LocalDate#toEpochDay()} and {@code tYears} is ACT/365 from today.
+     */
+    @FunctionalInterface
+    public interface RowSink {
+        void row(String symbol, OptionType type, double strike, long expiryEpochDay,
+                 double spot, double iv, double r, double tYears,
+                 double bid, double ask, long volume, long openInterest);
+    }
+
+    /** Loads every row as records; a blank iv is backed out of the mid price (see {@link #fillMissingIv}). */
     public static List<Map.Entry<OptionContract, Quote>> load(Path csvPath) throws IOException {
         List<Map.Entry<OptionContract, Quote>> out = new ArrayList<>();
-        DateTimeFormatter expFmt = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        try (BufferedReader br = Files.newBufferedReader(csvPath, StandardCharsets.UTF_8)) {
-            String header = br.readLine(); // expect header
-            if (header == null) return List.of();
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.isBlank()) continue;
-                // symbol,type,strike,expiry,spot,iv,r,bid,ask,volume,openInterest
-                String[] t = line.split(",", -1);
-                if (t.length < 11) continue;
-
-                String symbol = t[0].trim();
-                OptionType type = OptionType.valueOf(t[1].trim().toUpperCase());
-                double strike = Double.parseDouble(t[2].trim());
-                LocalDate expiry = LocalDate.parse(t[3].trim(), expFmt);
-                double spot = Double.parseDouble(t[4].trim());
-                double iv   = Double.parseDouble(t[5].trim());
-                double r    = Double.parseDouble(t[6].trim());
-                double bid  = Double.parseDouble(t[7].trim());
-                double ask  = Double.parseDouble(t[8].trim());
-                long volume = Long.parseLong(t[9].trim());
-                long oi     = Long.parseLong(t[10].trim());
-
-                // time to expiry in years (ACT/365 approx)
-                double daysToExp = Duration.between(LocalDate.now().atStartOfDay(), expiry.atStartOfDay()).toDays();
-                if (daysToExp <= 0) continue; // skip expired
-                double tYears = daysToExp / 365.0;
-
-                OptionContract c = new OptionContract(symbol, type, strike, expiry, 100);
-                Quote q = new Quote(spot, iv, r, tYears, bid, ask, volume, oi);
-                out.add(Map.entry(c, q));
-            }
+        boolean[] missing = {false};
+        stream(csvPath, (symbol, type, strike, expiry, spot, iv, r, t, bid, ask, volume, oi) -> {
+            OptionContract c = new OptionContract(symbol, type, strike, LocalDate.ofEpochDay(expiry), 100);
+            Quote q = new Quote(spot, iv, r, t, bid, ask, volume, oi);
+            out.add(Map.entry(c, q));
+            if (Double.isNaN(iv)) missing[0] = true;
+        });
+        if (!missing[0]) return out;
+
+        var batch = fillMissingIv(OptionChainBatch.of(out));
+        for (int i = 0; i < out.size(); i++) {
+            Quote q = out.get(i).getValue();
+            if (Double.isNaN(q.iv())) out.set(i, Map.entry(out.get(i).getKey(), batch.quote(i)));
         }
         return out;
     }
+
+    /** Loads straight into columnar form; no per-row objects are kept. Blank ivs are filled as in {@link #load}. */
+    public static OptionChainBatch loadBatch(Path csvPath) throws IOException {
+        return loadBatch(csvPath, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors(), null);
+    }
+
+    /** Same, solving blank ivs on {@code executor}; see {@link #fillMissingIv(OptionChainBatch, Executor, int, Consumer)}. */
+    public static OptionChainBatch loadBatch(Path csvPath, Executor executor, int parallelism,
+                                             Consumer<ImpliedVol.Stats> solved) throws IOException {
+        var b = new OptionChainBatch.Builder();
+        stream(csvPath, b::add);
+        return fillMissingIv(b.build(), executor, parallelism, solved);
+    }
+
+    /** {@link #fillMissingIv(OptionChainBatch, Executor, int, Consumer)} on the common pool, stats unreported. */
+    public static OptionChainBatch fillMissingIv(OptionChainBatch batch){
+        return fillMissingIv(batch, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors(), null);
+    }
+
+    /**
+     * Solves {@code NaN} ivs from the mid with {@link ImpliedVol}, split over {@code executor}.
+     * Rows whose price admits no solution are then interpolated from the {@link VolSurface} of the
+     * rest of the chain, and stay {@code NaN} only when their symbol has no vols at all. The
+     * solver's totals go to {@code solved} (may be {@code null}). Returns {@code batch} itself,
+     * reporting nothing, when no iv is missing.
+     */
+    public static OptionChainBatch fillMissingIv(OptionChainBatch batch, Executor executor, int parallelism,
+                                                 Consumer<ImpliedVol.Stats> solved){
+        return fillMissingIv(batch, executor, parallelism, solved, null);
+    }
+
+    /** Same, giving up with a {@link java.util.concurrent.CancellationException} once {@code cancelled} (may be {@code null}) is true. */
+    public static OptionChainBatch fillMissingIv(OptionChainBatch batch, Executor executor, int parallelism,
+                                                 Consumer<ImpliedVol.Stats> solved, BooleanSupplier cancelled){
+        double[] iv = batch.ivs();
+        boolean missing = false;
+        for (int i = 0; i < batch.size() && !missing; i++) missing = Double.isNaN(iv[i]);
+        if (!missing) return batch;
+        double[] filled = new double[batch.size()];
+        var stats = ImpliedVol.solve(batch, filled, true, executor, parallelism, cancelled);
+        if (solved != null) solved.accept(stats);
+        var out = batch.withIv(filled);
+        return stats.failed() == 0 ? out : VolSurface.of(out).fill(out);
+    }
+
+    /**
+     * Memory-maps {@code csvPath} and pushes every row to {@code sink} without building
+     * intermediate objects. Expects the header
+     * {@code symbol,type,strike,expiry,spot,iv,r,bid,ask,volume,openInterest}; expired rows and
+     * rows with fewer than 11 columns are skipped. A blank iv arrives as {@code NaN}. Returns the
+     * number of rows delivered.
+     */
+    public static long stream(Path csvPath, RowSink sink) throws IOException {
+        return new MappedChainParser(sink, LocalDate.now()).parse(csvPath);
+    }
 }
@@ -0,0 +1,77 @@
+package com.streetlens.options.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets: each power of two is split into
+ * {@value #SUB} sub-buckets, so any reported quantile is within about 6% of the true value across
+ * the whole nanosecond-to-hours range. {@link #record} is a couple of atomic increments and never
+ * allocates; quantiles are read from a {@link Snapshot}, which copies the counts.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 4, SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder(), sum = new LongAdder();
+
+    public void record(long nanos){
+        long v = Math.max(0, nanos);
+        counts.incrementAndGet(index(v));
+        count.increment();
+        sum.add(v);
+    }
+
+    public long count(){ return count.sum(); }
+    public long sumNanos(){ return sum.sum(); }
+
+    public Snapshot snapshot(){
+        long[] c = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += (c[i] = counts.get(i));
+        return new Snapshot(c, total, sum.sum());
+    }
+
+    static int index(long v){
+        if (v < SUB) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+        return (exp - SUB_BITS + 1) * SUB + sub;
+    }
+
+    /** Largest value that lands in bucket {@code i}. */
+    static long upperBound(int i){
+        if (i < SUB) return i;
+        int exp = i / SUB + SUB_BITS - 1;
+        long width = 1L << (exp - SUB_BITS);
+        return ((SUB + (long) (i % SUB)) << (exp - SUB_BITS)) + width - 1;
+    }
+
+    /** Point-in-time copy; counts recorded while it was taken may or may not be included. */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long total, sumNanos;
+
+        private Snapshot(long[] counts, long total, long sumNanos){
+            this.counts = counts;
+            this.total = total;
+            this.sumNanos = sumNanos;
+        }
+
+        public long count(){ return total; }
+        public long sumNanos(){ return sumNanos; }
+
+        /** Bucket upper bound at quantile {@code q} in [0, 1], in nanoseconds; 0 when empty. */
+        public long quantile(double q){
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return upperBound(i);
+            }
+            return upperBound(counts.length - 1);
+        }
+    }
+}
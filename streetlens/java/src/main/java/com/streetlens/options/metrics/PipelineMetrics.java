@@ -0,0 +1,53 @@
+package com.streetlens.options.metrics;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-stage latency and row counts for the screening pipeline. One instance is shared by
+ * everything that runs a screen; {@link #record} only touches atomics, so it is safe and cheap on
+ * worker threads. Stages that run inside the engine (screen, greeks, rank) are summed over its
+ * chunks, i.e. they are worker time per request rather than wall time. {@code IV_SOLVE} is the
+ * implied-vol solve for rows loaded without an iv (rows in, rows converged) and is not part of
+ * {@code PARSE}.
+ */
+public final class PipelineMetrics {
+    public enum Stage {
+        PARSE, IV_SOLVE, SCREEN, GREEKS, RANK, SORT, DB_SAVE, SERIALIZE;
+
+        public String label(){ return name().toLowerCase(Locale.ROOT); }
+    }
+
+    private final Map<Stage, LatencyHistogram> latency = new EnumMap<>(Stage.class);
+    private final Map<Stage, LongAdder> rowsIn = new EnumMap<>(Stage.class), rowsOut = new EnumMap<>(Stage.class);
+
+    public PipelineMetrics(){
+        for (Stage s : Stage.values()) {
+            latency.put(s, new LatencyHistogram());
+            rowsIn.put(s, new LongAdder());
+            rowsOut.put(s, new LongAdder());
+        }
+    }
+
+    public void record(Stage stage, long nanos, long in, long out){
+        latency.get(stage).record(nanos);
+        rowsIn.get(stage).add(in);
+        rowsOut.get(stage).add(out);
+    }
+
+    public LatencyHistogram latency(Stage stage){ return latency.get(stage); }
+    public long rowsIn(Stage stage){ return rowsIn.get(stage).sum(); }
+    public long rowsOut(Stage stage){ return rowsOut.get(stage).sum(); }
+
+    /** Writes the stage summaries and row counters. */
+    public void writeTo(PrometheusText out){
+        out.type("streetlens_stage_latency_seconds", "summary", "Latency per pipeline stage (engine stages summed over chunks).");
+        for (Stage s : Stage.values()) out.summary("streetlens_stage_latency_seconds", latency.get(s), "stage", s.label());
+        out.type("streetlens_stage_rows_in_total", "counter", "Rows entering each pipeline stage.");
+        for (Stage s : Stage.values()) out.sample("streetlens_stage_rows_in_total", rowsIn(s), "stage", s.label());
+        out.type("streetlens_stage_rows_out_total", "counter", "Rows leaving each pipeline stage.");
+        for (Stage s : Stage.values()) out.sample("streetlens_stage_rows_out_total", rowsOut(s), "stage", s.label());
+    }
+}
@@ -0,0 +1,77 @@
+package com.streetlens.options.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Builds a Prometheus text-format (0.0.4) exposition. Durations go out in seconds; label values
+ * are escaped. Not thread-safe: one instance per scrape.
+ */
+public final class PrometheusText {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final StringBuilder sb = new StringBuilder(4096);
+
+    /** {@code # HELP} and {@code # TYPE} lines; call once per metric name, before its samples. */
+    public PrometheusText type(String name, String type, String help){
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    /** A sample with label name/value pairs. */
+    public PrometheusText sample(String name, double value, String... labels){
+        sb.append(name);
+        if (labels.length > 0) {
+            sb.append('{');
+            for (int i = 0; i + 1 < labels.length; i += 2) {
+                if (i > 0) sb.append(',');
+                sb.append(labels[i]).append("=\"");
+                escape(labels[i + 1]);
+                sb.append('"');
+            }
+            sb.append('}');
+        }
+        sb.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) sb.append((long) value);
+        else sb.append(value);
+        sb.append('\n');
+        return this;
+    }
+
+    public PrometheusText gauge(String name, String help, double value){
+        return type(name, "gauge", help).sample(name, value);
+    }
+
+    public PrometheusText counter(String name, String help, double value){
+        return type(name, "counter", help).sample(name, value);
+    }
+
+    /** Quantiles, {@code _sum} and {@code _count} of {@code h} in seconds. */
+    public PrometheusText summary(String name, LatencyHistogram h, String... labels){
+        var snap = h.snapshot();
+        String[] withQuantile = Arrays.copyOf(labels, labels.length + 2);
+        withQuantile[labels.length] = "quantile";
+        for (double q : QUANTILES) {
+            withQuantile[labels.length + 1] = Double.toString(q);
+            sample(name, snap.quantile(q) / 1e9, withQuantile);
+        }
+        sample(name + "_sum", snap.sumNanos() / 1e9, labels);
+        sample(name + "_count", snap.count(), labels);
+        return this;
+    }
+
+    private void escape(String v){
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '"' -> sb.append("\\\"");
+                case '\n' -> sb.append("\\n");
+                default -> sb.append(c);
+            }
+        }
+    }
+
+    @Override public String toString(){ return sb.toString(); }
+}
@@ -1,22 +1,64 @@
 package com.streetlens.options.persistence;
 
+import org.sqlite.SQLiteConfig;
+
 import java.nio.file.Path;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+/**
+ * SQLite store for scored rows. Meant to be opened once and shared: all writes go through a
+ * single writer connection (serialized on this object), reads borrow one of a small pool of
+ * read-only connections, which WAL mode lets run alongside the writer. The schema and indexes
+ * are created once, when the instance is constructed. A reader that finds every read connection
+ * busy for {@link #BORROW_TIMEOUT_MS} gets {@link Busy} instead of waiting indefinitely.
+ */
 public final class Db implements AutoCloseable {
+    private static final int DEFAULT_READERS = 4;
+    static final long BORROW_TIMEOUT_MS = 2_000;
+
+    /** Every read connection stayed borrowed for the whole timeout. */
+    public static final class Busy extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        Busy(String message){ super(message); }
+    }
+
     private final Connection conn;
+    private final BlockingQueue<Connection> readers;
+    private final List<Connection> allReaders = new ArrayList<>();
 
-    public Db(Path file) {
+    public Db(Path file) { this(file, DEFAULT_READERS); }
+
+    public Db(Path file, int readerCount) {
+        String url = "jdbc:sqlite:" + file.toString();
         try {
-            this.conn = DriverManager.getConnection("jdbc:sqlite:" + file.toString());
+            this.conn = DriverManager.getConnection(url);
             init();
-        } catch (SQLException e) { throw new RuntimeException(e); }
+            this.readers = new ArrayBlockingQueue<>(Math.max(1, readerCount));
+            SQLiteConfig ro = new SQLiteConfig();
+            ro.setReadOnly(true);
+            for (int i = 0; i < Math.max(1, readerCount); i++) {
+                Connection r = DriverManager.getConnection(url, ro.toProperties());
+                allReaders.add(r);
+                readers.add(r);
+            }
+        } catch (SQLException e) {
+            close();
+            throw new RuntimeException(e);
+        }
     }
 
     private void init() throws SQLException {
         try (Statement st = conn.createStatement()) {
+            // WAL lets readers proceed during batched writes; NORMAL syncs at checkpoints, not per commit
+            st.execute("pragma journal_mode=WAL");
+            st.execute("pragma synchronous=NORMAL");
             st.execute("""
               create table if not exists option_scores(
                 id integer primary key autoincrement,
@@ -25,47 +67,108 @@ public final class Db implements AutoCloseable {
                 mid real, score real, volume integer, oi integer, spread_pct real
               );
             """);
+            // covering indexes: latest() and latest(symbol) are answered from the index alone, in order
+            st.execute("""
+              create index if not exists idx_option_scores_latest
+              on option_scores(ts desc, id desc, symbol, type, strike, dte, mid, score, volume, oi, spread_pct);
+            """);
+            st.execute("""
+              create index if not exists idx_option_scores_symbol_latest
+              on option_scores(symbol, ts desc, id desc, type, strike, dte, mid, score, volume, oi, spread_pct);
+            """);
         }
     }
 
+    private static final String INSERT = """
+        insert into option_scores(symbol,type,strike,dte,mid,score,volume,oi,spread_pct)
+        values (?,?,?,?,?,?,?,?,?)
+    """;
+
+    /** One scored row to persist; {@code id} and {@code ts} are assigned by the database. */
+    public record Entry(String symbol, String type, double strike, long dte,
+                        double mid, double score, long volume, long oi, double spreadPct) {}
+
     public void insert(String symbol, String type, double strike, long dte,
                        double mid, double score, long vol, long oi, double spreadPct) {
-        try (PreparedStatement ps = conn.prepareStatement("""
-            insert into option_scores(symbol,type,strike,dte,mid,score,volume,oi,spread_pct)
-            values (?,?,?,?,?,?,?,?,?)
-        """)) {
-            ps.setString(1, symbol);
-            ps.setString(2, type);
-            ps.setDouble(3, strike);
-            ps.setLong(4, dte);
-            ps.setDouble(5, mid);
-            ps.setDouble(6, score);
-            ps.setLong(7, vol);
-            ps.setLong(8, oi);
-            ps.setDouble(9, spreadPct);
-            ps.executeUpdate();
+        insertAll(List.of(new Entry(symbol, type, strike, dte, mid, score, vol, oi, spreadPct)));
+    }
+
+    /** Inserts all entries with one prepared statement and a single commit; all-or-nothing. */
+    public synchronized void insertAll(Collection<Entry> entries) {
+        if (entries.isEmpty()) return;
+        try {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(INSERT)) {
+                for (Entry e : entries) {
+                    ps.setString(1, e.symbol());
+                    ps.setString(2, e.type());
+                    ps.setDouble(3, e.strike());
+                    ps.setLong(4, e.dte());
+                    ps.setDouble(5, e.mid());
+                    ps.setDouble(6, e.score());
+                    ps.setLong(7, e.volume());
+                    ps.setLong(8, e.oi());
+                    ps.setDouble(9, e.spreadPct());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         } catch (SQLException e) { throw new RuntimeException(e); }
     }
 
-    @Override public void close() {
-        try { conn.close(); } catch (Exception ignore) {}
+    @Override public synchronized void close() {
+        for (Connection r : allReaders) {
+            try { r.close(); } catch (Exception ignore) {}
+        }
+        try { if (conn != null) conn.close(); } catch (Exception ignore) {}
     }
 
     public record Row(long id, String ts, String symbol, String type, double strike,
                       long dte, double mid, double score, long volume, long oi, double spreadPct) {}
 
+    private static final String SELECT_COLUMNS = """
+        select id, ts, symbol, type, strike, dte, mid, score, volume, oi, spread_pct
+        from option_scores
+    """;
+
     public List<Row> latest(int limit) {
-        try (PreparedStatement ps = conn.prepareStatement("""
-            select id, ts, symbol, type, strike, dte, mid, score, volume, oi, spread_pct
-            from option_scores
-            order by ts desc, id desc
-            limit ?
-        """)) {
-            ps.setInt(1, Math.max(1, limit));
+        List<Row> out = new ArrayList<>();
+        latest(null, limit, out::add);
+        return out;
+    }
+
+    /** Latest rows for one symbol, served by the (symbol, ts, id) index. */
+    public List<Row> latest(String symbol, int limit) {
+        List<Row> out = new ArrayList<>();
+        latest(symbol, limit, out::add);
+        return out;
+    }
+
+    /**
+     * Streams the latest rows (optionally for one {@code symbol}) to {@code sink} as they are read,
+     * newest first; returns how many were delivered. A read connection is held until the sink returns,
+     * so a sink that writes to a slow client pins it; such callers should collect the page first
+     * (see {@link #latest(String, int)}).
+     */
+    public int latest(String symbol, int limit, Consumer<Row> sink) {
+        String sql = symbol == null
+            ? SELECT_COLUMNS + " order by ts desc, id desc limit ?"
+            : SELECT_COLUMNS + " where symbol = ? order by ts desc, id desc limit ?";
+        Connection c = borrow();
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            int p = 1;
+            if (symbol != null) ps.setString(p++, symbol);
+            ps.setInt(p, Math.max(1, limit));
             try (ResultSet rs = ps.executeQuery()) {
-                List<Row> out = new ArrayList<>();
+                int n = 0;
                 while (rs.next()) {
-                    out.add(new Row(
+                    sink.accept(new Row(
                         rs.getLong("id"),
                         rs.getString("ts"),
                         rs.getString("symbol"),
@@ -78,9 +181,25 @@ public final class Db implements AutoCloseable {
                         rs.getLong("oi"),
                         rs.getDouble("spread_pct")
                     ));
+                    n++;
                 }
-                return out;
+                return n;
             }
-        } catch (SQLException e) { throw new RuntimeException(e); }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            readers.add(c);
+        }
+    }
+
+    private Connection borrow() {
+        try {
+            Connection c = readers.poll(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            if (c == null) throw new Busy("no read connection free within " + BORROW_TIMEOUT_MS + " ms");
+            return c;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted waiting for a read connection", e);
+        }
     }
 }
@@ -0,0 +1,110 @@
+package com.streetlens.options.persistence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous, batching writer in front of a {@link Db}. Callers enqueue into a bounded buffer
+ * and return immediately; a single background thread drains up to {@code maxBatch} entries at a
+ * time into {@link Db#insertAll}. When the buffer is full {@link #offer} refuses instead of
+ * blocking. {@link #close()} stops intake and returns only after everything queued is written.
+ */
+public final class WriteBehind implements AutoCloseable {
+    public record Stats(int queued, long written, long dropped, long failed, long batches) {}
+
+    /** Called on the writer thread after each successful batch, e.g. to record write latency. */
+    @FunctionalInterface
+    public interface BatchListener {
+        void written(int rows, long nanos);
+    }
+
+    private final Db db;
+    private final int maxBatch;
+    private final BlockingQueue<Db.Entry> queue;
+    private final Thread worker;
+    private final BatchListener listener;
+    private final AtomicLong written = new AtomicLong(), dropped = new AtomicLong(),
+        failed = new AtomicLong(), batches = new AtomicLong();
+    private volatile boolean closed;
+
+    public WriteBehind(Db db, int capacity, int maxBatch) {
+        this(db, capacity, maxBatch, (rows, nanos) -> {});
+    }
+
+    public WriteBehind(Db db, int capacity, int maxBatch, BatchListener listener) {
+        this.db = db;
+        this.listener = listener;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.worker = new Thread(this::run, "db-write-behind");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /** Enqueues without blocking; {@code false} if the buffer is full or the writer is closed. */
+    public boolean offer(Db.Entry e) {
+        if (closed || !queue.offer(e)) { dropped.incrementAndGet(); return false; }
+        return true;
+    }
+
+    /** Enqueues as many as fit; returns how many were accepted. */
+    public int offerAll(Collection<Db.Entry> entries) {
+        int n = 0;
+        for (var e : entries) if (offer(e)) n++;
+        return n;
+    }
+
+    public Stats stats() {
+        return new Stats(queue.size(), written.get(), dropped.get(), failed.get(), batches.get());
+    }
+
+    private void run() {
+        List<Db.Entry> batch = new ArrayList<>(maxBatch);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Db.Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                long t0 = System.nanoTime();
+                db.insertAll(batch);
+                long nanos = System.nanoTime() - t0;
+                written.addAndGet(batch.size());
+                batches.incrementAndGet();
+                listener.written(batch.size(), nanos);
+            } catch (InterruptedException e) {
+                // close() waits for the drain; only an external interrupt lands here
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                failed.addAndGet(batch.size());
+                System.err.println("write-behind batch of " + batch.size() + " failed: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /** Stops accepting entries and blocks until the queue has been flushed to the database. */
+    @Override public void close() {
+        closed = true;
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // anything that raced past the closed check after the worker exited
+        List<Db.Entry> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            db.insertAll(rest);
+            written.addAndGet(rest.size());
+            batches.incrementAndGet();
+        }
+    }
+}
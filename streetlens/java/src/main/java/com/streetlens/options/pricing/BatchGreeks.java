@@ -0,0 +1,84 @@
+package com.streetlens.options.pricing;
+
+import com.streetlens.options.domain.OptionChainBatch;
+
+/**
+ * Array-at-a-time Black-Scholes: prices, greeks and d1/d2 for a run of inputs, written into
+ * caller-owned {@link Out} arrays. Uses the {@code jdk.incubator.vector} kernel when the module
+ * is present at runtime ({@code --add-modules jdk.incubator.vector}) and falls back to a scalar
+ * loop otherwise. Results match {@link BlackScholes#greeks} to within floating-point noise.
+ * Set {@code -Dstreetlens.vector=false} to force the scalar path. {@code StrategySearch} values
+ * every candidate leg of a chain through here in one pass.
+ */
+public final class BatchGreeks {
+    private BatchGreeks(){}
+
+    private static final boolean VECTOR = detectVector();
+
+    /** Output columns; row {@code i} of the input lands at index {@code i}. Reusable across calls. */
+    public static final class Out {
+        public final double[] price, delta, gamma, vega, theta, rho, d1, d2;
+
+        public Out(int capacity){
+            price = new double[capacity]; delta = new double[capacity]; gamma = new double[capacity];
+            vega = new double[capacity]; theta = new double[capacity]; rho = new double[capacity];
+            d1 = new double[capacity]; d2 = new double[capacity];
+        }
+
+        public int capacity(){ return price.length; }
+    }
+
+    public static boolean vectorized(){ return VECTOR; }
+
+    public static void compute(OptionChainBatch b, Out out){
+        compute(b.calls(), b.spots(), b.strikes(), b.rates(), b.ivs(), b.times(), 0, b.size(), out);
+    }
+
+    /** Computes rows {@code [from, to)}; {@code call[i]} selects call vs put pricing. */
+    public static void compute(boolean[] call, double[] S, double[] K, double[] r, double[] sigma, double[] T,
+                               int from, int to, Out out){
+        if (to > out.capacity()) throw new IllegalArgumentException("output capacity " + out.capacity() + " < " + to);
+        if (VECTOR) VectorGreeksKernel.compute(call, S, K, r, sigma, T, from, to, out);
+        else scalar(call, S, K, r, sigma, T, from, to, out);
+    }
+
+    static void scalar(boolean[] call, double[] S, double[] K, double[] r, double[] sigma, double[] T,
+                       int from, int to, Out out){
+        for (int i = from; i < to; i++) {
+            double sqrtT = Math.sqrt(T[i]);
+            double sst = sigma[i]*sqrtT;
+            double d1 = (Math.log(S[i]/K[i]) + (r[i] + 0.5*sigma[i]*sigma[i])*T[i]) / sst;
+            double d2 = d1 - sst;
+            double nd1 = Normal.pdf(d1);
+            double cd1 = Normal.cdf(d1), cd2 = Normal.cdf(d2);
+            double pd1 = Normal.cdf(-d1), pd2 = Normal.cdf(-d2); // not 1 - N(x): far OTM puts would round to 0
+            double kDisc = K[i]*Math.exp(-r[i]*T[i]);
+            double decay = -(S[i]*nd1*sigma[i])/(2*sqrtT);
+            if (call[i]) {
+                out.price[i] = S[i]*cd1 - kDisc*cd2;
+                out.delta[i] = cd1;
+                out.theta[i] = decay - r[i]*kDisc*cd2;
+                out.rho[i]   = T[i]*kDisc*cd2;
+            } else {
+                out.price[i] = kDisc*pd2 - S[i]*pd1;
+                out.delta[i] = -pd1;
+                out.theta[i] = decay + r[i]*kDisc*pd2;
+                out.rho[i]   = -T[i]*kDisc*pd2;
+            }
+            out.gamma[i] = nd1/(S[i]*sst);
+            out.vega[i]  = S[i]*nd1*sqrtT;
+            out.d1[i] = d1;
+            out.d2[i] = d2;
+        }
+    }
+
+    private static boolean detectVector(){
+        if (!Boolean.parseBoolean(System.getProperty("streetlens.vector", "true"))) return false;
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return false;
+        try {
+            return VectorGreeksKernel.lanes() > 1;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -5,18 +5,6 @@ import com.streetlens.options.domain.OptionType;
 public final class BlackScholes {
     private BlackScholes(){}
 
-    private static double phi(double x){ return 0.5 * (1.0 + erf(x / Math.sqrt(2.0))); }
-    private static double npdf(double x){ return Math.exp(-0.5*x*x) / Math.sqrt(2*Math.PI); }
-
-    private static double erf(double x){
-        double sgn = Math.signum(x);
-        x = Math.abs(x);
-        double a1=0.254829592,a2=-0.284496736,a3=1.421413741,a4=-1.453152027,a5=1.061405429,p=0.3275911;
-        double t = 1.0/(1.0 + p*x);
-        double y = 1.0 - (((((a5*t + a4)*t) + a3)*t + a2)*t + a1)*t*Math.exp(-x*x);
-        return sgn*y;
-    }
-
     public static double d1(double S,double K,double r,double sigma,double T){
         return (Math.log(S/K) + (r + 0.5*sigma*sigma)*T) / (sigma*Math.sqrt(T));
     }
@@ -26,28 +14,42 @@ public final class BlackScholes {
         double d1v = d1(S,K,r,sigma,T);
         double d2v = d2(d1v,sigma,T);
         return switch (type){
-            case CALL -> S*phi(d1v) - K*Math.exp(-r*T)*phi(d2v);
-            case PUT  -> K*Math.exp(-r*T)*phi(-d2v) - S*phi(-d1v);
+            case CALL -> S*Normal.cdf(d1v) - K*Math.exp(-r*T)*Normal.cdf(d2v);
+            case PUT  -> K*Math.exp(-r*T)*Normal.cdf(-d2v) - S*Normal.cdf(-d1v);
         };
     }
 
+    /** Delta alone, without building a {@link Greeks}. */
+    public static double delta(OptionType type, double S,double K,double r,double sigma,double T){
+        return delta(type, d1(S,K,r,sigma,T));
+    }
+
+    /** Delta from an already computed d1. */
+    public static double delta(OptionType type, double d1){
+        double nd1 = Normal.cdf(d1);
+        return (type==OptionType.CALL)? nd1 : (nd1-1.0);
+    }
+
     public static Greeks greeks(OptionType type, double S,double K,double r,double sigma,double T){
         double d1v = d1(S,K,r,sigma,T);
         double d2v = d2(d1v,sigma,T);
-        double nd1 = npdf(d1v);
-        double delta = (type==OptionType.CALL)? phi(d1v) : (phi(d1v)-1.0);
-        double gamma = nd1/(S*sigma*Math.sqrt(T));
-        double vega  = S*nd1*Math.sqrt(T);
+        double sqrtT = Math.sqrt(T);
+        double kDisc = K*Math.exp(-r*T);
+        double nd1 = Normal.pdf(d1v);
+        double cd1 = Normal.cdf(d1v);
+        // N(d2) for calls, N(-d2) for puts: the same value feeds theta, rho and itmProbApprox
+        double itmProbApprox = (type==OptionType.CALL)? Normal.cdf(d2v) : Normal.cdf(-d2v);
+        double delta = (type==OptionType.CALL)? cd1 : (cd1-1.0);
+        double gamma = nd1/(S*sigma*sqrtT);
+        double vega  = S*nd1*sqrtT;
         double theta = switch(type){
-            case CALL -> -(S*nd1*sigma)/(2*Math.sqrt(T)) - r*K*Math.exp(-r*T)*phi(d2v);
-            case PUT  -> -(S*nd1*sigma)/(2*Math.sqrt(T)) + r*K*Math.exp(-r*T)*phi(-d2v);
+            case CALL -> -(S*nd1*sigma)/(2*sqrtT) - r*kDisc*itmProbApprox;
+            case PUT  -> -(S*nd1*sigma)/(2*sqrtT) + r*kDisc*itmProbApprox;
         };
         double rho   = switch(type){
-            case CALL ->  K*T*Math.exp(-r*T)*phi(d2v);
-            case PUT  -> -K*T*Math.exp(-r*T)*phi(-d2v);
+            case CALL ->  T*kDisc*itmProbApprox;
+            case PUT  -> -T*kDisc*itmProbApprox;
         };
-        // itmProbApprox uses N(d2) for calls, N(-d2) for puts
-        double itmProbApprox = (type==OptionType.CALL)? phi(d2v) : phi(-d2v);
         return new Greeks(delta, gamma, vega, theta, rho, itmProbApprox, d1v, d2v);
     }
 
@@ -0,0 +1,241 @@
+package com.streetlens.options.pricing;
+
+import com.streetlens.options.domain.OptionChainBatch;
+import com.streetlens.options.domain.OptionType;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Backs Black-Scholes volatility out of an option price. Each solve is Newton on vega inside a
+ * shrinking bracket: a step that leaves the bracket, or a vanishing vega, is replaced by a
+ * bisection step, so it always converges when a solution exists. Prices outside the no-arbitrage
+ * bounds, or needing a vol outside [{@link #MIN_VOL}, {@link #MAX_VOL}], give {@code NaN}.
+ *
+ * <p>The batch form solves whole chains from the mid price. Rows are grouped by symbol, expiry
+ * and type and walked in strike order, each solve starting from its neighbour's result, which
+ * usually lands within a couple of iterations. Groups are split across an executor.
+ */
+public final class ImpliedVol {
+    private ImpliedVol(){}
+
+    public static final double MIN_VOL = 1e-4, MAX_VOL = 5.0;
+    private static final int MAX_ITER = 64;
+    private static final double PRICE_TOL = 1e-10; // relative to spot
+    private static final int MIN_CHUNK = 2048;
+
+    /**
+     * Totals for one batch solve. {@code rows} is how many rows were attempted; {@code failed}
+     * ones got {@code NaN}. {@code maxResidual} is the largest |model - target| price among
+     * converged rows.
+     */
+    public record Stats(int rows, int converged, int failed, long iterations, long bisections,
+                        double maxResidual, long nanos) {
+        public double meanIterations(){ return rows == 0 ? 0 : (double) iterations / rows; }
+    }
+
+    public static double solve(OptionType type, double price, double S, double K, double r, double T){
+        return solve(type == OptionType.CALL, price, S, K, r, T, Double.NaN, new Acc());
+    }
+
+    /** Same, starting Newton from {@code guess} (e.g. a neighbouring strike's vol). */
+    public static double solve(OptionType type, double price, double S, double K, double r, double T, double guess){
+        return solve(type == OptionType.CALL, price, S, K, r, T, guess, new Acc());
+    }
+
+    /** Solves every row of {@code b} from its mid into {@code out[i]}. */
+    public static Stats solve(OptionChainBatch b, double[] out){
+        return solve(b, out, false, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * With {@code missingOnly}, rows that already have a finite iv are copied to {@code out}
+     * unchanged (and still warm-start their neighbours); only the {@code NaN} ones are solved.
+     */
+    public static Stats solve(OptionChainBatch b, double[] out, boolean missingOnly, Executor executor, int parallelism){
+        return solve(b, out, missingOnly, executor, parallelism, null);
+    }
+
+    /**
+     * Same, checking {@code cancelled} (may be {@code null}) before each group and stopping with a
+     * {@link CancellationException} once it is true; {@code out} is then partly filled.
+     */
+    public static Stats solve(OptionChainBatch b, double[] out, boolean missingOnly, Executor executor, int parallelism,
+                              BooleanSupplier cancelled){
+        long t0 = System.nanoTime();
+        int n = b.size();
+        if (out.length < n) throw new IllegalArgumentException("output length " + out.length + " < " + n);
+        int[] order = new int[n];
+        int[] groupStart = group(b, order);
+        int groups = groupStart.length - 1;
+        int chunks = (int) Math.min(Math.max(1, parallelism) * 4L, (n + MIN_CHUNK - 1) / MIN_CHUNK);
+
+        Acc total = new Acc();
+        if (chunks <= 1) {
+            total = solveGroups(b, order, groupStart, 0, groups, out, missingOnly, cancelled);
+        } else {
+            List<CompletableFuture<Acc>> parts = new ArrayList<>(chunks);
+            int g = 0;
+            for (int c = 0; c < chunks && g < groups; c++) {
+                int rowLimit = (int) ((long) n * (c + 1) / chunks);
+                int from = g;
+                while (g < groups && (g == from || groupStart[g] < rowLimit)) g++;
+                if (c == chunks - 1) g = groups;
+                int to = g;
+                parts.add(CompletableFuture.supplyAsync(() -> solveGroups(b, order, groupStart, from, to, out, missingOnly, cancelled), executor));
+            }
+            try {
+                for (var p : parts) total.merge(p.join());
+            } catch (CompletionException e) {
+                parts.forEach(p -> p.cancel(true));
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw e;
+            }
+        }
+        return new Stats(total.rows, total.rows - total.failed, total.failed, total.iterations, total.bisections,
+            total.maxResidual, System.nanoTime() - t0);
+    }
+
+    /**
+     * Row indices ordered by (symbol, expiry, type, strike); returns group boundaries into {@code order}.
+     * Rows are sorted on a packed {@code key << rowBits | row}, so the cost follows the row count
+     * rather than the size of the symbol and expiry dictionaries.
+     */
+    static int[] group(OptionChainBatch b, int[] order){
+        int n = b.size();
+        long maxKey = 0;
+        for (int i = 0; i < n; i++) maxKey = Math.max(maxKey, key(b, i));
+        int rowBits = 32 - Integer.numberOfLeadingZeros(Math.max(1, n - 1));
+        if (64 - Long.numberOfLeadingZeros(maxKey) + rowBits <= 63) {
+            long[] packed = new long[n];
+            for (int i = 0; i < n; i++) packed[i] = key(b, i) << rowBits | i;
+            Arrays.sort(packed);
+            long mask = (1L << rowBits) - 1;
+            for (int j = 0; j < n; j++) order[j] = (int) (packed[j] & mask);
+        } else { // dictionaries too large to pack beside the row index
+            Integer[] rows = new Integer[n];
+            for (int i = 0; i < n; i++) rows[i] = i;
+            Arrays.sort(rows, Comparator.comparingLong(i -> key(b, i)));
+            for (int j = 0; j < n; j++) order[j] = rows[j];
+        }
+        int groups = 0;
+        for (int j = 0; j < n; j++) if (j == 0 || key(b, order[j]) != key(b, order[j - 1])) groups++;
+        int[] start = new int[groups + 1];
+        for (int j = 0, g = 0; j < n; j++) if (j == 0 || key(b, order[j]) != key(b, order[j - 1])) start[g++] = j;
+        start[groups] = n;
+
+        double[] strike = b.strikes();
+        long[] tmp = new long[0];
+        for (int g = 0; g < groups; g++) {
+            int s = start[g], e = start[g + 1];
+            boolean sorted = true;
+            for (int j = s + 1; j < e && sorted; j++) sorted = strike[order[j - 1]] <= strike[order[j]];
+            if (sorted) continue;
+            // sort (strike as float bits, row) longs, then an insertion pass fixes strikes the float rounding tied
+            if (tmp.length < e - s) tmp = new long[e - s];
+            for (int j = s; j < e; j++) {
+                int bits = Float.floatToIntBits((float) strike[order[j]]);
+                bits ^= (bits >> 31) & 0x7fffffff; // negative floats order reversed as ints
+                tmp[j - s] = (long) bits << 32 | order[j];
+            }
+            Arrays.sort(tmp, 0, e - s);
+            for (int j = s; j < e; j++) order[j] = (int) tmp[j - s];
+            for (int j = s + 1; j < e; j++) {
+                int row = order[j], m = j;
+                while (m > s && strike[order[m - 1]] > strike[row]) { order[m] = order[m - 1]; m--; }
+                order[m] = row;
+            }
+        }
+        return start;
+    }
+
+    private static long key(OptionChainBatch b, int i){
+        return ((long) b.symbolCode(i) * b.expiryCount() + b.expiryCode(i)) * 2 + (b.isCall(i) ? 1 : 0);
+    }
+
+    private static Acc solveGroups(OptionChainBatch b, int[] order, int[] groupStart, int from, int to,
+                                   double[] out, boolean missingOnly, BooleanSupplier cancelled){
+        Acc acc = new Acc();
+        for (int g = from; g < to; g++) {
+            if (cancelled != null && cancelled.getAsBoolean()) throw new CancellationException("iv solve cancelled");
+            double prev = Double.NaN;
+            for (int j = groupStart[g]; j < groupStart[g + 1]; j++) {
+                int i = order[j];
+                double known = b.iv(i);
+                if (missingOnly && !Double.isNaN(known)) {
+                    out[i] = known;
+                    prev = known;
+                    continue;
+                }
+                double v = solve(b.isCall(i), b.mid(i), b.spot(i), b.strike(i), b.r(i), b.t(i), prev, acc);
+                out[i] = v;
+                if (!Double.isNaN(v)) prev = v;
+            }
+        }
+        return acc;
+    }
+
+    static double solve(boolean call, double target, double S, double K, double r, double T, double guess, Acc acc){
+        acc.rows++;
+        if (!(target > 0 && S > 0 && K > 0 && T > 0)) { acc.failed++; return Double.NaN; }
+        double sqrtT = Math.sqrt(T);
+        double disc = K*Math.exp(-r*T);
+        double lower = call ? Math.max(0.0, S - disc) : Math.max(0.0, disc - S);
+        double upper = call ? S : disc;
+        if (target <= lower || target >= upper) { acc.failed++; return Double.NaN; }
+
+        double tol = PRICE_TOL * S;
+        double lo = MIN_VOL, hi = MAX_VOL;
+        double x = guess > lo && guess < hi ? guess : initialGuess(target, S, K, r, T);
+        double f = Double.NaN;
+        for (int it = 0; it < MAX_ITER; it++) {
+            acc.iterations++;
+            double sst = x*sqrtT;
+            double d1 = (Math.log(S/K) + (r + 0.5*x*x)*T) / sst;
+            double d2 = d1 - sst;
+            double p = call ? S*Normal.cdf(d1) - disc*Normal.cdf(d2)
+                            : disc*Normal.cdf(-d2) - S*Normal.cdf(-d1);
+            f = p - target;
+            if (Math.abs(f) <= tol) return converged(x, f, acc);
+            if (f > 0) hi = x; else lo = x; // price is increasing in vol
+            if (hi - lo <= 1e-12*hi) break;
+            double vega = S*Normal.pdf(d1)*sqrtT;
+            double next = x - f/vega;
+            if (!(next > lo && next < hi)) {
+                next = 0.5*(lo + hi);
+                acc.bisections++;
+            }
+            x = next;
+        }
+        // bracket collapsed or out of iterations: accept only if the price still matches closely
+        if (Math.abs(f) <= 1e3*tol && x > MIN_VOL && x < MAX_VOL) return converged(x, f, acc);
+        acc.failed++;
+        return Double.NaN;
+    }
+
+    /** Manaster-Koehler start (the inflection point in vol), or Brenner-Subrahmanyam near the money. */
+    private static double initialGuess(double price, double S, double K, double r, double T){
+        double mk = Math.sqrt(2.0*Math.abs(Math.log(S/K) + r*T) / T);
+        double bs = Math.sqrt(2*Math.PI / T) * price / S;
+        return Math.min(2.0, Math.max(0.05, Math.max(mk, bs)));
+    }
+
+    private static double converged(double x, double f, Acc acc){
+        acc.maxResidual = Math.max(acc.maxResidual, Math.abs(f));
+        return x;
+    }
+
+    /** Per-chunk counters, merged once at the end. */
+    static final class Acc {
+        int rows, failed;
+        long iterations, bisections;
+        double maxResidual;
+
+        void merge(Acc o){
+            rows += o.rows; failed += o.failed;
+            iterations += o.iterations; bisections += o.bisections;
+            maxResidual = Math.max(maxResidual, o.maxResidual);
+        }
+    }
+}
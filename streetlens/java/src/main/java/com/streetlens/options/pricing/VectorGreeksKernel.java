@@ -0,0 +1,96 @@
+package com.streetlens.options.pricing;
+
+import jdk.incubator.vector.*;
+
+/**
+ * SIMD body of {@link BatchGreeks}. Only loaded once {@link BatchGreeks} has confirmed the
+ * incubator module is present, so the rest of the pricing code runs without it.
+ */
+final class VectorGreeksKernel {
+    private VectorGreeksKernel(){}
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double INV_SQRT_2PI = Normal.INV_SQRT_2PI;
+
+    static int lanes(){ return SPECIES.length(); }
+
+    static void compute(boolean[] call, double[] S, double[] K, double[] r, double[] sigma, double[] T,
+                        int from, int to, BatchGreeks.Out out){
+        int i = from;
+        for (int upper = from + SPECIES.loopBound(to - from); i < upper; i += SPECIES.length()) {
+            var s = DoubleVector.fromArray(SPECIES, S, i);
+            var k = DoubleVector.fromArray(SPECIES, K, i);
+            var rr = DoubleVector.fromArray(SPECIES, r, i);
+            var vol = DoubleVector.fromArray(SPECIES, sigma, i);
+            var t = DoubleVector.fromArray(SPECIES, T, i);
+            VectorMask<Double> isCall = VectorMask.fromArray(SPECIES, call, i);
+
+            var sqrtT = t.sqrt();
+            var sst = vol.mul(sqrtT);
+            var d1 = s.div(k).lanewise(VectorOperators.LOG)
+                .add(rr.add(vol.mul(vol).mul(0.5)).mul(t))
+                .div(sst);
+            var d2 = d1.sub(sst);
+            var nd1 = d1.mul(d1).mul(-0.5).lanewise(VectorOperators.EXP).mul(INV_SQRT_2PI);
+            // N(x) and N(-x) from the same tail mass, so neither side loses digits to 1 - N
+            var c1 = tail(d1);
+            var c2 = tail(d2);
+            var up1 = d1.compare(VectorOperators.GT, 0.0);
+            var up2 = d2.compare(VectorOperators.GT, 0.0);
+            var cd1 = c1.blend(c1.neg().add(1.0), up1);
+            var pd1 = c1.neg().add(1.0).blend(c1, up1);
+            var cd2 = c2.blend(c2.neg().add(1.0), up2);
+            var pd2 = c2.neg().add(1.0).blend(c2, up2);
+            var kDisc = k.mul(rr.neg().mul(t).lanewise(VectorOperators.EXP));
+            var decay = s.mul(nd1).mul(vol).div(sqrtT.mul(2.0)).neg();
+
+            var callPrice = s.mul(cd1).sub(kDisc.mul(cd2));
+            var putPrice = kDisc.mul(pd2).sub(s.mul(pd1));
+            callPrice.blend(putPrice, isCall.not()).intoArray(out.price, i);
+            cd1.blend(pd1.neg(), isCall.not()).intoArray(out.delta, i);
+            decay.sub(rr.mul(kDisc).mul(cd2))
+                .blend(decay.add(rr.mul(kDisc).mul(pd2)), isCall.not())
+                .intoArray(out.theta, i);
+            t.mul(kDisc).mul(cd2)
+                .blend(t.mul(kDisc).mul(pd2).neg(), isCall.not())
+                .intoArray(out.rho, i);
+            nd1.div(s.mul(sst)).intoArray(out.gamma, i);
+            s.mul(nd1).mul(sqrtT).intoArray(out.vega, i);
+            d1.intoArray(out.d1, i);
+            d2.intoArray(out.d2, i);
+        }
+        BatchGreeks.scalar(call, S, K, r, sigma, T, i, to, out);
+    }
+
+    /**
+     * {@link Normal#cdf} of {@code -|x|} lane-wise, i.e. the smaller tail; the continued fraction is only
+     * evaluated when some lane needs it.
+     */
+    private static DoubleVector tail(DoubleVector x){
+        var a = x.abs();
+        var e = a.mul(a).mul(-0.5).lanewise(VectorOperators.EXP);
+        var num = a.mul(3.52624965998911e-02).add(0.700383064443688)
+            .mul(a).add(6.37396220353165)
+            .mul(a).add(33.912866078383)
+            .mul(a).add(112.079291497871)
+            .mul(a).add(221.213596169931)
+            .mul(a).add(220.206867912376);
+        var den = a.mul(8.83883476483184e-02).add(1.75566716318264)
+            .mul(a).add(16.064177579207)
+            .mul(a).add(86.7807322029461)
+            .mul(a).add(296.564248779674)
+            .mul(a).add(637.333633378831)
+            .mul(a).add(793.826512519948)
+            .mul(a).add(440.413735824752);
+        var c = e.mul(num).div(den);
+        var far = a.compare(VectorOperators.GE, Normal.HART_SPLIT);
+        if (far.anyTrue()) {
+            var b = a.add(DoubleVector.broadcast(SPECIES, 4.0).div(a.add(0.65)));
+            b = a.add(DoubleVector.broadcast(SPECIES, 3.0).div(b));
+            b = a.add(DoubleVector.broadcast(SPECIES, 2.0).div(b));
+            b = a.add(DoubleVector.broadcast(SPECIES, 1.0).div(b));
+            c = c.blend(e.div(b).mul(1.0 / Normal.SQRT_2PI), far);
+        }
+        return c;
+    }
+}
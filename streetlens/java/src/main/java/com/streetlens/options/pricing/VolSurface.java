@@ -0,0 +1,245 @@
+package com.streetlens.options.pricing;
+
+import com.streetlens.options.domain.MarketSnapshot;
+import com.streetlens.options.domain.OptionChainBatch;
+
+import java.util.*;
+
+/**
+ * Implied-vol surface of a chain, built once and then read by many rows. Per symbol, expiries
+ * are kept sorted with their strikes sorted inside each expiry, all in primitive arrays; a lookup
+ * is a hash on the symbol plus two binary searches. At each strike the out-of-the-money side is
+ * used (puts below the forward, calls at or above), falling back to the other side when that one
+ * has no vol.
+ *
+ * <p>Each expiry also gets a smile fitted at build time: a least-squares quadratic
+ * {@code a + b*k + c*k^2} in log-moneyness {@code k = ln(K/F)}, so {@code b} is the ATM skew.
+ * Between listed strikes the market vols are interpolated linearly and held flat past the wings.
+ * Between expiries, total variance {@code sigma^2 * T} is interpolated linearly in time at the same
+ * strike. Before the first or after the last expiry the nearest one applies.
+ *
+ * <p>Unknown symbols give {@code NaN}. Instances are immutable and safe to share across threads.
+ */
+public final class VolSurface {
+    private final Map<String, Sym> symbols;
+    private final int points;
+
+    /** One symbol; slice {@code e} owns {@code strike/iv[start[e] .. start[e+1])}. */
+    private static final class Sym {
+        final long[] expiry;
+        final double[] t, fwd, a, b, c;
+        final int[] start;
+        final double[] strike, iv;
+        int slices; // expiries with at least one vol; the arrays may be longer
+
+        Sym(int slices, int points){
+            expiry = new long[slices];
+            t = new double[slices]; fwd = new double[slices];
+            a = new double[slices]; b = new double[slices]; c = new double[slices];
+            start = new int[slices + 1];
+            strike = new double[points]; iv = new double[points];
+        }
+    }
+
+    private VolSurface(Map<String, Sym> symbols, int points){
+        this.symbols = symbols;
+        this.points = points;
+    }
+
+    public static VolSurface of(List<MarketSnapshot> snapshots){
+        var b = new OptionChainBatch.Builder();
+        for (var s : snapshots) for (int i = 0; i < s.chain().size(); i++) b.add(s.chain().get(i), s.quotes().get(i));
+        return of(b.build());
+    }
+
+    /** Rows without a usable vol ({@code NaN} or not positive) are left out. */
+    public static VolSurface of(OptionChainBatch b){
+        int[] order = new int[b.size()];
+        int[] group = ImpliedVol.group(b, order);
+
+        // (symbol, expiry) slices: a put group and/or a call group, adjacent in group order
+        Map<Integer, List<int[]>> slices = new LinkedHashMap<>(); // symbolCode -> {putGroup, callGroup}
+        for (int g = 0; g < group.length - 1; g++) {
+            int i = order[group[g]];
+            List<int[]> list = slices.computeIfAbsent(b.symbolCode(i), x -> new ArrayList<>());
+            int[] last = list.isEmpty() ? null : list.get(list.size() - 1);
+            boolean sameSlice = last != null && last[0] >= 0 && last[1] < 0 && b.isCall(i)
+                && b.expiryCode(order[group[last[0]]]) == b.expiryCode(i);
+            if (sameSlice) last[1] = g;
+            else list.add(b.isCall(i) ? new int[]{-1, g} : new int[]{g, -1});
+        }
+
+        Map<String, Sym> out = new HashMap<>();
+        int total = 0;
+        double[] ks = new double[16], vs = new double[16];
+        for (var e : slices.entrySet()) {
+            List<int[]> list = e.getValue();
+            list.sort(Comparator.comparingLong(s -> b.expiryEpochDay(order[group[s[0] >= 0 ? s[0] : s[1]]])));
+            int cap = 0;
+            for (int[] s : list) cap += size(group, s[0]) + size(group, s[1]);
+            Sym sym = new Sym(list.size(), cap);
+            int n = 0, x = 0;
+            for (int[] s : list) {
+                int first = order[group[s[0] >= 0 ? s[0] : s[1]]];
+                sym.expiry[x] = b.expiryEpochDay(first);
+                sym.t[x] = b.t(first);
+                sym.fwd[x] = b.spot(first) * Math.exp(b.r(first) * b.t(first));
+                sym.start[x] = n;
+                n = merge(b, order, group, s[0], s[1], sym.fwd[x], sym.strike, sym.iv, n);
+                int m = n - sym.start[x];
+                if (m == 0) continue; // no usable vol at this expiry
+                if (ks.length < m) { ks = new double[m]; vs = new double[m]; }
+                for (int j = 0; j < m; j++) {
+                    ks[j] = Math.log(sym.strike[sym.start[x] + j] / sym.fwd[x]);
+                    vs[j] = sym.iv[sym.start[x] + j];
+                }
+                fit(ks, vs, m, sym, x++);
+            }
+            if (x == 0) continue;
+            sym.slices = x;
+            sym.start[x] = n;
+            total += n;
+            out.put(b.symbolOf(e.getKey()), sym);
+        }
+        return new VolSurface(out, total);
+    }
+
+    private static int size(int[] group, int g){ return g < 0 ? 0 : group[g + 1] - group[g]; }
+
+    /** Merges the strike-sorted put and call groups into one OTM curve at {@code strike/iv[n..]}; returns the new end. */
+    private static int merge(OptionChainBatch b, int[] order, int[] group, int put, int call, double fwd,
+                             double[] strike, double[] iv, int n){
+        int p = put < 0 ? 0 : group[put], pe = put < 0 ? 0 : group[put + 1];
+        int c = call < 0 ? 0 : group[call], ce = call < 0 ? 0 : group[call + 1];
+        while (p < pe || c < ce) {
+            double k = Math.min(p < pe ? b.strike(order[p]) : Double.POSITIVE_INFINITY,
+                                c < ce ? b.strike(order[c]) : Double.POSITIVE_INFINITY);
+            double pv = Double.NaN, cv = Double.NaN;
+            for (; p < pe && b.strike(order[p]) == k; p++) if (!(pv > 0)) pv = b.iv(order[p]);
+            for (; c < ce && b.strike(order[c]) == k; c++) if (!(cv > 0)) cv = b.iv(order[c]);
+            double v = k < fwd ? (pv > 0 ? pv : cv) : (cv > 0 ? cv : pv);
+            if (!(v > 0) || Double.isInfinite(v)) continue;
+            strike[n] = k;
+            iv[n++] = v;
+        }
+        return n;
+    }
+
+    /** Least-squares quadratic through {@code (k, v)}; linear below 3 points, flat below 2 or when degenerate. */
+    private static void fit(double[] k, double[] v, int m, Sym s, int x){
+        double s0 = m, s1 = 0, s2 = 0, s3 = 0, s4 = 0, t0 = 0, t1 = 0, t2 = 0;
+        for (int j = 0; j < m; j++) {
+            double kj = k[j], k2 = kj*kj;
+            s1 += kj; s2 += k2; s3 += k2*kj; s4 += k2*k2;
+            t0 += v[j]; t1 += v[j]*kj; t2 += v[j]*k2;
+        }
+        s.a[x] = m == 0 ? Double.NaN : t0 / m;
+        s.b[x] = 0;
+        s.c[x] = 0;
+        if (m >= 3) {
+            double det = s0*(s2*s4 - s3*s3) - s1*(s1*s4 - s3*s2) + s2*(s1*s3 - s2*s2);
+            if (Math.abs(det) > 1e-12 * Math.max(1, s0*s2*s4)) {
+                s.a[x] = (t0*(s2*s4 - s3*s3) - s1*(t1*s4 - s3*t2) + s2*(t1*s3 - s2*t2)) / det;
+                s.b[x] = (s0*(t1*s4 - t2*s3) - t0*(s1*s4 - s3*s2) + s2*(s1*t2 - t1*s2)) / det;
+                s.c[x] = (s0*(s2*t2 - s3*t1) - s1*(s1*t2 - t1*s2) + t0*(s1*s3 - s2*s2)) / det;
+                return;
+            }
+        }
+        double den = s0*s2 - s1*s1;
+        if (m >= 2 && Math.abs(den) > 1e-12 * Math.max(1, s0*s2)) {
+            s.b[x] = (s0*t1 - s1*t0) / den;
+            s.a[x] = (t0 - s.b[x]*s1) / s0;
+        }
+    }
+
+    public boolean has(String symbol){ return symbols.containsKey(symbol); }
+
+    public Set<String> symbols(){ return Collections.unmodifiableSet(symbols.keySet()); }
+
+    /** Market vol points kept across all symbols. */
+    public int points(){ return points; }
+
+    /** Market vol at {@code strike}, interpolated from the listed strikes and expiries. */
+    public double iv(String symbol, long expiryEpochDay, double strike){
+        return lookup(symbol, expiryEpochDay, strike, false);
+    }
+
+    /** Vol from the fitted smiles at {@code strike}. */
+    public double smile(String symbol, long expiryEpochDay, double strike){
+        return lookup(symbol, expiryEpochDay, strike, true);
+    }
+
+    /** {@code vol - smile(...)}: positive when the quote is rich to the fitted smile. */
+    public double residual(String symbol, long expiryEpochDay, double strike, double vol){
+        return vol - smile(symbol, expiryEpochDay, strike);
+    }
+
+    /** Slope of the fitted smile at the forward, {@code d sigma / d ln K}; usually negative for equities. */
+    public double skew(String symbol, long expiryEpochDay){
+        Sym s = symbols.get(symbol);
+        if (s == null) return Double.NaN;
+        int hi = slice(s, expiryEpochDay);
+        if (hi < 0) return s.b[-hi - 1];
+        int lo = hi - 1;
+        double w = (expiryEpochDay - s.expiry[lo]) / (double) (s.expiry[hi] - s.expiry[lo]);
+        return s.b[lo] + w * (s.b[hi] - s.b[lo]);
+    }
+
+    /**
+     * A view of {@code b} with every {@code NaN} or non-positive iv replaced by {@link #iv}; rows
+     * whose symbol is unknown stay as they are. Returns {@code b} itself when nothing is missing.
+     */
+    public OptionChainBatch fill(OptionChainBatch b){
+        double[] iv = null;
+        for (int i = 0; i < b.size(); i++) {
+            if (b.iv(i) > 0) continue;
+            double v = iv(b.symbol(i), b.expiryEpochDay(i), b.strike(i));
+            if (Double.isNaN(v)) continue;
+            if (iv == null) iv = b.ivs().clone();
+            iv[i] = v;
+        }
+        return iv == null ? b : b.withIv(iv);
+    }
+
+    private double lookup(String symbol, long day, double strike, boolean fitted){
+        Sym s = symbols.get(symbol);
+        if (s == null) return Double.NaN;
+        int hi = slice(s, day);
+        if (hi < 0) return at(s, -hi - 1, strike, fitted);
+        int lo = hi - 1;
+        double v0 = at(s, lo, strike, fitted), v1 = at(s, hi, strike, fitted);
+        double t0 = s.t[lo], t1 = s.t[hi];
+        double t = t0 + (day - s.expiry[lo]) / 365.0;
+        double w = v0*v0*t0 + (v1*v1*t1 - v0*v0*t0) * (t - t0) / (t1 - t0);
+        return t > 0 ? Math.sqrt(Math.max(0, w) / t) : v0;
+    }
+
+    /**
+     * Bracketing slice for {@code day}: {@code -(e + 1)} when slice {@code e} applies on its own
+     * (exact match or outside the listed range), otherwise the upper of the two slices around it.
+     */
+    private static int slice(Sym s, long day){
+        int i = Arrays.binarySearch(s.expiry, 0, s.slices, day);
+        if (i >= 0) return -(i + 1);
+        int ins = -i - 1;
+        if (ins == 0) return -1;
+        if (ins == s.slices) return -s.slices;
+        return ins;
+    }
+
+    private static double at(Sym s, int e, double strike, boolean fitted){
+        if (fitted) {
+            double k = Math.log(strike / s.fwd[e]);
+            return s.a[e] + k * (s.b[e] + k * s.c[e]);
+        }
+        int from = s.start[e], to = s.start[e + 1];
+        if (from == to) return Double.NaN;
+        int i = Arrays.binarySearch(s.strike, from, to, strike);
+        if (i >= 0) return s.iv[i];
+        int ins = -i - 1;
+        if (ins == from) return s.iv[from];
+        if (ins == to) return s.iv[to - 1];
+        double k0 = s.strike[ins - 1], k1 = s.strike[ins];
+        return s.iv[ins - 1] + (s.iv[ins] - s.iv[ins - 1]) * (strike - k0) / (k1 - k0);
+    }
+}
@@ -0,0 +1,83 @@
+package com.streetlens.options.ranking;
+
+import com.streetlens.options.domain.OptionChainBatch;
+
+import java.util.*;
+
+/**
+ * Primitive counterpart of {@link TopK} for columnar screening: a bounded min-heap of
+ * (row index, score) pairs held in two parallel arrays, so offering a row never allocates.
+ */
+public final class IndexTopK {
+    private final int k;
+    private int[] rows;
+    private double[] scores;
+    private int size;
+
+    public IndexTopK(int k){
+        if (k < 1) throw new IllegalArgumentException("k must be >= 1: " + k);
+        this.k = k;
+        int c = Math.min(k, 1024);
+        this.rows = new int[c];
+        this.scores = new double[c];
+    }
+
+    public int size(){ return size; }
+
+    /** {@code NaN} scores are ignored: one at the root would compare false forever and freeze the heap. */
+    public void offer(int row, double score){
+        if (Double.isNaN(score)) return;
+        if (size < k) {
+            if (size == rows.length) {
+                int c = (int) Math.min(k, rows.length * 2L);
+                rows = Arrays.copyOf(rows, c);
+                scores = Arrays.copyOf(scores, c);
+            }
+            int i = size++;
+            rows[i] = row; scores[i] = score;
+            siftUp(i);
+        } else if (score > scores[0]) {
+            rows[0] = row; scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    public void merge(IndexTopK other){
+        for (int i = 0; i < other.size; i++) offer(other.rows[i], other.scores[i]);
+    }
+
+    /** Materializes the held rows of {@code batch}, highest score first. */
+    public List<Ranker.Scored> toSortedList(OptionChainBatch batch){
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+        List<Ranker.Scored> out = new ArrayList<>(size);
+        for (int i : order) out.add(new Ranker.Scored(batch.contract(rows[i]), batch.quote(rows[i]), scores[i]));
+        return out;
+    }
+
+    private void siftUp(int i){
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (scores[p] <= scores[i]) break;
+            swap(i, p);
+            i = p;
+        }
+    }
+
+    private void siftDown(int i){
+        while (true) {
+            int l = 2*i + 1, r = l + 1, m = i;
+            if (l < size && scores[l] < scores[m]) m = l;
+            if (r < size && scores[r] < scores[m]) m = r;
+            if (m == i) return;
+            swap(i, m);
+            i = m;
+        }
+    }
+
+    private void swap(int a, int b){
+        int ri = rows[a]; rows[a] = rows[b]; rows[b] = ri;
+        double s = scores[a]; scores[a] = scores[b]; scores[b] = s;
+    }
+}
@@ -1,22 +1,32 @@
 package com.streetlens.options.ranking;
 
 import com.streetlens.options.domain.*;
-import com.streetlens.options.pricing.BlackScholes;
 import com.streetlens.options.analytics.OptionAnalytics;
+import com.streetlens.options.screening.EvalContext;
 
 public final class Ranker {
     public record Scored(OptionContract contract, Quote quote, double score) {}
 
     public Scored score(OptionContract c, Quote q){
-        var g = BlackScholes.greeks(c.type(), q.spot(), c.strike(), q.r(), q.iv(), q.t());
-        double premium = q.mid();
-        double be = OptionAnalytics.breakEven(c.type(), c.strike(), premium);
-        double beEdge = (c.type()==OptionType.CALL) ? (be - q.spot()) : (q.spot() - be);
-        double liq = Math.log1p(q.volume() + q.openInterest());
-        double tightness = 1.0 / (1e-6 + q.spreadPct());
-        double probITM = OptionAnalytics.probITM(g.d2(), c.type());
+        return new Scored(c, q, score(new EvalContext().reset(c, q)));
+    }
+
+    /** Same score as {@link #score(OptionContract, Quote)} for row {@code i} of a batch. */
+    public double score(OptionChainBatch b, int i){
+        return score(new EvalContext().reset(b, i));
+    }
+
+    /** Reuses whatever the screen already derived for this row (mid, spread, d2). */
+    public double score(EvalContext x){
+        OptionType type = x.type();
+        double spot = x.spot();
+        double premium = x.mid();
+        double be = OptionAnalytics.breakEven(type, x.strike(), premium);
+        double beEdge = (type==OptionType.CALL) ? (be - spot) : (spot - be);
+        double liq = Math.log1p(x.volume() + x.openInterest());
+        double tightness = 1.0 / (1e-6 + x.spreadPct());
+        double probITM = OptionAnalytics.probITM(x.d2(), type);
 
-        double score = 0.35*beEdge + 0.25*liq + 0.25*tightness + 0.15*probITM;
-        return new Scored(c, q, score);
+        return 0.35*beEdge + 0.25*liq + 0.25*tightness + 0.15*probITM;
     }
 }
@@ -0,0 +1,38 @@
+package com.streetlens.options.ranking;
+
+import java.util.*;
+
+/** Bounded min-heap keeping the {@code k} highest-scoring candidates seen so far. */
+public final class TopK {
+    private static final Comparator<Ranker.Scored> BY_SCORE = Comparator.comparingDouble(Ranker.Scored::score);
+
+    private final int k;
+    private final PriorityQueue<Ranker.Scored> heap;
+
+    public TopK(int k){
+        if (k < 1) throw new IllegalArgumentException("k must be >= 1: " + k);
+        this.k = k;
+        this.heap = new PriorityQueue<>(Math.min(k, 1024) + 1, BY_SCORE);
+    }
+
+    public int k(){ return k; }
+    public int size(){ return heap.size(); }
+
+    /** {@code NaN} scores are ignored, as in {@link IndexTopK}; they would otherwise sort above every real score. */
+    public void offer(Ranker.Scored s){
+        if (Double.isNaN(s.score())) return;
+        if (heap.size() < k) heap.add(s);
+        else if (s.score() > heap.peek().score()) { heap.poll(); heap.add(s); }
+    }
+
+    public void merge(TopK other){
+        for (var s : other.heap) offer(s);
+    }
+
+    /** Highest score first. */
+    public List<Ranker.Scored> toSortedList(){
+        var out = new ArrayList<>(heap);
+        out.sort(BY_SCORE.reversed());
+        return out;
+    }
+}
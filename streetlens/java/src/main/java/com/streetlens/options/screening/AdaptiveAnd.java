@@ -0,0 +1,78 @@
+package com.streetlens.options.screening;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conjunction that reorders its rules by observed selectivity. Each rule is ranked by
+ * {@code cost / rejectRate}, so cheap rules that reject a lot run first and expensive ones
+ * (greeks) only see rows that survived. Counts are exact; the re-plan itself is triggered on a
+ * random ~1/{@link #REPLAN_EVERY} sample of rows so workers never contend on a shared counter.
+ */
+public final class AdaptiveAnd implements ContextRule {
+    static final int REPLAN_EVERY = 1 << 14;
+    private static final long MIN_SAMPLES = 256;
+    private static final double PRIOR_REJECT = 0.5;
+
+    public record RuleStats(String name, Cost cost, long evaluated, long rejected) {
+        public double rejectRate(){ return evaluated == 0 ? Double.NaN : (double) rejected / evaluated; }
+    }
+
+    private final ScreenRule[] rules;
+    private final LongAdder[] evaluated, rejected;
+    private volatile int[] order;
+
+    public AdaptiveAnd(ScreenRule... rules){
+        this.rules = rules.clone();
+        this.evaluated = new LongAdder[rules.length];
+        this.rejected = new LongAdder[rules.length];
+        for (int i = 0; i < rules.length; i++) { evaluated[i] = new LongAdder(); rejected[i] = new LongAdder(); }
+        this.order = rank();
+    }
+
+    @Override
+    public boolean accept(EvalContext x){
+        if ((ThreadLocalRandom.current().nextInt() & (REPLAN_EVERY - 1)) == 0) order = rank();
+        for (int i : order) {
+            evaluated[i].increment();
+            if (!rules[i].accept(x)) { rejected[i].increment(); return false; }
+        }
+        return true;
+    }
+
+    @Override
+    public Cost cost(){
+        Cost max = Cost.CHEAP;
+        for (var r : rules) if (r.cost().compareTo(max) > 0) max = r.cost();
+        return max;
+    }
+
+    @Override
+    public String name(){
+        StringJoiner j = new StringJoiner(", ", "and(", ")");
+        for (int i : order) j.add(rules[i].name());
+        return j.toString();
+    }
+
+    @Override public String toString(){ return name(); }
+
+    /** Rules in the order currently being evaluated, with their counters. */
+    public List<RuleStats> plan(){
+        List<RuleStats> out = new ArrayList<>(rules.length);
+        for (int i : order) out.add(new RuleStats(rules[i].name(), rules[i].cost(), evaluated[i].sum(), rejected[i].sum()));
+        return out;
+    }
+
+    private int[] rank(){
+        double[] key = new double[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            long n = evaluated[i].sum();
+            double reject = n < MIN_SAMPLES ? PRIOR_REJECT : (double) rejected[i].sum() / n;
+            key[i] = rules[i].cost().weight() / Math.max(1e-6, reject);
+        }
+        return java.util.stream.IntStream.range(0, rules.length).boxed()
+            .sorted(Comparator.comparingDouble(i -> key[i]))
+            .mapToInt(Integer::intValue).toArray();
+    }
+}
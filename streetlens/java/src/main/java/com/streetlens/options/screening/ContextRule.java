@@ -0,0 +1,22 @@
+package com.streetlens.options.screening;
+
+import com.streetlens.options.domain.OptionChainBatch;
+import com.streetlens.options.domain.OptionContract;
+import com.streetlens.options.domain.Quote;
+
+/**
+ * A {@link ScreenRule} written against {@link EvalContext}; the contract/quote and batch entry
+ * points wrap the row in a fresh context. Lambdas cast to this type are the usual way to write
+ * rules that share derived values with the ranker.
+ */
+@FunctionalInterface
+public interface ContextRule extends ScreenRule {
+    @Override
+    boolean accept(EvalContext x);
+
+    @Override
+    default boolean accept(OptionContract c, Quote q){ return accept(new EvalContext().reset(c, q)); }
+
+    @Override
+    default boolean accept(OptionChainBatch b, int i){ return accept(new EvalContext().reset(b, i)); }
+}
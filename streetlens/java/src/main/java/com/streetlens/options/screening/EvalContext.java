@@ -0,0 +1,171 @@
+package com.streetlens.options.screening;
+
+import com.streetlens.options.domain.*;
+import com.streetlens.options.pricing.BlackScholes;
+
+/**
+ * Per-row scratch state shared by {@link ScreenRule}s and the ranker. Derived values (mid,
+ * spread, d1/d2, delta, full greeks) are computed on first use and then reused for the rest of
+ * the row, so a rule chain followed by scoring runs the pricing math once. A context is mutable
+ * and meant to be reused: one instance per worker, {@code reset} per row.
+ *
+ * <p>With {@link #timing(boolean)} on, the context also counts rows that needed pricing math and
+ * times it on one row in {@value #SAMPLE_EVERY}, so the cost can be estimated without a clock read
+ * on every row.
+ */
+public final class EvalContext {
+    private static final int MID = 1, SPREAD = 2, D1 = 4, D2 = 8, DELTA = 16, PRICED = 32;
+    static final int SAMPLE_EVERY = 16;
+
+    private OptionContract contract;
+    private Quote quote;
+    private OptionChainBatch batch;
+    private int row = -1;
+
+    private int computed;
+    private double mid, spreadPct, d1, d2, delta;
+    private BlackScholes.Greeks greeks;
+
+    private boolean timing, sampled;
+    private int resets;
+    private long pricedRows, sampledRows, sampledNanos;
+
+    public EvalContext reset(OptionContract c, Quote q){
+        this.contract = c;
+        this.quote = q;
+        this.batch = null;
+        this.row = -1;
+        clear();
+        return this;
+    }
+
+    public EvalContext reset(OptionChainBatch b, int i){
+        this.contract = null;
+        this.quote = null;
+        this.batch = b;
+        this.row = i;
+        clear();
+        return this;
+    }
+
+    private void clear(){
+        computed = 0;
+        greeks = null;
+        sampled = timing && (++resets & (SAMPLE_EVERY - 1)) == 0;
+    }
+
+    /** Turns pricing counters on or off; see {@link #pricingNanosEstimate()}. */
+    public EvalContext timing(boolean on){
+        this.timing = on;
+        return this;
+    }
+
+    /** Rows since construction that computed d1 or full greeks. */
+    public long pricedRows(){ return pricedRows; }
+
+    /** Time spent in pricing math, extrapolated from the sampled rows to {@link #pricedRows()}. */
+    public long pricingNanosEstimate(){
+        return sampledRows == 0 ? 0 : (long) ((double) sampledNanos * pricedRows / sampledRows);
+    }
+
+    /** Whether this row is one of the timed samples; callers timing their own work can sample the same rows. */
+    boolean sampled(){ return sampled; }
+
+    /** Pricing time measured so far on sampled rows (not extrapolated). */
+    long sampledPricingNanos(){ return sampledNanos; }
+
+    private long clock(){ return sampled ? System.nanoTime() : 0; }
+
+    private void priced(long start){
+        if ((computed & PRICED) == 0) {
+            computed |= PRICED;
+            pricedRows++;
+            if (sampled) sampledRows++;
+        }
+        if (sampled) sampledNanos += System.nanoTime() - start;
+    }
+
+    /** Backing batch, or {@code null} when the row came from a contract/quote pair. */
+    public OptionChainBatch batch(){ return batch; }
+    public int row(){ return row; }
+
+    /** Materialized on first call for batch rows. */
+    public OptionContract contract(){
+        if (contract == null) contract = batch.contract(row);
+        return contract;
+    }
+
+    /** Materialized on first call for batch rows. */
+    public Quote quote(){
+        if (quote == null) quote = batch.quote(row);
+        return quote;
+    }
+
+    public String symbol(){ return batch != null ? batch.symbol(row) : contract.symbol(); }
+    public OptionType type(){ return batch != null ? batch.type(row) : contract.type(); }
+    public double strike(){ return batch != null ? batch.strike(row) : contract.strike(); }
+    public long expiryEpochDay(){ return batch != null ? batch.expiryEpochDay(row) : contract.expiry().toEpochDay(); }
+    public double spot(){ return batch != null ? batch.spot(row) : quote.spot(); }
+    public double iv(){ return batch != null ? batch.iv(row) : quote.iv(); }
+    public double r(){ return batch != null ? batch.r(row) : quote.r(); }
+    public double t(){ return batch != null ? batch.t(row) : quote.t(); }
+    public long volume(){ return batch != null ? batch.volume(row) : quote.volume(); }
+    public long openInterest(){ return batch != null ? batch.openInterest(row) : quote.openInterest(); }
+
+    public double dteDays(){ return t()*365.0; }
+
+    public double mid(){
+        if ((computed & MID) == 0) {
+            mid = batch != null ? batch.mid(row) : quote.mid();
+            computed |= MID;
+        }
+        return mid;
+    }
+
+    public double spreadPct(){
+        if ((computed & SPREAD) == 0) {
+            spreadPct = (batch != null ? batch.ask(row) - batch.bid(row) : quote.ask() - quote.bid()) / Math.max(1e-9, mid());
+            computed |= SPREAD;
+        }
+        return spreadPct;
+    }
+
+    public double d1(){
+        if ((computed & D1) == 0) {
+            long start = clock();
+            d1 = BlackScholes.d1(spot(), strike(), r(), iv(), t());
+            computed |= D1;
+            priced(start);
+        }
+        return d1;
+    }
+
+    public double d2(){
+        if ((computed & D2) == 0) {
+            d2 = BlackScholes.d2(d1(), iv(), t());
+            computed |= D2;
+        }
+        return d2;
+    }
+
+    public double delta(){
+        if ((computed & DELTA) == 0) {
+            double d = d1();
+            long start = clock();
+            delta = BlackScholes.delta(type(), d);
+            computed |= DELTA;
+            priced(start);
+        }
+        return delta;
+    }
+
+    /** Full greeks; prefer {@link #delta()} / {@link #d2()} when that is all a rule needs. */
+    public BlackScholes.Greeks greeks(){
+        if (greeks == null) {
+            long start = clock();
+            greeks = BlackScholes.greeks(type(), spot(), strike(), r(), iv(), t());
+            priced(start);
+        }
+        return greeks;
+    }
+}
@@ -0,0 +1,72 @@
+package com.streetlens.options.screening;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Builds adaptive conjunctions and caches compiled {@link ScreenSpec}s, so repeated screens with
+ * the same thresholds share one plan and keep learning its selectivity across requests.
+ * {@link #ruleTotals()} counts per rule name across every cached plan, including ones since evicted.
+ */
+public final class RulePlanner {
+    private static final int MAX_CACHED = 256;
+
+    /** Evaluated and rejected rows for one rule name, summed over plans. */
+    public record RuleTotals(long evaluated, long rejected) {}
+
+    /** Counts of evicted plans per rule name, so totals survive eviction and never go backwards. Guarded by CACHE. */
+    private static final Map<String, LongAdder[]> RETIRED = new HashMap<>();
+
+    /** Access-ordered, so a burst of one-off specs from query strings evicts only the least recently used plans. */
+    private static final Map<ScreenSpec, AdaptiveAnd> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<ScreenSpec, AdaptiveAnd> eldest){
+            if (size() <= MAX_CACHED) return false;
+            for (var r : eldest.getValue().plan()) {
+                LongAdder[] c = RETIRED.computeIfAbsent(r.name(), n -> new LongAdder[]{new LongAdder(), new LongAdder()});
+                c[0].add(r.evaluated());
+                c[1].add(r.rejected());
+            }
+            return true;
+        }
+    };
+
+    private RulePlanner(){}
+
+    public static AdaptiveAnd plan(ScreenRule... rules){ return new AdaptiveAnd(rules); }
+
+    public static AdaptiveAnd compile(ScreenSpec spec){
+        synchronized (CACHE) {
+            return CACHE.computeIfAbsent(spec, s -> new AdaptiveAnd(s.rules()));
+        }
+    }
+
+    /** Snapshot of every cached plan with its current rule order and counters. */
+    public static Map<ScreenSpec, List<AdaptiveAnd.RuleStats>> cachedPlans(){
+        Map<ScreenSpec, List<AdaptiveAnd.RuleStats>> out = new LinkedHashMap<>();
+        synchronized (CACHE) {
+            CACHE.forEach((spec, plan) -> out.put(spec, plan.plan()));
+        }
+        return out;
+    }
+
+    /**
+     * Per rule name, counts of the cached plans plus those of every plan evicted so far, by name.
+     * Rows a plan screens after its eviction (a screen still running on it) are not counted.
+     */
+    public static SortedMap<String, RuleTotals> ruleTotals(){
+        Map<String, long[]> sum = new HashMap<>();
+        synchronized (CACHE) {
+            RETIRED.forEach((name, c) -> sum.put(name, new long[]{c[0].sum(), c[1].sum()}));
+            for (var plan : CACHE.values()) {
+                for (var r : plan.plan()) {
+                    long[] c = sum.computeIfAbsent(r.name(), n -> new long[2]);
+                    c[0] += r.evaluated();
+                    c[1] += r.rejected();
+                }
+            }
+        }
+        SortedMap<String, RuleTotals> out = new TreeMap<>();
+        sum.forEach((name, c) -> out.put(name, new RuleTotals(c[0], c[1])));
+        return out;
+    }
+}
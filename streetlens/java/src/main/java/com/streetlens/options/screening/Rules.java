@@ -1,30 +1,57 @@
 package com.streetlens.options.screening;
 
-import com.streetlens.options.domain.*;
-import com.streetlens.options.pricing.BlackScholes;
+import com.streetlens.options.pricing.VolSurface;
+import com.streetlens.options.screening.ScreenRule.Cost;
 
 public final class Rules {
     private Rules(){}
-    public static ScreenRule minVolume(long v){ return (c,q) -> q.volume() >= v; }
-    public static ScreenRule minOpenInterest(long oi){ return (c,q) -> q.openInterest() >= oi; }
-    public static ScreenRule maxSpreadPct(double pct){ return (c,q) -> q.spreadPct() <= pct; }
+    public static ScreenRule minVolume(long v){
+        return named("minVolume>=" + v, Cost.CHEAP, x -> x.volume() >= v);
+    }
+    public static ScreenRule minOpenInterest(long oi){
+        return named("minOpenInterest>=" + oi, Cost.CHEAP, x -> x.openInterest() >= oi);
+    }
+    public static ScreenRule maxSpreadPct(double pct){
+        return named("maxSpreadPct<=" + pct, Cost.CHEAP, x -> x.spreadPct() <= pct);
+    }
     public static ScreenRule deltaBetween(double lo,double hi){
-        return (c,q) -> {
-            var g = BlackScholes.greeks(
-                c.type(), q.spot(), c.strike(), q.r(), q.iv(), q.t());
-            return g.delta() >= lo && g.delta() <= hi;
-        };
+        return named("delta[" + lo + "," + hi + "]", Cost.EXPENSIVE, x -> x.delta() >= lo && x.delta() <= hi);
     }
     public static ScreenRule dteBetween(int lo,int hi){
-        return (c,q) -> {
-            double days = q.t()*365.0;
+        return named("dte[" + lo + "," + hi + "]", Cost.CHEAP, x -> {
+            double days = x.dteDays();
             return days >= lo && days <= hi;
-        };
+        });
+    }
+    /** Quote iv minus the fitted smile of {@code surface} in {@code [lo, hi]} (vol points as decimals); rows off the surface fail. */
+    public static ScreenRule ivVsSmileBetween(VolSurface surface, double lo, double hi){
+        return named("ivVsSmile[" + lo + "," + hi + "]", Cost.MODERATE, x -> {
+            double d = surface.residual(x.symbol(), x.expiryEpochDay(), x.strike(), x.iv());
+            return d >= lo && d <= hi;
+        });
     }
+    /** ATM skew of the row's expiry ({@link VolSurface#skew}) in {@code [lo, hi]}; rows off the surface fail. */
+    public static ScreenRule skewBetween(VolSurface surface, double lo, double hi){
+        return named("skew[" + lo + "," + hi + "]", Cost.MODERATE, x -> {
+            double s = surface.skew(x.symbol(), x.expiryEpochDay());
+            return s >= lo && s <= hi;
+        });
+    }
+    /** Checks {@code rs} in the given order; see {@link RulePlanner#plan} for an adaptive conjunction. */
     public static ScreenRule and(ScreenRule... rs){
-        return (c,q) -> {
-            for (var r: rs) if (!r.accept(c,q)) return false;
+        return (ContextRule) x -> {
+            for (var r: rs) if (!r.accept(x)) return false;
             return true;
         };
     }
+
+    /** Attaches a display name and cost class to a context rule. */
+    public static ScreenRule named(String name, Cost cost, ContextRule rule){
+        return new Named(name, cost, rule);
+    }
+
+    private record Named(String name, Cost cost, ContextRule rule) implements ContextRule {
+        @Override public boolean accept(EvalContext x){ return rule.accept(x); }
+        @Override public String toString(){ return name; }
+    }
 }
@@ -1,7 +1,30 @@
 package com.streetlens.options.screening;
+import com.streetlens.options.domain.OptionChainBatch;
 import com.streetlens.options.domain.OptionContract;
 import com.streetlens.options.domain.Quote;
 
 public interface ScreenRule {
+    /** Rough per-row evaluation cost, used by {@link RulePlanner} to order conjunctions. */
+    enum Cost {
+        CHEAP(1), MODERATE(4), EXPENSIVE(20);
+
+        private final double weight;
+        Cost(double weight){ this.weight = weight; }
+        public double weight(){ return weight; }
+    }
+
     boolean accept(OptionContract c, Quote q);
+
+    /** Columnar path; the default materializes the row. */
+    default boolean accept(OptionChainBatch b, int i){
+        return accept(b.contract(i), b.quote(i));
+    }
+
+    /** Context path used by {@link ScreeningEngine}; adapts rules that only implement the methods above. */
+    default boolean accept(EvalContext x){
+        return x.batch() != null ? accept(x.batch(), x.row()) : accept(x.contract(), x.quote());
+    }
+
+    default Cost cost(){ return Cost.MODERATE; }
+    default String name(){ return getClass().getSimpleName(); }
 }
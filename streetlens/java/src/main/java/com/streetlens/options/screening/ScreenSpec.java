@@ -0,0 +1,49 @@
+package com.streetlens.options.screening;
+
+import java.util.function.Function;
+
+/** Declarative screen: thresholds only, compiled into an {@link AdaptiveAnd} by {@link RulePlanner}. */
+public record ScreenSpec(
+    long minVolume,
+    long minOpenInterest,
+    double maxSpreadPct,
+    int minDte, int maxDte,
+    double minDelta, double maxDelta
+) {
+    /**
+     * Reads {@code minVolume, minOi, maxSpread, minDte, maxDte, minDelta, maxDelta} through
+     * {@code param} (e.g. a query-string lookup), using {@code defaults} for anything missing or unparsable.
+     */
+    public static ScreenSpec from(Function<String, String> param, ScreenSpec defaults){
+        return new ScreenSpec(
+            parseLong(param.apply("minVolume"), defaults.minVolume),
+            parseLong(param.apply("minOi"), defaults.minOpenInterest),
+            parseDouble(param.apply("maxSpread"), defaults.maxSpreadPct),
+            parseInt(param.apply("minDte"), defaults.minDte),
+            parseInt(param.apply("maxDte"), defaults.maxDte),
+            parseDouble(param.apply("minDelta"), defaults.minDelta),
+            parseDouble(param.apply("maxDelta"), defaults.maxDelta)
+        );
+    }
+
+    public ScreenRule[] rules(){
+        return new ScreenRule[]{
+            Rules.minVolume(minVolume),
+            Rules.minOpenInterest(minOpenInterest),
+            Rules.maxSpreadPct(maxSpreadPct),
+            Rules.dteBetween(minDte, maxDte),
+            Rules.deltaBetween(minDelta, maxDelta)
+        };
+    }
+
+    private static long parseLong(String s, long def){
+        try { return s == null ? def : Long.parseLong(s.trim()); } catch (Exception e) { return def; }
+    }
+    /** Out-of-range values fall back to {@code def} like unparsable ones, rather than wrapping. */
+    private static int parseInt(String s, int def){
+        try { return s == null ? def : Integer.parseInt(s.trim()); } catch (Exception e) { return def; }
+    }
+    private static double parseDouble(String s, double def){
+        try { return s == null ? def : Double.parseDouble(s.trim()); } catch (Exception e) { return def; }
+    }
+}
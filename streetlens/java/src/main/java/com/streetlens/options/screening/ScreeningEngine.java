@@ -0,0 +1,234 @@
+package com.streetlens.options.screening;
+
+import com.streetlens.options.domain.*;
+import com.streetlens.options.metrics.PipelineMetrics;
+import com.streetlens.options.metrics.PipelineMetrics.Stage;
+import com.streetlens.options.ranking.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Screens and ranks a chain in a few large chunks instead of one task per row. Each chunk keeps
+ * its own {@link TopK}; the heaps are merged at the end, so memory scales with {@code k} and the
+ * number of chunks rather than with the input size. Rule and ranker share one reused
+ * {@link EvalContext} per chunk, so derived values are computed once per row.
+ *
+ * <p>Given a {@link PipelineMetrics}, each call records the screen, greeks, rank and sort stages,
+ * which do not overlap. Greeks time is the context's sampled estimate of all pricing math, whether
+ * a rule or the ranker asked for it; rank time is clocked on the same sampled rows, less the
+ * pricing the score triggered, and extrapolated to every accepted row; screen is the rest of the
+ * chunk loop.
+ *
+ * <p>A row whose rule or score throws is skipped and counted in {@link #failedRows()}; the rest
+ * of the screen goes on, as when rows were screened one task each.
+ *
+ * <p>The columnar {@link #topK(OptionChainBatch, int, Progress)} also reports to a {@link Progress}
+ * after every {@value #PROGRESS_ROWS} rows of a chunk and stops with a
+ * {@link CancellationException} once it reports cancelled.
+ */
+public final class ScreeningEngine {
+    private static final int MIN_CHUNK = 4096;
+    private static final int PROGRESS_ROWS = 4096;
+
+    /** Receives row counts from chunk threads, possibly concurrently; counts are increments. */
+    public interface Progress {
+        void screened(long rows, long accepted);
+        boolean cancelled();
+    }
+
+    private final ScreenRule rule;
+    private final Ranker ranker;
+    private final Executor executor;
+    private final int parallelism;
+    private final PipelineMetrics metrics;
+    private final LongAdder failed = new LongAdder();
+
+    public ScreeningEngine(ScreenRule rule, Ranker ranker){
+        this(rule, ranker, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    public ScreeningEngine(ScreenRule rule, Ranker ranker, Executor executor, int parallelism){
+        this(rule, ranker, executor, parallelism, null);
+    }
+
+    /** {@code metrics} may be {@code null}, in which case nothing is timed. */
+    public ScreeningEngine(ScreenRule rule, Ranker ranker, Executor executor, int parallelism, PipelineMetrics metrics){
+        this.rule = Objects.requireNonNull(rule);
+        this.ranker = Objects.requireNonNull(ranker);
+        this.executor = Objects.requireNonNull(executor);
+        this.parallelism = Math.max(1, parallelism);
+        this.metrics = metrics;
+    }
+
+    /** Rows skipped so far, over every call on this engine, because the rule or ranker threw. */
+    public long failedRows(){ return failed.sum(); }
+
+    /** One chunk's heap plus its counters. */
+    private record Part<T>(T top, int heapSize, long rows, long accepted, long priced,
+                           long loopNanos, long pricingNanos, long rankNanos) {}
+
+    /** Top {@code k} rows that pass the screen, highest score first. */
+    public List<Ranker.Scored> topK(List<Map.Entry<OptionContract, Quote>> rows, int k){
+        int n = rows.size();
+        int chunks = chunks(n);
+        List<Part<TopK>> done;
+        if (chunks <= 1) {
+            done = List.of(screen(rows, 0, n, k));
+        } else {
+            List<CompletableFuture<Part<TopK>>> parts = new ArrayList<>(chunks);
+            for (int c = 0; c < chunks; c++) {
+                int from = (int) ((long) n * c / chunks);
+                int to = (int) ((long) n * (c + 1) / chunks);
+                parts.add(CompletableFuture.supplyAsync(() -> screen(rows, from, to, k), executor));
+            }
+            done = join(parts);
+        }
+        long t0 = System.nanoTime();
+        TopK merged = new TopK(k);
+        for (var p : done) merged.merge(p.top());
+        var out = merged.toSortedList();
+        record(done, System.nanoTime() - t0, out.size());
+        return out;
+    }
+
+    /** Columnar variant of {@link #topK(List, int)}: rows are screened and scored by index without allocation. */
+    public List<Ranker.Scored> topK(OptionChainBatch batch, int k){
+        return topK(batch, k, null);
+    }
+
+    /** Same, reporting to {@code progress} (may be {@code null}) as chunks advance. */
+    public List<Ranker.Scored> topK(OptionChainBatch batch, int k, Progress progress){
+        int n = batch.size();
+        int chunks = chunks(n);
+        List<Part<IndexTopK>> done;
+        if (chunks <= 1) {
+            done = List.of(screen(batch, 0, n, k, progress));
+        } else {
+            List<CompletableFuture<Part<IndexTopK>>> parts = new ArrayList<>(chunks);
+            for (int c = 0; c < chunks; c++) {
+                int from = (int) ((long) n * c / chunks);
+                int to = (int) ((long) n * (c + 1) / chunks);
+                parts.add(CompletableFuture.supplyAsync(() -> screen(batch, from, to, k, progress), executor));
+            }
+            done = join(parts);
+        }
+        long t0 = System.nanoTime();
+        IndexTopK merged = new IndexTopK(k);
+        for (var p : done) merged.merge(p.top());
+        var out = merged.toSortedList(batch);
+        record(done, System.nanoTime() - t0, out.size());
+        return out;
+    }
+
+    private void record(List<? extends Part<?>> parts, long sortNanos, int results){
+        if (metrics == null) return;
+        long rows = 0, accepted = 0, priced = 0, loop = 0, pricing = 0, rank = 0, heaps = 0;
+        for (var p : parts) {
+            rows += p.rows(); accepted += p.accepted(); priced += p.priced();
+            loop += p.loopNanos(); pricing += p.pricingNanos(); rank += p.rankNanos(); heaps += p.heapSize();
+        }
+        metrics.record(Stage.SCREEN, Math.max(0, loop - pricing - rank), rows, accepted);
+        metrics.record(Stage.GREEKS, pricing, priced, priced);
+        metrics.record(Stage.RANK, rank, accepted, accepted);
+        metrics.record(Stage.SORT, sortNanos, heaps, results);
+    }
+
+    private int chunks(int n){
+        return (int) Math.min(parallelism * 4L, (n + MIN_CHUNK - 1) / MIN_CHUNK);
+    }
+
+    private static <T> List<T> join(List<CompletableFuture<T>> parts){
+        List<T> out = new ArrayList<>(parts.size());
+        try {
+            for (var p : parts) out.add(p.join());
+        } catch (CompletionException e) {
+            parts.forEach(p -> p.cancel(true));
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+        return out;
+    }
+
+    private Part<IndexTopK> screen(OptionChainBatch batch, int from, int to, int k, Progress progress){
+        boolean timed = metrics != null;
+        IndexTopK top = new IndexTopK(k);
+        EvalContext ctx = new EvalContext().timing(timed);
+        RankClock clock = new RankClock(ctx);
+        long accepted = 0, t0 = timed ? System.nanoTime() : 0;
+        for (int i = from; i < to; ) {
+            if (progress != null && progress.cancelled()) throw new CancellationException("screen cancelled");
+            int end = progress == null ? to : Math.min(to, i + PROGRESS_ROWS), rows = end - i;
+            long before = accepted;
+            for (; i < end; i++) {
+                double score;
+                try {
+                    if (!rule.accept(ctx.reset(batch, i))) continue;
+                    clock.start();
+                    score = ranker.score(ctx);
+                    clock.stop();
+                } catch (RuntimeException e) {
+                    failed.increment(); // one bad row is skipped, not the whole screen
+                    continue;
+                }
+                accepted++;
+                top.offer(i, score);
+            }
+            if (progress != null) progress.screened(rows, accepted - before);
+        }
+        long loop = timed ? System.nanoTime() - t0 : 0;
+        return new Part<>(top, top.size(), to - from, accepted, ctx.pricedRows(), loop, ctx.pricingNanosEstimate(), clock.estimate(accepted));
+    }
+
+    private Part<TopK> screen(List<Map.Entry<OptionContract, Quote>> rows, int from, int to, int k){
+        boolean timed = metrics != null;
+        TopK top = new TopK(k);
+        EvalContext ctx = new EvalContext().timing(timed);
+        RankClock clock = new RankClock(ctx);
+        long accepted = 0, t0 = timed ? System.nanoTime() : 0;
+        for (int i = from; i < to; i++) {
+            var e = rows.get(i);
+            double score;
+            try {
+                if (!rule.accept(ctx.reset(e.getKey(), e.getValue()))) continue;
+                clock.start();
+                score = ranker.score(ctx);
+                clock.stop();
+            } catch (RuntimeException ex) {
+                failed.increment();
+                continue;
+            }
+            accepted++;
+            top.offer(new Ranker.Scored(e.getKey(), e.getValue(), score));
+        }
+        long loop = timed ? System.nanoTime() - t0 : 0;
+        return new Part<>(top, top.size(), to - from, accepted, ctx.pricedRows(), loop, ctx.pricingNanosEstimate(), clock.estimate(accepted));
+    }
+
+    /**
+     * Times scores only on the rows the context samples for pricing, so an unsampled row costs no
+     * clock read. Pricing that the score triggers is taken back out: it is already in GREEKS.
+     */
+    private static final class RankClock {
+        private final EvalContext ctx;
+        private long start, pricing, nanos, rows;
+
+        RankClock(EvalContext ctx){ this.ctx = ctx; }
+
+        void start(){
+            if (!ctx.sampled()) return;
+            pricing = ctx.sampledPricingNanos();
+            start = System.nanoTime();
+        }
+
+        void stop(){
+            if (!ctx.sampled()) return;
+            nanos += System.nanoTime() - start - (ctx.sampledPricingNanos() - pricing);
+            rows++;
+        }
+
+        /** Sampled rank time scaled up to {@code accepted} rows. */
+        long estimate(long accepted){ return rows == 0 ? 0 : (long) ((double) nanos * accepted / rows); }
+    }
+}
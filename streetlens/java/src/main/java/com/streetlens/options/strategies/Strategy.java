@@ -0,0 +1,25 @@
+package com.streetlens.options.strategies;
+
+import com.streetlens.options.domain.OptionContract;
+import com.streetlens.options.domain.Quote;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One priced candidate. Money amounts are per structure (one contract per leg, times the
+ * multiplier); {@code netCredit} is positive when the structure collects premium and negative
+ * when it is paid for, at bid for sold legs and ask for bought ones. {@code modelEdge} is the
+ * Black-Scholes value of the legs minus what executing them costs. {@code breakEvenHigh} is
+ * {@code NaN} for verticals.
+ */
+public record Strategy(StrategyType type, String symbol, LocalDate expiry, List<Leg> legs,
+                       double netCredit, double maxProfit, double maxLoss,
+                       double breakEvenLow, double breakEvenHigh, double probProfit,
+                       double modelEdge, double score) {
+    /** {@code quantity} is +1 for a bought leg and -1 for a sold one; {@code modelPrice} is per share. */
+    public record Leg(OptionContract contract, Quote quote, int quantity, double modelPrice) {}
+
+    /** {@code maxProfit / maxLoss}. */
+    public double returnOnRisk(){ return maxProfit / maxLoss; }
+}
@@ -0,0 +1,23 @@
+package com.streetlens.options.strategies;
+
+/**
+ * Scores a candidate structure from its payoff bounds, like {@link com.streetlens.options.ranking.Ranker}
+ * does for single legs. Works on primitives so {@link StrategySearch} can score a candidate
+ * before deciding whether to build it.
+ */
+public final class StrategyRanker {
+    /**
+     * {@code maxProfit}, {@code maxLoss} and {@code modelEdge} in the same units (e.g. dollars per
+     * structure), {@code probProfit} in [0, 1], {@code liquidity} the thinnest leg's volume plus open interest.
+     * Money terms are taken relative to {@code maxProfit + maxLoss} (the spread width for verticals,
+     * the wider side for condors) rather than to max loss alone, so a penny debit cannot blow up the score.
+     */
+    public double score(double maxProfit, double maxLoss, double probProfit, double modelEdge, long liquidity){
+        double range = maxProfit + maxLoss;
+        double expected = (probProfit*maxProfit - (1 - probProfit)*maxLoss) / range;
+        double edge = modelEdge / range;
+        double liq = Math.log1p(liquidity) / 10.0;
+
+        return 0.40*expected + 0.25*edge + 0.20*probProfit + 0.15*liq;
+    }
+}
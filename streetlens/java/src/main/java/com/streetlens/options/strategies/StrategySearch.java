@@ -0,0 +1,360 @@
+package com.streetlens.options.strategies;
+
+import com.streetlens.options.domain.OptionChainBatch;
+import com.streetlens.options.pricing.BatchGreeks;
+import com.streetlens.options.pricing.BlackScholes;
+import com.streetlens.options.pricing.Normal;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Builds and ranks verticals and iron condors over a chain. Legs that fail the per-leg
+ * liquidity and DTE limits are dropped first; the rest are grouped per symbol and expiry into
+ * strike-sorted put and call arrays, and each group is searched as its own task.
+ *
+ * <p>Inside a group, pair loops walk outwards from one leg in strike order and stop as soon as
+ * the width passes {@link Limits#maxWidthPct} of spot or, for credit spreads, as soon as even the
+ * short leg's whole bid could not keep the max loss under {@link Limits#maxLoss}. Candidates are
+ * scored as primitives and only built when they would enter the group's top-K. Condors are not
+ * enumerated four legs at a time: each side keeps its {@link Limits#condorSide} best out-of-the-money
+ * credit spreads by return on risk, and only those pairs are combined.
+ *
+ * <p>Fills are taken at the touch (ask for bought legs, bid for sold ones), each leg is also
+ * valued with Black-Scholes at its own iv (all legs in one {@link BatchGreeks} pass), and the probability of profit is the
+ * risk-neutral lognormal probability of finishing beyond the break-even(s) at the legs' average iv.
+ */
+public final class StrategySearch {
+    /**
+     * Per-leg filters ({@code minVolume}, {@code minOpenInterest}, {@code maxLegSpreadPct} of mid,
+     * DTE range) and structure bounds: width at most {@code maxWidthPct} of spot, max loss at most
+     * {@code maxLoss} dollars per structure, credit structures collecting at least
+     * {@code minCreditPct} of their width. {@code condorSide} caps the spreads per side fed into condors.
+     */
+    public record Limits(long minVolume, long minOpenInterest, double maxLegSpreadPct, int minDte, int maxDte,
+                         double maxWidthPct, double maxLoss, double minCreditPct, int condorSide) {
+        public static final Limits DEFAULT = new Limits(100, 500, 0.25, 7, 120, 0.15, 1000, 0.20, 32);
+    }
+
+    /** The top structures plus how many candidates were priced and how long the search took. */
+    public record Result(List<Strategy> top, int legs, int groups, long candidates, long nanos) {}
+
+    private static final Comparator<Strategy> BY_SCORE = Comparator.comparingDouble(Strategy::score);
+
+    private final Limits limits;
+    private final StrategyRanker ranker;
+    private final Executor executor;
+
+    public StrategySearch(Limits limits, StrategyRanker ranker){
+        this(limits, ranker, ForkJoinPool.commonPool());
+    }
+
+    public StrategySearch(Limits limits, StrategyRanker ranker, Executor executor){
+        this.limits = Objects.requireNonNull(limits);
+        this.ranker = Objects.requireNonNull(ranker);
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /** Best {@code k} structures of the given {@code types} across the whole chain, highest score first. */
+    public Result search(OptionChainBatch b, Set<StrategyType> types, int k){
+        if (k < 1) throw new IllegalArgumentException("k must be >= 1: " + k);
+        long t0 = System.nanoTime();
+        int[] legs = legs(b);
+        List<int[]> groups = groups(b, legs);
+        double[] model = model(b, legs);
+
+        // one task per symbol/expiry
+        List<CompletableFuture<Best>> parts = new ArrayList<>(groups.size());
+        for (int[] g : groups) {
+            parts.add(CompletableFuture.supplyAsync(() -> search(b, new Group(b, legs, model, g[0], g[1], g[2]), types, k), executor));
+        }
+        Best all = new Best(k);
+        try {
+            for (var p : parts) all.merge(p.join());
+        } catch (CompletionException e) {
+            parts.forEach(p -> p.cancel(true));
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+        return new Result(all.sorted(), legs.length, groups.size(), all.candidates, System.nanoTime() - t0);
+    }
+
+    /**
+     * Rows usable as legs, ordered by symbol, expiry, type (puts first) and strike. A counting
+     * sort on (symbol, expiry, type) does the bulk; strikes within a group are usually listed in
+     * order already, so an insertion sort finishes them.
+     */
+    private int[] legs(OptionChainBatch b){
+        int keys = b.symbolCount() * b.expiryCount() * 2;
+        int[] key = new int[b.size()], count = new int[keys + 1];
+        int n = 0;
+        for (int i = 0; i < b.size(); i++) {
+            key[i] = -1;
+            double dte = b.t(i) * 365.0, bid = b.bid(i), ask = b.ask(i), iv = b.iv(i);
+            if (dte < limits.minDte() || dte > limits.maxDte()) continue;
+            if (!(bid > 0 && ask >= bid && iv > 0 && iv < Double.POSITIVE_INFINITY)) continue;
+            if (b.volume(i) < limits.minVolume() || b.openInterest(i) < limits.minOpenInterest()) continue;
+            if (b.spreadPct(i) > limits.maxLegSpreadPct()) continue;
+            key[i] = (b.symbolCode(i) * b.expiryCount() + b.expiryCode(i)) * 2 + (b.isCall(i) ? 1 : 0);
+            count[key[i] + 1]++;
+            n++;
+        }
+        for (int k = 0; k < keys; k++) count[k + 1] += count[k];
+        int[] out = new int[n];
+        for (int i = 0; i < b.size(); i++) if (key[i] >= 0) out[count[key[i]]++] = i;
+        for (int from = 0; from < n; ) {
+            int to = from + 1;
+            while (to < n && key[out[to]] == key[out[from]]) to++;
+            for (int j = from + 1; j < to; j++) {
+                int row = out[j];
+                double k = b.strike(row);
+                int at = j;
+                for (; at > from && b.strike(out[at - 1]) > k; at--) out[at] = out[at - 1];
+                out[at] = row;
+            }
+            from = to;
+        }
+        return out;
+    }
+
+    /** One symbol and expiry: parallel strike-sorted columns for its puts and calls. */
+    private static final class Group {
+        final int first;
+        final double spot, r, t;
+        final int multiplier;
+        final Side puts, calls;
+
+        Group(OptionChainBatch b, int[] legs, double[] model, int from, int mid, int to){
+            first = legs[from];
+            spot = b.spot(first); r = b.r(first); t = b.t(first); multiplier = b.multiplier(first);
+            puts = new Side(b, legs, model, from, mid);
+            calls = new Side(b, legs, model, mid, to);
+        }
+    }
+
+    private static final class Side {
+        final int[] row;
+        final double[] strike, bid, ask, iv, model;
+        final long[] liquidity;
+
+        Side(OptionChainBatch b, int[] legs, double[] legModel, int from, int to){
+            int n = to - from;
+            row = Arrays.copyOfRange(legs, from, to);
+            model = Arrays.copyOfRange(legModel, from, to);
+            strike = new double[n]; bid = new double[n]; ask = new double[n]; iv = new double[n];
+            liquidity = new long[n];
+            for (int j = 0; j < n; j++) {
+                int i = row[j];
+                strike[j] = b.strike(i); bid[j] = b.bid(i); ask[j] = b.ask(i); iv[j] = b.iv(i);
+                liquidity[j] = b.volume(i) + b.openInterest(i);
+            }
+        }
+
+        int size(){ return row.length; }
+    }
+
+    /** Black-Scholes value of every leg at its own iv, indexed like {@code legs}, in one {@link BatchGreeks} pass. */
+    private static double[] model(OptionChainBatch b, int[] legs){
+        int n = legs.length;
+        boolean[] call = new boolean[n];
+        double[] S = new double[n], K = new double[n], r = new double[n], sigma = new double[n], T = new double[n];
+        for (int j = 0; j < n; j++) {
+            int i = legs[j];
+            call[j] = b.isCall(i); S[j] = b.spot(i); K[j] = b.strike(i); r[j] = b.r(i); sigma[j] = b.iv(i); T[j] = b.t(i);
+        }
+        var out = new BatchGreeks.Out(n);
+        BatchGreeks.compute(call, S, K, r, sigma, T, 0, n, out);
+        return out.price;
+    }
+
+    /** {@code {from, firstCall, to}} ranges of {@code legs}, one per symbol and expiry. */
+    private static List<int[]> groups(OptionChainBatch b, int[] legs){
+        List<int[]> out = new ArrayList<>();
+        for (int from = 0; from < legs.length; ) {
+            int sym = b.symbolCode(legs[from]);
+            long exp = b.expiryEpochDay(legs[from]);
+            int mid = from, to = from;
+            while (to < legs.length && b.symbolCode(legs[to]) == sym && b.expiryEpochDay(legs[to]) == exp) {
+                if (!b.isCall(legs[to])) mid = to + 1;
+                to++;
+            }
+            out.add(new int[]{from, mid, to});
+            from = to;
+        }
+        return out;
+    }
+
+    private Best search(OptionChainBatch b, Group g, Set<StrategyType> types, int k){
+        Best best = new Best(k);
+        double lossCap = limits.maxLoss() / g.multiplier, maxWidth = limits.maxWidthPct() * g.spot;
+        boolean condor = types.contains(StrategyType.IRON_CONDOR);
+        SideTop putSpreads = condor ? new SideTop(limits.condorSide()) : null;
+        SideTop callSpreads = condor ? new SideTop(limits.condorSide()) : null;
+        Side P = g.puts, C = g.calls;
+
+        if (types.contains(StrategyType.BULL_CALL_DEBIT)) {
+            for (int lo = 0; lo < C.size(); lo++) for (int hi = lo + 1; hi < C.size(); hi++) {
+                double width = C.strike[hi] - C.strike[lo];
+                if (width > maxWidth) break;
+                double cost = C.ask[lo] - C.bid[hi];
+                if (!(width > 0 && cost > 0 && cost < width && cost <= lossCap)) continue;
+                double be = C.strike[lo] + cost;
+                double pop = above(g, be, (C.iv[lo] + C.iv[hi]) / 2);
+                double edge = C.model[lo] - C.model[hi] - cost;
+                offer(b, g, best, StrategyType.BULL_CALL_DEBIT, -cost, width - cost, cost, be, Double.NaN, pop, edge,
+                    Math.min(C.liquidity[lo], C.liquidity[hi]), C.row[lo], 1, C.model[lo], C.row[hi], -1, C.model[hi]);
+            }
+        }
+        if (types.contains(StrategyType.BEAR_PUT_DEBIT)) {
+            for (int hi = P.size() - 1; hi > 0; hi--) for (int lo = hi - 1; lo >= 0; lo--) {
+                double width = P.strike[hi] - P.strike[lo];
+                if (width > maxWidth) break;
+                double cost = P.ask[hi] - P.bid[lo];
+                if (!(width > 0 && cost > 0 && cost < width && cost <= lossCap)) continue;
+                double be = P.strike[hi] - cost;
+                double pop = 1 - above(g, be, (P.iv[lo] + P.iv[hi]) / 2);
+                double edge = P.model[hi] - P.model[lo] - cost;
+                offer(b, g, best, StrategyType.BEAR_PUT_DEBIT, -cost, width - cost, cost, be, Double.NaN, pop, edge,
+                    Math.min(P.liquidity[lo], P.liquidity[hi]), P.row[hi], 1, P.model[hi], P.row[lo], -1, P.model[lo]);
+            }
+        }
+        boolean bullPut = types.contains(StrategyType.BULL_PUT_CREDIT);
+        if (bullPut || condor) {
+            for (int sh = P.size() - 1; sh > 0; sh--) for (int lg = sh - 1; lg >= 0; lg--) {
+                double width = P.strike[sh] - P.strike[lg];
+                if (width > maxWidth || width - P.bid[sh] > lossCap) break; // the loss can only grow from here
+                double credit = P.bid[sh] - P.ask[lg];
+                if (!(width > 0 && credit > 0 && credit >= limits.minCreditPct() * width && width - credit <= lossCap)) continue;
+                if (condor && P.strike[sh] < g.spot) putSpreads.offer(sh, lg, credit, width);
+                if (!bullPut) continue;
+                double be = P.strike[sh] - credit;
+                double pop = above(g, be, (P.iv[sh] + P.iv[lg]) / 2);
+                double edge = credit - (P.model[sh] - P.model[lg]);
+                offer(b, g, best, StrategyType.BULL_PUT_CREDIT, credit, credit, width - credit, be, Double.NaN, pop, edge,
+                    Math.min(P.liquidity[sh], P.liquidity[lg]), P.row[sh], -1, P.model[sh], P.row[lg], 1, P.model[lg]);
+            }
+        }
+        boolean bearCall = types.contains(StrategyType.BEAR_CALL_CREDIT);
+        if (bearCall || condor) {
+            for (int sh = 0; sh < C.size(); sh++) for (int lg = sh + 1; lg < C.size(); lg++) {
+                double width = C.strike[lg] - C.strike[sh];
+                if (width > maxWidth || width - C.bid[sh] > lossCap) break;
+                double credit = C.bid[sh] - C.ask[lg];
+                if (!(width > 0 && credit > 0 && credit >= limits.minCreditPct() * width && width - credit <= lossCap)) continue;
+                if (condor && C.strike[sh] > g.spot) callSpreads.offer(sh, lg, credit, width);
+                if (!bearCall) continue;
+                double be = C.strike[sh] + credit;
+                double pop = 1 - above(g, be, (C.iv[sh] + C.iv[lg]) / 2);
+                double edge = credit - (C.model[sh] - C.model[lg]);
+                offer(b, g, best, StrategyType.BEAR_CALL_CREDIT, credit, credit, width - credit, be, Double.NaN, pop, edge,
+                    Math.min(C.liquidity[sh], C.liquidity[lg]), C.row[sh], -1, C.model[sh], C.row[lg], 1, C.model[lg]);
+            }
+        }
+        if (condor) {
+            for (int p = 0; p < putSpreads.size; p++) for (int c = 0; c < callSpreads.size; c++) {
+                int ps = putSpreads.shortLeg[p], pl = putSpreads.longLeg[p];
+                int cs = callSpreads.shortLeg[c], cl = callSpreads.longLeg[c];
+                if (P.strike[ps] >= C.strike[cs]) continue;
+                double credit = putSpreads.credit[p] + callSpreads.credit[c];
+                double loss = Math.max(putSpreads.width[p], callSpreads.width[c]) - credit;
+                if (!(loss > 0 && loss <= lossCap)) continue;
+                double beLow = P.strike[ps] - credit, beHigh = C.strike[cs] + credit;
+                if (beLow >= beHigh) continue;
+                double sigma = (P.iv[ps] + P.iv[pl] + C.iv[cs] + C.iv[cl]) / 4;
+                double pop = above(g, beLow, sigma) - above(g, beHigh, sigma);
+                double edge = credit - (P.model[ps] - P.model[pl] + C.model[cs] - C.model[cl]);
+                long liq = Math.min(Math.min(P.liquidity[ps], P.liquidity[pl]), Math.min(C.liquidity[cs], C.liquidity[cl]));
+                double m = g.multiplier;
+                double score = ranker.score(credit*m, loss*m, pop, edge*m, liq);
+                best.candidates++;
+                if (!best.wants(score)) continue;
+                best.add(new Strategy(StrategyType.IRON_CONDOR, b.symbol(g.first), LocalDate.ofEpochDay(b.expiryEpochDay(g.first)),
+                    List.of(leg(b, P.row[pl], 1, P.model[pl]), leg(b, P.row[ps], -1, P.model[ps]),
+                            leg(b, C.row[cs], -1, C.model[cs]), leg(b, C.row[cl], 1, C.model[cl])),
+                    credit*m, credit*m, loss*m, beLow, beHigh, pop, edge*m, score));
+            }
+        }
+        return best;
+    }
+
+    /** Scores a two-leg candidate (per-share inputs) and builds it only if it makes the group's top-K. */
+    private void offer(OptionChainBatch b, Group g, Best best, StrategyType type, double netCredit, double maxProfit,
+                       double maxLoss, double be, double beHigh, double pop, double edge, long liquidity,
+                       int row1, int qty1, double model1, int row2, int qty2, double model2){
+        double m = g.multiplier;
+        double score = ranker.score(maxProfit*m, maxLoss*m, pop, edge*m, liquidity);
+        best.candidates++;
+        if (!best.wants(score)) return;
+        best.add(new Strategy(type, b.symbol(g.first), LocalDate.ofEpochDay(b.expiryEpochDay(g.first)),
+            List.of(leg(b, row1, qty1, model1), leg(b, row2, qty2, model2)),
+            netCredit*m, maxProfit*m, maxLoss*m, be, beHigh, pop, edge*m, score));
+    }
+
+    private static Strategy.Leg leg(OptionChainBatch b, int row, int qty, double model){
+        return new Strategy.Leg(b.contract(row), b.quote(row), qty, model);
+    }
+
+    /** Risk-neutral probability that spot finishes above {@code level}. */
+    private static double above(Group g, double level, double sigma){
+        if (!(level > 0)) return 1.0;
+        double d1 = BlackScholes.d1(g.spot, level, g.r, sigma, g.t);
+        return Normal.cdf(BlackScholes.d2(d1, sigma, g.t));
+    }
+
+    /** Bounded min-heap of built strategies. */
+    private static final class Best {
+        final int k;
+        final PriorityQueue<Strategy> heap;
+        long candidates;
+
+        Best(int k){
+            this.k = k;
+            this.heap = new PriorityQueue<>(Math.min(k, 1024) + 1, BY_SCORE);
+        }
+
+        boolean wants(double score){ return heap.size() < k || score > heap.peek().score(); }
+
+        void add(Strategy s){
+            heap.add(s);
+            if (heap.size() > k) heap.poll();
+        }
+
+        void merge(Best other){
+            for (var s : other.heap) if (wants(s.score())) add(s);
+            candidates += other.candidates;
+        }
+
+        List<Strategy> sorted(){
+            var out = new ArrayList<>(heap);
+            out.sort(BY_SCORE.reversed());
+            return out;
+        }
+    }
+
+    /** The {@code m} best credit spreads of one side by credit over max loss, as side indices; replace-the-worst. */
+    private static final class SideTop {
+        final int[] shortLeg, longLeg;
+        final double[] credit, width, rank;
+        int size;
+
+        SideTop(int m){
+            shortLeg = new int[m]; longLeg = new int[m];
+            credit = new double[m]; width = new double[m]; rank = new double[m];
+        }
+
+        void offer(int sh, int lg, double cr, double w){
+            if (rank.length == 0) return;
+            double r = cr / (w - cr);
+            int at = size;
+            if (size == rank.length) {
+                at = 0;
+                for (int i = 1; i < size; i++) if (rank[i] < rank[at]) at = i;
+                if (r <= rank[at]) return;
+            } else {
+                size++;
+            }
+            shortLeg[at] = sh; longLeg[at] = lg; credit[at] = cr; width[at] = w; rank[at] = r;
+        }
+    }
+}
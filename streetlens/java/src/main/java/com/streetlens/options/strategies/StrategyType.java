@@ -0,0 +1,20 @@
+package com.streetlens.options.strategies;
+
+/** Multi-leg structures {@link StrategySearch} builds; all legs share one symbol and expiry. */
+public enum StrategyType {
+    /** Long call, short higher-strike call; paid for. */
+    BULL_CALL_DEBIT(false),
+    /** Long put, short lower-strike put; paid for. */
+    BEAR_PUT_DEBIT(false),
+    /** Short put, long lower-strike put; collects a credit. */
+    BULL_PUT_CREDIT(true),
+    /** Short call, long higher-strike call; collects a credit. */
+    BEAR_CALL_CREDIT(true),
+    /** A bull put credit spread below a bear call credit spread. */
+    IRON_CONDOR(true);
+
+    private final boolean credit;
+    StrategyType(boolean credit){ this.credit = credit; }
+
+    public boolean credit(){ return credit; }
+}
@@ -0,0 +1,400 @@
+package com.streetlens.options.streaming;
+
+import com.streetlens.options.domain.*;
+import com.streetlens.options.ingestion.MarketDataSource;
+import com.streetlens.options.ranking.Ranker;
+import com.streetlens.options.screening.EvalContext;
+import com.streetlens.options.screening.ScreenRule;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * A screen that stays current as quotes change. Contracts are keyed by {@link ContractKey}; an
+ * incoming quote that equals the stored one is skipped, so the rule and ranker only run on
+ * contracts that were added or actually changed. Accepted contracts sit in score-ordered sets
+ * (one global, one per symbol), and after every update the affected top-K lists are compared
+ * with the previous ones; {@link Listener}s hear only about lists that changed. As in
+ * {@code ScreeningEngine}, a row whose rule or score throws is counted in {@link #failedRows()}
+ * and left unranked; the update goes on.
+ *
+ * <p>Updates are serialized on this object. Their notifications are queued in update order
+ * while the state lock is held and delivered after it is released, by whichever updating thread
+ * finds no delivery under way; a concurrent update only queues its own and returns. Listeners
+ * therefore never run under the state lock and may call {@link #top()} or even update the screen
+ * themselves, but they hold up the delivering thread and should hand slow work off.
+ */
+public final class LiveScreen implements AutoCloseable {
+    /** Row-level outcome of one update: how many rows came in and what happened to them. */
+    public record Update(int rows, int added, int changed, int removed, int unchanged) {
+        public int rescored(){ return added + changed; }
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        /** {@code symbol} is {@code null} for the global list; {@code top} is highest score first. */
+        void topChanged(String symbol, List<Ranker.Scored> top);
+    }
+
+    /** Only entries with a real score are ranked: a {@code NaN} would sort above everything, so it is never added. */
+    private static final Comparator<Entry> RANK = Comparator.comparingDouble((Entry e) -> e.score).reversed()
+        .thenComparing(e -> e.key);
+
+    private static final class Entry {
+        final ContractKey key;
+        OptionContract contract;
+        Quote quote;
+        boolean accepted;
+        double score;
+        long seen;
+
+        Entry(ContractKey key){ this.key = key; }
+
+        Ranker.Scored scored(){ return new Ranker.Scored(contract, quote, score); }
+    }
+
+    private final ScreenRule rule;
+    private final Ranker ranker;
+    private final int k;
+    private final EvalContext ctx = new EvalContext();
+    private final Map<String, Map<ContractKey, Entry>> bySymbol = new HashMap<>();
+    private final NavigableSet<Entry> ranked = new TreeSet<>(RANK);
+    private final Map<String, NavigableSet<Entry>> rankedBySymbol = new HashMap<>();
+    private List<Ranker.Scored> lastGlobal = List.of();
+    private final Map<String, List<Ranker.Scored>> lastBySymbol = new HashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    /** Notifications not yet delivered; appended only under the state lock, so in update order. */
+    private final Queue<Runnable> outbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean delivering = new AtomicBoolean();
+    private ScheduledExecutorService poller;
+    private long generation;
+    private long failed;
+    /** Entry for each row of the last {@link #replace}d batch, so the next one can match rows by position first. */
+    private Entry[] byRow = new Entry[0];
+
+    public LiveScreen(ScreenRule rule, Ranker ranker, int k){
+        if (k < 1) throw new IllegalArgumentException("k must be >= 1: " + k);
+        this.rule = Objects.requireNonNull(rule);
+        this.ranker = Objects.requireNonNull(ranker);
+        this.k = k;
+    }
+
+    public int k(){ return k; }
+
+    /** Replaces one symbol's chain: rows not in {@code s} are dropped. */
+    public Update apply(MarketSnapshot s){
+        Update u;
+        List<Runnable> events;
+        synchronized (this) {
+            var book = bySymbol.computeIfAbsent(s.symbol(), x -> new HashMap<>());
+            Set<ContractKey> seen = new HashSet<>(Math.max(16, s.chain().size() * 2));
+            int[] counts = new int[3];
+            for (int i = 0; i < s.chain().size(); i++) {
+                OptionContract c = s.chain().get(i);
+                ContractKey key = ContractKey.of(c);
+                seen.add(key);
+                counts[upsert(book, key, c, s.quotes().get(i))]++;
+            }
+            int removed = 0;
+            for (var it = book.values().iterator(); it.hasNext(); ) {
+                Entry e = it.next();
+                if (seen.contains(e.key)) continue;
+                unrank(e);
+                it.remove();
+                removed++;
+            }
+            if (book.isEmpty()) bySymbol.remove(s.symbol());
+            byRow = new Entry[0];
+            u = new Update(s.chain().size(), counts[ADDED], counts[CHANGED], removed, counts[UNCHANGED]);
+            events = diffTops(Set.of(s.symbol()));
+            outbox.addAll(events);
+        }
+        deliver();
+        return u;
+    }
+
+    /**
+     * Replaces everything with {@code batch}, across all symbols: contracts missing from it are
+     * dropped. Rows are compared column by column with the stored quote. Each row is first matched
+     * by position against the previous batch, so when successive snapshots list contracts in the
+     * same order (one file re-pulled) an unchanged row allocates nothing and skips the hash
+     * lookup; only rows that moved build a {@link ContractKey}. A contract listed more than once
+     * keeps its first row; the repeats are not counted in the returned {@code Update}.
+     */
+    public Update replace(OptionChainBatch batch){
+        int[] counts = new int[3];
+        int removed = 0;
+        List<Runnable> events;
+        synchronized (this) {
+            long gen = ++generation;
+            Set<String> touched = new HashSet<>(bySymbol.keySet());
+            Map<ContractKey, Entry> book = null;
+            int bookCode = -1;
+            Entry[] prev = byRow, rows = new Entry[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                if (batch.symbolCode(i) != bookCode) {
+                    bookCode = batch.symbolCode(i);
+                    book = bySymbol.computeIfAbsent(batch.symbolOf(bookCode), x -> new HashMap<>());
+                    touched.add(batch.symbolOf(bookCode));
+                }
+                Entry e = i < prev.length ? prev[i] : null;
+                ContractKey key;
+                if (e != null && sameContract(e.key, batch, i)) {
+                    key = e.key;
+                } else {
+                    key = ContractKey.of(batch, i);
+                    e = book.get(key);
+                }
+                if (e != null && e.seen == gen) continue; // listed twice: the first row stands
+                if (e != null && same(e, batch, i)) {
+                    counts[UNCHANGED]++;
+                } else {
+                    counts[upsert(book, key, batch.contract(i), batch.quote(i))]++;
+                    if (e == null) e = book.get(key);
+                }
+                e.seen = gen;
+                rows[i] = e;
+            }
+            byRow = rows;
+            for (var books = bySymbol.values().iterator(); books.hasNext(); ) {
+                var b = books.next();
+                for (var it = b.values().iterator(); it.hasNext(); ) {
+                    Entry e = it.next();
+                    if (e.seen == gen) continue;
+                    unrank(e);
+                    it.remove();
+                    removed++;
+                }
+                if (b.isEmpty()) books.remove();
+            }
+            events = diffTops(touched);
+            outbox.addAll(events);
+        }
+        deliver();
+        return new Update(batch.size(), counts[ADDED], counts[CHANGED], removed, counts[UNCHANGED]);
+    }
+
+    /** Applies individual quote updates; contracts not mentioned are left as they are. */
+    public Update update(Collection<Map.Entry<OptionContract, Quote>> quotes){
+        int[] counts = new int[3];
+        List<Runnable> events;
+        synchronized (this) {
+            Set<String> touched = new HashSet<>();
+            for (var q : quotes) {
+                OptionContract c = q.getKey();
+                var book = bySymbol.computeIfAbsent(c.symbol(), x -> new HashMap<>());
+                counts[upsert(book, ContractKey.of(c), c, q.getValue())]++;
+                touched.add(c.symbol());
+            }
+            events = diffTops(touched);
+            outbox.addAll(events);
+        }
+        deliver();
+        return new Update(quotes.size(), counts[ADDED], counts[CHANGED], 0, counts[UNCHANGED]);
+    }
+
+    /** Drops contracts, e.g. after expiry or delisting; unknown keys are ignored. */
+    public Update remove(Collection<ContractKey> keys){
+        int removed = 0;
+        List<Runnable> events;
+        synchronized (this) {
+            Set<String> touched = new HashSet<>();
+            for (var key : keys) {
+                var book = bySymbol.get(key.symbol());
+                Entry e = book == null ? null : book.remove(key);
+                if (e == null) continue;
+                unrank(e);
+                if (book.isEmpty()) bySymbol.remove(key.symbol());
+                touched.add(key.symbol());
+                removed++;
+            }
+            if (removed > 0) byRow = new Entry[0];
+            events = diffTops(touched);
+            outbox.addAll(events);
+        }
+        deliver();
+        return new Update(keys.size(), 0, 0, removed, 0);
+    }
+
+    /** Current global top-K, highest score first. */
+    public synchronized List<Ranker.Scored> top(){ return lastGlobal; }
+
+    /** Current top-K for one symbol; empty if nothing of it passes the screen. */
+    public synchronized List<Ranker.Scored> top(String symbol){ return lastBySymbol.getOrDefault(symbol, List.of()); }
+
+    /** Contracts currently held, accepted or not. */
+    public synchronized int size(){
+        int n = 0;
+        for (var book : bySymbol.values()) n += book.size();
+        return n;
+    }
+
+    public synchronized int accepted(){ return ranked.size(); }
+
+    /** Rows screened so far whose rule or score threw; they are held but not ranked. */
+    public synchronized long failedRows(){ return failed; }
+
+    /** Rough heap held for the current contracts: entry, key, contract, quote, map and set nodes. */
+    public synchronized long estimatedBytes(){ return (long) size() * ENTRY_BYTES + 8L * byRow.length; }
+
+    /** Registers {@code l}; the returned handle unsubscribes it. */
+    public Runnable subscribe(Listener l){
+        listeners.add(l);
+        return () -> listeners.remove(l);
+    }
+
+    /**
+     * Polls {@code source} every {@code periodMillis} on a daemon thread and {@link #apply}s each
+     * snapshot it returns; a symbol it stops listing keeps its last chain.
+     */
+    public synchronized void start(MarketDataSource source, long periodMillis){
+        poll(() -> { for (var s : source.latest()) apply(s); }, periodMillis);
+    }
+
+    /**
+     * Same for a source of whole-market batches ({@code null} when nothing is new): each one
+     * {@link #replace}s everything, so symbols missing from it are dropped.
+     */
+    public synchronized void startSnapshots(Supplier<OptionChainBatch> source, long periodMillis){
+        poll(() -> {
+            var batch = source.get();
+            if (batch != null) replace(batch);
+        }, periodMillis);
+    }
+
+    private void poll(Runnable step, long periodMillis){
+        if (poller != null) throw new IllegalStateException("already started");
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "live-screen");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(() -> {
+            try {
+                step.run();
+            } catch (RuntimeException e) {
+                System.err.println("live screen poll failed: " + e);
+            }
+        }, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override public synchronized void close(){
+        if (poller != null) poller.shutdownNow();
+    }
+
+    private static final int UNCHANGED = 0, ADDED = 1, CHANGED = 2;
+    private static final int ENTRY_BYTES = 320;
+
+    private int upsert(Map<ContractKey, Entry> book, ContractKey key, OptionContract c, Quote q){
+        Entry e = book.get(key);
+        int result;
+        if (e == null) {
+            e = new Entry(key);
+            book.put(key, e);
+            result = ADDED;
+        } else if (e.quote.equals(q) && e.contract.equals(c)) {
+            return UNCHANGED;
+        } else {
+            unrank(e);
+            result = CHANGED;
+        }
+        e.contract = c;
+        e.quote = q;
+        try {
+            e.accepted = rule.accept(ctx.reset(c, q));
+            e.score = e.accepted ? ranker.score(ctx) : Double.NaN;
+        } catch (RuntimeException ex) {
+            e.accepted = false; // held but unranked until a later quote screens cleanly
+            e.score = Double.NaN;
+            failed++;
+        }
+        if (e.accepted && Double.isNaN(e.score)) e.accepted = false; // unrankable, as in IndexTopK
+        if (e.accepted) {
+            ranked.add(e);
+            rankedBySymbol.computeIfAbsent(key.symbol(), x -> new TreeSet<>(RANK)).add(e);
+        }
+        return result;
+    }
+
+    /** Row {@code i} of {@code b} is the contract {@code key}, compared without building a key. */
+    private static boolean sameContract(ContractKey key, OptionChainBatch b, int i){
+        return Double.compare(key.strike(), b.strike(i)) == 0 && key.expiryEpochDay() == b.expiryEpochDay(i)
+            && key.type() == b.type(i) && key.symbol().equals(b.symbol(i));
+    }
+
+    /** Row {@code i} of {@code b} carries the same contract terms and quote as {@code e}; doubles compare as in record equality. */
+    private static boolean same(Entry e, OptionChainBatch b, int i){
+        Quote q = e.quote;
+        return e.contract.multiplier() == b.multiplier(i)
+            && Double.compare(q.bid(), b.bid(i)) == 0 && Double.compare(q.ask(), b.ask(i)) == 0
+            && q.volume() == b.volume(i) && q.openInterest() == b.openInterest(i)
+            && Double.compare(q.spot(), b.spot(i)) == 0 && Double.compare(q.iv(), b.iv(i)) == 0
+            && Double.compare(q.r(), b.r(i)) == 0 && Double.compare(q.t(), b.t(i)) == 0;
+    }
+
+    private void unrank(Entry e){
+        if (!e.accepted) return;
+        ranked.remove(e);
+        var set = rankedBySymbol.get(e.key.symbol());
+        set.remove(e);
+        if (set.isEmpty()) rankedBySymbol.remove(e.key.symbol());
+    }
+
+    /** Recomputes the affected lists and returns one notification per list that changed. */
+    private List<Runnable> diffTops(Set<String> symbols){
+        List<Runnable> events = new ArrayList<>();
+        for (String symbol : symbols) {
+            var cur = head(rankedBySymbol.get(symbol));
+            if (cur.equals(lastBySymbol.getOrDefault(symbol, List.of()))) continue;
+            if (cur.isEmpty()) lastBySymbol.remove(symbol); else lastBySymbol.put(symbol, cur);
+            events.add(() -> notify(symbol, cur));
+        }
+        var global = head(ranked);
+        if (!global.equals(lastGlobal)) {
+            lastGlobal = global;
+            events.add(() -> notify(null, global));
+        }
+        return events;
+    }
+
+    private List<Ranker.Scored> head(NavigableSet<Entry> set){
+        if (set == null || set.isEmpty()) return List.of();
+        List<Ranker.Scored> out = new ArrayList<>(Math.min(k, set.size()));
+        for (Entry e : set) {
+            if (out.size() == k) break;
+            out.add(e.scored());
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    private void notify(String symbol, List<Ranker.Scored> top){
+        for (var l : listeners) {
+            try {
+                l.topChanged(symbol, top);
+            } catch (RuntimeException e) {
+                System.err.println("live screen listener failed: " + e);
+            }
+        }
+    }
+
+    /**
+     * Drains {@link #outbox} unless another thread already is. Called with the state lock
+     * released; never waits, so a listener reading or updating the screen cannot deadlock it.
+     * The re-check after letting go catches events queued just before.
+     */
+    private void deliver(){
+        while (!outbox.isEmpty() && delivering.compareAndSet(false, true)) {
+            try {
+                for (Runnable r; (r = outbox.poll()) != null; ) r.run();
+            } finally {
+                delivering.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.streetlens.options.streaming;
+
+import com.streetlens.options.domain.ContractKey;
+import com.streetlens.options.domain.OptionChainBatch;
+import com.streetlens.options.ranking.Ranker;
+import com.streetlens.options.screening.ScreenRule;
+
+import java.util.*;
+
+/**
+ * Screens successive full chain snapshots (e.g. one CSV pulled every minute) against the
+ * previous one. Rows are matched by {@link ContractKey}; only added or changed quotes go through
+ * the rule and ranker, and contracts missing from the new snapshot are dropped (see
+ * {@link LiveScreen#replace}). Each call returns the updated top-K plus what changed.
+ * The first snapshot is screened in full and reports every row as added.
+ */
+public final class SnapshotDiff {
+    /**
+     * {@code rows} is the row-level delta; {@code entered} are contracts now in the top-K that were
+     * not before, {@code left} those that dropped out of it.
+     */
+    public record Result(List<Ranker.Scored> top, LiveScreen.Update rows,
+                         List<Ranker.Scored> entered, List<ContractKey> left, long nanos) {}
+
+    private final LiveScreen screen;
+    private volatile long bytes;
+
+    public SnapshotDiff(ScreenRule rule, Ranker ranker, int k){
+        this.screen = new LiveScreen(rule, ranker, k);
+    }
+
+    public int k(){ return screen.k(); }
+
+    /** {@link LiveScreen#estimatedBytes()} of the baseline as of the last {@link #next}; does not wait for one in progress. */
+    public long estimatedBytes(){ return bytes; }
+
+    /** Diffs {@code batch} against the previous snapshot and makes it the new baseline. */
+    public synchronized Result next(OptionChainBatch batch){
+        long t0 = System.nanoTime();
+        var before = screen.top();
+        var rows = screen.replace(batch);
+        var after = screen.top();
+        bytes = screen.estimatedBytes();
+        if (after == before) return new Result(after, rows, List.of(), List.of(), System.nanoTime() - t0);
+
+        Set<ContractKey> was = new HashSet<>(), is = new HashSet<>();
+        for (var s : before) was.add(ContractKey.of(s.contract()));
+        List<Ranker.Scored> entered = new ArrayList<>();
+        for (var s : after) {
+            ContractKey key = ContractKey.of(s.contract());
+            is.add(key);
+            if (!was.contains(key)) entered.add(s);
+        }
+        List<ContractKey> left = new ArrayList<>();
+        for (var key : was) if (!is.contains(key)) left.add(key);
+        Collections.sort(left);
+        return new Result(after, rows, entered, left, System.nanoTime() - t0);
+    }
+}
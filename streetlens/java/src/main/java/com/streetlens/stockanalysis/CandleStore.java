@@ -0,0 +1,212 @@
+package com.streetlens.stockanalysis;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Columnar binary candle file, memory-mapped. Layout (little-endian):
+ * <pre>
+ *   header (64 bytes): magic "SLCANDL1", int version, int time unit, long count, long capacity
+ *   time[capacity] long | open[capacity] double | high | low | close | volume[capacity] long
+ * </pre>
+ * Each column is contiguous, so {@link #closes()} etc. are plain views over the mapping and
+ * reading never creates candle objects. Columns are pre-sized to {@code capacity}; appends fill
+ * the spare slots, and when they run out the same file is remapped at double the capacity and the
+ * columns are moved apart in place (no rename, which a live mapping would block on Windows). The
+ * count in the header is written after the row, so a torn append is simply not visible; a crash
+ * in the middle of a grow, though, can leave the file unreadable.
+ * One writer at a time; a file is limited to about 44 million candles (one 2 GiB mapping).
+ */
+public final class CandleStore implements AutoCloseable {
+    public enum TimeKey { EPOCH_DAY, EPOCH_SECOND }
+
+    public static final String EXTENSION = ".candles";
+
+    private static final long MAGIC = 0x314C444E41434C53L; // "SLCANDL1" little-endian
+    private static final int VERSION = 1;
+    private static final int HEADER = 64;
+    private static final int COLUMNS = 6;
+    private static final int OFF_COUNT = 16, OFF_CAPACITY = 24;
+    private static final int TIME = 0, OPEN = 1, HIGH = 2, LOW = 3, CLOSE = 4, VOLUME = 5;
+
+    private final Path file;
+    private final boolean writable;
+    private final TimeKey unit;
+    private FileChannel channel;
+    private MappedByteBuffer buf;
+    private int count, capacity;
+
+    private CandleStore(Path file, boolean writable) throws IOException {
+        this.file = file;
+        this.writable = writable;
+        map();
+        try {
+            if (buf.capacity() < HEADER || buf.getLong(0) != MAGIC) throw new IOException("not a candle store: " + file);
+            if (buf.getInt(8) != VERSION) throw new IOException("unsupported candle store version " + buf.getInt(8) + ": " + file);
+            int key = buf.getInt(12);
+            if (key < 0 || key >= TimeKey.values().length) throw new IOException("corrupt candle store header (time key " + key + "): " + file);
+            long cap = buf.getLong(OFF_CAPACITY), n = buf.getLong(OFF_COUNT);
+            if (cap < 0 || n < 0 || n > cap || HEADER + cap * COLUMNS * Long.BYTES > buf.capacity())
+                throw new IOException("corrupt candle store header (count " + n + ", capacity " + cap + "): " + file);
+            this.unit = TimeKey.values()[key];
+            this.count = (int) n;
+            this.capacity = (int) cap;
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    public static CandleStore create(Path file, TimeKey unit, int capacity) throws IOException {
+        writeEmpty(file, unit, Math.max(16, capacity));
+        return new CandleStore(file, true);
+    }
+
+    public static CandleStore open(Path file) throws IOException { return new CandleStore(file, false); }
+
+    public static CandleStore openForAppend(Path file) throws IOException { return new CandleStore(file, true); }
+
+    /** One-time conversion of a {@link CsvLoader} file into a day-resolution store. */
+    public static CandleStore convertCsv(Path csv, Path out) throws IOException {
+        List<StockCandle> candles = CsvLoader.load(csv);
+        CandleStore store = create(out, TimeKey.EPOCH_DAY, candles.size());
+        for (var c : candles) store.append(c);
+        return store;
+    }
+
+    public int size(){ return count; }
+    public TimeKey unit(){ return unit; }
+
+    public long time(int i){ return buf.getLong(row(TIME, i)); }
+    public double open(int i){ return buf.getDouble(row(OPEN, i)); }
+    public double high(int i){ return buf.getDouble(row(HIGH, i)); }
+    public double low(int i){ return buf.getDouble(row(LOW, i)); }
+    public double close(int i){ return buf.getDouble(row(CLOSE, i)); }
+    public long volume(int i){ return buf.getLong(row(VOLUME, i)); }
+
+    public LongBuffer times(){ return longs(TIME); }
+    public DoubleBuffer opens(){ return doubles(OPEN); }
+    public DoubleBuffer highs(){ return doubles(HIGH); }
+    public DoubleBuffer lows(){ return doubles(LOW); }
+    public DoubleBuffer closes(){ return doubles(CLOSE); }
+    public LongBuffer volumes(){ return longs(VOLUME); }
+
+    /** Copies the close column into {@code out} (reused when large enough), e.g. for {@link IndicatorSeries}. */
+    public double[] closes(double[] out){
+        if (out == null || out.length < count) out = new double[count];
+        closes().get(out, 0, count);
+        return out;
+    }
+
+    public StockCandle candle(int i){
+        long t = time(i);
+        LocalDate d = unit == TimeKey.EPOCH_DAY ? LocalDate.ofEpochDay(t) : LocalDate.ofInstant(Instant.ofEpochSecond(t), ZoneOffset.UTC);
+        return new StockCandle(d, open(i), high(i), low(i), close(i), volume(i));
+    }
+
+    public List<StockCandle> toCandles(){
+        List<StockCandle> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) out.add(candle(i));
+        return out;
+    }
+
+    public void append(StockCandle c) throws IOException {
+        if (unit != TimeKey.EPOCH_DAY) throw new IllegalStateException("store is " + unit + "; use append(long, ...)");
+        append(c.date().toEpochDay(), c.open(), c.high(), c.low(), c.close(), c.volume());
+    }
+
+    /** Appends one candle; {@code time} is in this store's {@link #unit()} and must not go backwards. */
+    public void append(long time, double open, double high, double low, double close, long volume) throws IOException {
+        if (!writable) throw new IllegalStateException("opened read-only: " + file);
+        if (count > 0 && time < time(count - 1)) throw new IllegalArgumentException("time " + time + " before last " + time(count - 1));
+        if (count == capacity) grow();
+        int i = count;
+        buf.putLong(at(TIME, i), time);
+        buf.putDouble(at(OPEN, i), open);
+        buf.putDouble(at(HIGH, i), high);
+        buf.putDouble(at(LOW, i), low);
+        buf.putDouble(at(CLOSE, i), close);
+        buf.putLong(at(VOLUME, i), volume);
+        buf.putLong(OFF_COUNT, ++count);
+    }
+
+    @Override public void close() throws IOException {
+        if (writable && buf != null) buf.force();
+        buf = null;
+        if (channel != null) channel.close();
+    }
+
+    private int row(int column, int i){
+        if (i < 0 || i >= count) throw new IndexOutOfBoundsException(i);
+        return at(column, i);
+    }
+
+    private int at(int column, int i){ return HEADER + (column * capacity + i) * Long.BYTES; }
+
+    private DoubleBuffer doubles(int column){
+        return buf.slice(HEADER + column * capacity * Long.BYTES, count * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+    }
+
+    private LongBuffer longs(int column){
+        return buf.slice(HEADER + column * capacity * Long.BYTES, count * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+    }
+
+    private void map() throws IOException {
+        channel = writable
+            ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+            : FileChannel.open(file, StandardOpenOption.READ);
+        buf = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /** Doubles the column capacity in place: the file is remapped larger and the columns moved to their new offsets. */
+    private void grow() throws IOException {
+        long newCap = (long) capacity * 2;
+        long size = HEADER + newCap * COLUMNS * Long.BYTES;
+        if (size > Integer.MAX_VALUE) throw new IOException("candle store full: " + file);
+        buf.force();
+        buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, size); // extends the file; the old mapping is just dropped
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        // every column but the first moves to a higher offset: last column first, and each one tail first
+        byte[] chunk = new byte[Math.min(count * Long.BYTES, 1 << 20)];
+        for (int col = COLUMNS - 1; col > 0; col--) {
+            int from = HEADER + col * capacity * Long.BYTES, to = HEADER + (int) (col * newCap * Long.BYTES);
+            for (int end = count * Long.BYTES; end > 0; ) {
+                int len = Math.min(chunk.length, end);
+                end -= len;
+                buf.get(from + end, chunk, 0, len);
+                buf.put(to + end, chunk, 0, len);
+            }
+        }
+        buf.putLong(OFF_CAPACITY, newCap);
+        buf.force();
+        capacity = (int) newCap;
+    }
+
+    private static void writeEmpty(Path file, TimeKey unit, int capacity) throws IOException {
+        long size = HEADER + (long) capacity * COLUMNS * Long.BYTES;
+        if (size > Integer.MAX_VALUE) throw new IOException("capacity too large: " + capacity);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer b = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            b.order(ByteOrder.LITTLE_ENDIAN);
+            b.putLong(0, MAGIC);
+            b.putInt(8, VERSION);
+            b.putInt(12, unit.ordinal());
+            b.putLong(OFF_COUNT, 0);
+            b.putLong(OFF_CAPACITY, capacity);
+            b.force();
+        }
+    }
+}
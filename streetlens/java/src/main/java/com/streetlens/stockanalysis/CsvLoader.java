@@ -30,9 +30,8 @@ public final class CsvLoader {
                 String[] t = line.split(",", -1);
                 if (t.length < 6) continue;
                 String ds = t[0].trim();
-                LocalDate d;
-                try { d = LocalDate.parse(ds, f1); }
-                catch (Exception e) { d = LocalDate.parse(ds, f2); }
+                // pick the format up front rather than parsing twice via an exception per row
+                LocalDate d = LocalDate.parse(ds, ds.indexOf('-') > 0 ? f1 : f2);
                 double open = parseDouble(t[1]);
                 double high = parseDouble(t[2]);
                 double low  = parseDouble(t[3]);
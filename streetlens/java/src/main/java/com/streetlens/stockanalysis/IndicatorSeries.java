@@ -0,0 +1,102 @@
+package com.streetlens.stockanalysis;
+
+/**
+ * Full indicator series over a primitive close array, one O(n) pass each. Every method writes
+ * {@code closes[0..n)}'s series into {@code out} (allocated when {@code null} or too short, so
+ * callers can keep and reuse a buffer) and returns it. Positions without enough history are NaN.
+ * For SMA and RSI the value at index {@code i} equals the {@link StockMetrics} function applied
+ * to the first {@code i + 1} closes. A period or window below 1 is an {@link IllegalArgumentException}.
+ */
+public final class IndicatorSeries {
+    private IndicatorSeries(){}
+
+    public static double[] sma(double[] closes, int n, int period, double[] out){
+        positive("period", period);
+        out = buffer(out, n);
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += closes[i];
+            if (i >= period) sum -= closes[i - period];
+            if (i >= period - 1 && (i + 1) % period == 0) {
+                // re-derive the window sum now and then so rounding drift does not build up
+                double s = 0;
+                for (int j = i - period + 1; j <= i; j++) s += closes[j];
+                sum = s;
+            }
+            out[i] = i >= period - 1 ? sum / period : Double.NaN;
+        }
+        return out;
+    }
+
+    /** EMA with {@code alpha = 2 / (period + 1)}, seeded with the SMA of the first {@code period} closes. */
+    public static double[] ema(double[] closes, int n, int period, double[] out){
+        positive("period", period);
+        out = buffer(out, n);
+        double alpha = 2.0 / (period + 1);
+        double e = 0;
+        for (int i = 0; i < n; i++) {
+            if (i < period - 1) { e += closes[i]; out[i] = Double.NaN; }
+            else if (i == period - 1) { e = (e + closes[i]) / period; out[i] = e; }
+            else { e += alpha * (closes[i] - e); out[i] = e; }
+        }
+        return out;
+    }
+
+    /** Wilder RSI, matching {@link StockMetrics#rsi} on each prefix. */
+    public static double[] rsi(double[] closes, int n, int period, double[] out){
+        positive("period", period);
+        out = buffer(out, n);
+        double gain = 0, loss = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0) { out[i] = Double.NaN; continue; }
+            double ch = closes[i] - closes[i-1];
+            if (i <= period) {
+                if (ch >= 0) gain += ch; else loss -= ch;
+                if (i < period) { out[i] = Double.NaN; continue; }
+                gain /= period; loss /= period;
+            } else {
+                gain = (gain*(period-1) + Math.max(0, ch)) / period;
+                loss = (loss*(period-1) + Math.max(0, -ch)) / period;
+            }
+            out[i] = loss == 0 ? 100.0 : 100.0 - (100.0 / (1.0 + gain / loss));
+        }
+        return out;
+    }
+
+    /**
+     * Annualized volatility of the last {@code window} simple returns ending at each index
+     * (population stdev times sqrt(252)); NaN until {@code window} returns exist.
+     */
+    public static double[] rollingVol(double[] closes, int n, int window, double[] out){
+        positive("window", window);
+        out = buffer(out, n);
+        double annualize = Math.sqrt(252.0);
+        double mean = 0, m2 = 0;
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0) { out[i] = Double.NaN; continue; }
+            double x = (closes[i] - closes[i-1]) / closes[i-1];
+            if (count < window) {
+                count++;
+                double d = x - mean;
+                mean += d / count;
+                m2 += d * (x - mean);
+            } else {
+                double old = (closes[i-window] - closes[i-window-1]) / closes[i-window-1];
+                double newMean = mean + (x - old) / window;
+                m2 = Math.max(0, m2 + (x - old) * (x - newMean + old - mean));
+                mean = newMean;
+            }
+            out[i] = count < window ? Double.NaN : Math.sqrt(m2 / window) * annualize;
+        }
+        return out;
+    }
+
+    private static void positive(String name, int value){
+        if (value < 1) throw new IllegalArgumentException(name + " must be >= 1: " + value);
+    }
+
+    private static double[] buffer(double[] out, int n){
+        return (out == null || out.length < n) ? new double[n] : out;
+    }
+}
@@ -0,0 +1,44 @@
+package com.streetlens.stockanalysis;
+
+/**
+ * Simple moving average over the last {@code period} closes, updated in O(1) per candle.
+ * Matches {@link StockMetrics#sma} over the same history to within rounding (NaN until
+ * {@code period} closes).
+ * The running sum is re-derived from the window every {@code period} updates to keep rounding
+ * drift from accumulating.
+ */
+public final class RollingSma {
+    private final int period;
+    private final double[] window;
+    private int count, head, sinceResum;
+    private double sum;
+
+    public RollingSma(int period){
+        if (period < 1) throw new IllegalArgumentException("period must be >= 1: " + period);
+        this.period = period;
+        this.window = new double[period];
+    }
+
+    public double update(StockCandle c){ return update(c.close()); }
+
+    public double update(double close){
+        if (count < period) {
+            window[count++] = close;
+            sum += close;
+        } else {
+            sum += close - window[head];
+            window[head] = close;
+            head = (head + 1) % period;
+            if (++sinceResum == period) {
+                sinceResum = 0;
+                double s = 0;
+                for (double v : window) s += v;
+                sum = s;
+            }
+        }
+        return value();
+    }
+
+    public double value(){ return count < period ? Double.NaN : sum / period; }
+    public int count(){ return count; }
+}
@@ -0,0 +1,63 @@
+package com.streetlens.stockanalysis;
+
+/**
+ * Annualized volatility of simple close-to-close returns, one candle at a time.
+ * With {@code window == 0} it is a Welford estimator over the whole history and agrees with
+ * {@code StockMetrics.annualizedVol(StockMetrics.simpleReturns(candles))} to within rounding; with a positive
+ * {@code window} it covers only the last {@code window} returns, using add/remove Welford updates
+ * on a ring buffer. Population variance in both cases, like {@link StockMetrics#stdev}.
+ */
+public final class RollingVolatility {
+    private static final double ANNUALIZE = Math.sqrt(252.0);
+
+    private final int window;
+    private final double[] ring;
+    private int head, n;
+    private double prevClose = Double.NaN;
+    private double mean, m2;
+
+    /** Whole-history estimator. */
+    public RollingVolatility(){ this(0); }
+
+    public RollingVolatility(int window){
+        if (window < 0) throw new IllegalArgumentException("window must be >= 0: " + window);
+        this.window = window;
+        this.ring = new double[window];
+    }
+
+    public double update(StockCandle c){ return update(c.close()); }
+
+    public double update(double close){
+        if (!Double.isNaN(prevClose)) addReturn((close - prevClose) / prevClose);
+        prevClose = close;
+        return value();
+    }
+
+    private void addReturn(double x){
+        if (window > 0 && n == window) {
+            double old = ring[head];
+            double newMean = mean + (x - old) / n;
+            m2 += (x - old) * (x - newMean + old - mean);
+            mean = newMean;
+            ring[head] = x;
+            head = (head + 1) % window;
+            if (m2 < 0) m2 = 0;
+            return;
+        }
+        if (window > 0) { ring[head] = x; head = (head + 1) % window; }
+        n++;
+        double d = x - mean;
+        mean += d / n;
+        m2 += d * (x - mean);
+    }
+
+    /** Daily standard deviation of returns; NaN before the first return. */
+    public double stdev(){ return n == 0 ? Double.NaN : Math.sqrt(m2 / n); }
+
+    public double value(){
+        double sd = stdev();
+        return Double.isNaN(sd) ? Double.NaN : sd * ANNUALIZE;
+    }
+
+    public int returns(){ return n; }
+}
@@ -61,4 +61,49 @@ public final class StockMetrics {
         double rs = gain / loss;
         return 100.0 - (100.0 / (1.0 + rs));
     }
+
+    /** Last {@code period}-close SMA of {@code closes[0..n)}; same as {@link #sma(List, int)}. */
+    public static double sma(double[] closes, int n, int period){
+        if (n < period) return Double.NaN;
+        double sum = 0;
+        for (int i = n-period; i < n; i++) sum += closes[i];
+        return sum / period;
+    }
+
+    /** Final Wilder RSI of {@code closes[0..n)}; same as {@link #rsi(List, int)}. */
+    public static double rsi(double[] closes, int n, int period){
+        if (n <= period) return Double.NaN;
+        double gain = 0, loss = 0;
+        for (int i = 1; i <= period; i++){
+            double ch = closes[i] - closes[i-1];
+            if (ch >= 0) gain += ch; else loss -= ch;
+        }
+        gain /= period; loss /= period;
+        for (int i = period+1; i < n; i++){
+            double ch = closes[i] - closes[i-1];
+            gain = (gain*(period-1) + Math.max(0, ch)) / period;
+            loss = (loss*(period-1) + Math.max(0, -ch)) / period;
+        }
+        if (loss == 0) return 100.0;
+        double rs = gain / loss;
+        return 100.0 - (100.0 / (1.0 + rs));
+    }
+
+    /** Annualized volatility of all simple returns in {@code closes[0..n)}, without boxing them. */
+    public static double annualizedVol(double[] closes, int n){
+        if (n < 2) return Double.NaN;
+        double mean = 0;
+        for (int i = 1; i < n; i++) mean += (closes[i] - closes[i-1]) / closes[i-1];
+        mean /= (n - 1);
+        double var = 0;
+        for (int i = 1; i < n; i++){ double d = (closes[i] - closes[i-1]) / closes[i-1] - mean; var += d*d; }
+        var /= (n - 1);
+        return Math.sqrt(var) * Math.sqrt(252.0);
+    }
+
+    public static double[] closes(List<StockCandle> candles){
+        double[] out = new double[candles.size()];
+        for (int i = 0; i < out.length; i++) out[i] = candles.get(i).close();
+        return out;
+    }
 }
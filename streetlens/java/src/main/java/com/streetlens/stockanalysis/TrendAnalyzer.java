@@ -1,10 +1,14 @@
 package com.streetlens.stockanalysis;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class TrendAnalyzer {
     public enum Trend { BULLISH, BEARISH, SIDEWAYS }
 
+    private static final int MIN_CANDLES = 60;
+
     public record Summary(
         String symbol,
         int nCandles,
@@ -15,7 +19,7 @@ public final class TrendAnalyzer {
     ){}
 
     public static Summary analyze(String symbol, List<StockCandle> candles){
-        if (candles == null || candles.size() < 60){
+        if (candles == null || candles.size() < MIN_CANDLES){
             return new Summary(symbol, candles==null?0:candles.size(), Double.NaN, Double.NaN, Double.NaN, Double.NaN, Trend.SIDEWAYS);
         }
         double sma20 = StockMetrics.sma(candles, 20);
@@ -24,12 +28,69 @@ public final class TrendAnalyzer {
         var rets = StockMetrics.simpleReturns(candles);
         double annVol = StockMetrics.annualizedVol(rets);
 
-        Trend t;
-        if (Double.isNaN(sma20) || Double.isNaN(sma50)) t = Trend.SIDEWAYS;
-        else if (sma20 > sma50 * 1.005) t = Trend.BULLISH;
-        else if (sma20 < sma50 * 0.995) t = Trend.BEARISH;
-        else t = Trend.SIDEWAYS;
+        return new Summary(symbol, candles.size(), sma20, sma50, rsi14, annVol, classify(sma20, sma50));
+    }
+
+    /** Same as {@link #analyze(String, List)} over {@code closes[0..n)}, without candle objects. */
+    public static Summary analyze(String symbol, double[] closes, int n){
+        if (closes == null || n < MIN_CANDLES){
+            return new Summary(symbol, closes==null?0:n, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Trend.SIDEWAYS);
+        }
+        double sma20 = StockMetrics.sma(closes, n, 20);
+        double sma50 = StockMetrics.sma(closes, n, 50);
+        double rsi14 = StockMetrics.rsi(closes, n, 14);
+        double annVol = StockMetrics.annualizedVol(closes, n);
+        return new Summary(symbol, n, sma20, sma50, rsi14, annVol, classify(sma20, sma50));
+    }
+
+    private static Trend classify(double sma20, double sma50){
+        if (Double.isNaN(sma20) || Double.isNaN(sma50)) return Trend.SIDEWAYS;
+        else if (sma20 > sma50 * 1.005) return Trend.BULLISH;
+        else if (sma20 < sma50 * 0.995) return Trend.BEARISH;
+        else return Trend.SIDEWAYS;
+    }
+
+    /**
+     * Incremental counterpart of {@link #analyze} for one symbol: each candle updates the
+     * indicators in O(1), and {@link #summary()} equals {@code analyze} over all candles seen so far.
+     */
+    public static final class Live {
+        private final String symbol;
+        private final RollingSma sma20 = new RollingSma(20), sma50 = new RollingSma(50);
+        private final WilderRsi rsi14 = new WilderRsi(14);
+        private final RollingVolatility vol = new RollingVolatility();
+        private int n;
+
+        public Live(String symbol){ this.symbol = symbol; }
 
-        return new Summary(symbol, candles.size(), sma20, sma50, rsi14, annVol, t);
+        public synchronized Summary update(StockCandle c){
+            double close = c.close();
+            sma20.update(close);
+            sma50.update(close);
+            rsi14.update(close);
+            vol.update(close);
+            n++;
+            return summary();
+        }
+
+        public synchronized Summary summary(){
+            if (n < MIN_CANDLES) return new Summary(symbol, n, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Trend.SIDEWAYS);
+            double s20 = sma20.value(), s50 = sma50.value();
+            return new Summary(symbol, n, s20, s50, rsi14.value(), vol.value(), classify(s20, s50));
+        }
+    }
+
+    /** Live summaries keyed by symbol; safe to feed from several threads. */
+    public static final class LiveBook {
+        private final Map<String, Live> bySymbol = new ConcurrentHashMap<>();
+
+        public Summary update(String symbol, StockCandle c){
+            return bySymbol.computeIfAbsent(symbol, Live::new).update(c);
+        }
+
+        public Summary summary(String symbol){
+            Live live = bySymbol.get(symbol);
+            return live == null ? analyze(symbol, List.of()) : live.summary();
+        }
     }
 }
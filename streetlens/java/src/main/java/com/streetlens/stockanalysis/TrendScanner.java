@@ -0,0 +1,129 @@
+package com.streetlens.stockanalysis;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Runs {@link TrendAnalyzer#analyze} over many candle CSVs in one JVM. Files are split
+ * recursively on a {@link ForkJoinPool}, so idle workers steal from busy ones when some files
+ * are much larger than others. A file that fails to load is reported with its error instead of
+ * failing the scan. The symbol is the file name without its extension. A {@code .candles}
+ * {@link CandleStore} is read instead of the CSV when it sits next to it and is at least as new,
+ * and manifests may list stores directly.
+ */
+public final class TrendScanner {
+    private TrendScanner(){}
+
+    private static final int LEAF = 4;
+
+    public record FileResult(String symbol, String file, TrendAnalyzer.Summary summary, double score,
+                             long loadMillis, long analyzeMillis, String error) {
+        public boolean ok(){ return error == null; }
+    }
+
+    /** {@code ranked} is ordered by {@link #score} (strongest uptrend first, insufficient data last). */
+    public record Report(List<FileResult> ranked, List<FileResult> failed, int files, long wallMillis) {}
+
+    /** Every {@code *.csv} directly inside {@code dir}, sorted by name. */
+    public static List<Path> listCsv(Path dir) throws IOException {
+        try (Stream<Path> s = Files.list(dir)) {
+            return s.filter(p -> p.getFileName().toString().toLowerCase().endsWith(".csv"))
+                .filter(Files::isRegularFile)
+                .sorted()
+                .toList();
+        }
+    }
+
+    /** One path per line; blank lines and {@code #} comments are skipped, relative paths resolve against the manifest's folder. */
+    public static List<Path> readManifest(Path manifest) throws IOException {
+        Path base = manifest.toAbsolutePath().getParent();
+        List<Path> out = new ArrayList<>();
+        for (String line : Files.readAllLines(manifest)) {
+            String s = line.trim();
+            if (s.isEmpty() || s.startsWith("#")) continue;
+            out.add(base.resolve(s));
+        }
+        return out;
+    }
+
+    /** SMA20 over SMA50, minus one; NaN when there is not enough history. */
+    public static double score(TrendAnalyzer.Summary s){
+        return s.sma20() / s.sma50() - 1.0;
+    }
+
+    public static Report scan(List<Path> files){ return scan(files, ForkJoinPool.commonPool()); }
+
+    public static Report scan(List<Path> files, ForkJoinPool pool){
+        long t0 = System.nanoTime();
+        List<FileResult> all = pool.invoke(new Split(files, 0, files.size()));
+        List<FileResult> ranked = new ArrayList<>(), failed = new ArrayList<>();
+        for (var r : all) (r.ok() ? ranked : failed).add(r);
+        ranked.sort(Comparator.comparingDouble((FileResult r) -> Double.isNaN(r.score()) ? Double.NEGATIVE_INFINITY : r.score()).reversed());
+        return new Report(ranked, failed, files.size(), (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    private static FileResult analyze(Path file){
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String symbol = dot > 0 ? name.substring(0, dot) : name;
+        long t0 = System.nanoTime();
+        try {
+            Path store = name.endsWith(CandleStore.EXTENSION) ? file : storeFor(file);
+            TrendAnalyzer.Summary summary;
+            long t1, t2;
+            if (store != null) {
+                double[] closes;
+                try (var cs = CandleStore.open(store)) { closes = cs.closes(null); }
+                t1 = System.nanoTime();
+                summary = TrendAnalyzer.analyze(symbol, closes, closes.length);
+            } else {
+                var candles = CsvLoader.load(file);
+                t1 = System.nanoTime();
+                summary = TrendAnalyzer.analyze(symbol, candles);
+            }
+            t2 = System.nanoTime();
+            return new FileResult(symbol, file.toString(), summary, score(summary),
+                (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000, null);
+        } catch (Exception e) {
+            return new FileResult(symbol, file.toString(), null, Double.NaN,
+                (System.nanoTime() - t0) / 1_000_000, 0, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    /** The converted sibling of {@code csv}, if it exists and is not older than the CSV. */
+    private static Path storeFor(Path csv) throws IOException {
+        String name = csv.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        Path store = csv.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + CandleStore.EXTENSION);
+        if (!Files.isRegularFile(store)) return null;
+        return Files.getLastModifiedTime(store).compareTo(Files.getLastModifiedTime(csv)) >= 0 ? store : null;
+    }
+
+    @SuppressWarnings("serial") // fork-join tasks are never serialized
+    private static final class Split extends RecursiveTask<List<FileResult>> {
+        private final List<Path> files;
+        private final int from, to;
+
+        Split(List<Path> files, int from, int to){ this.files = files; this.from = from; this.to = to; }
+
+        @Override protected List<FileResult> compute(){
+            if (to - from <= LEAF) {
+                List<FileResult> out = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) out.add(analyze(files.get(i)));
+                return out;
+            }
+            int mid = (from + to) >>> 1;
+            var left = new Split(files, from, mid);
+            left.fork();
+            List<FileResult> right = new Split(files, mid, to).compute();
+            List<FileResult> out = new ArrayList<>(left.join());
+            out.addAll(right);
+            return out;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.streetlens.stockanalysis;
+
+/**
+ * Wilder-smoothed RSI fed one close at a time. Seeds with the plain average of the first
+ * {@code period} changes and then smooths exactly like {@link StockMetrics#rsi}, so after the same
+ * closes both return the same value (NaN until {@code period + 1} closes).
+ */
+public final class WilderRsi {
+    private final int period;
+    private double prevClose = Double.NaN;
+    private double gain, loss;
+    private int changes;
+
+    public WilderRsi(int period){
+        if (period < 1) throw new IllegalArgumentException("period must be >= 1: " + period);
+        this.period = period;
+    }
+
+    public double update(StockCandle c){ return update(c.close()); }
+
+    public double update(double close){
+        if (!Double.isNaN(prevClose)) {
+            double ch = close - prevClose;
+            changes++;
+            if (changes <= period) {
+                if (ch >= 0) gain += ch; else loss -= ch;
+                if (changes == period) { gain /= period; loss /= period; }
+            } else {
+                gain = (gain*(period-1) + Math.max(0, ch)) / period;
+                loss = (loss*(period-1) + Math.max(0, -ch)) / period;
+            }
+        }
+        prevClose = close;
+        return value();
+    }
+
+    public double value(){
+        if (changes < period) return Double.NaN;
+        if (loss == 0) return 100.0;
+        double rs = gain / loss;
+        return 100.0 - (100.0 / (1.0 + rs));
+    }
+}
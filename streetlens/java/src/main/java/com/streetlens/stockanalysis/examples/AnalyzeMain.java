@@ -1,13 +1,24 @@
 package com.streetlens.stockanalysis.examples;
 
 import com.streetlens.stockanalysis.*;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 
 public class AnalyzeMain {
     public static void main(String[] args) throws Exception {
+        if (args.length >= 2 && (args[0].equals("--dir") || args[0].equals("--manifest"))){
+            scan(args);
+            return;
+        }
+        if (args.length >= 2 && args[0].equals("--convert")){
+            convert(args);
+            return;
+        }
         if (args.length < 2){
             System.out.println("Usage: java -cp <jar> com.streetlens.stockanalysis.examples.AnalyzeMain <SYMBOL> <CSV_PATH>");
+            System.out.println("       java -cp <jar> com.streetlens.stockanalysis.examples.AnalyzeMain --dir <DIR> | --manifest <FILE> [--top N]");
+            System.out.println("       java -cp <jar> com.streetlens.stockanalysis.examples.AnalyzeMain --convert <CSV_PATH|DIR> ...");
             System.out.println("CSV columns: Date,Open,High,Low,Close,Volume  (with header)");
             return;
         }
@@ -23,6 +34,47 @@ public class AnalyzeMain {
         System.out.println(suggest(summary));
     }
 
+    // --dir <DIR> | --manifest <FILE> [--top N]: one JVM, all files in parallel
+    private static void scan(String[] args) throws Exception {
+        Path target = Path.of(args[1]);
+        int top = Integer.MAX_VALUE;
+        for (int i = 2; i + 1 < args.length; i++) if (args[i].equals("--top")) top = Integer.parseInt(args[i+1]);
+
+        List<Path> files = args[0].equals("--dir") ? TrendScanner.listCsv(target) : TrendScanner.readManifest(target);
+        var report = TrendScanner.scan(files);
+
+        System.out.printf("Scanned %d files in %d ms (%d ok, %d failed)%n",
+            report.files(), report.wallMillis(), report.ranked().size(), report.failed().size());
+        System.out.printf("%-4s %-10s %-9s %10s %10s %7s %8s %8s %6s%n",
+            "#", "SYMBOL", "TREND", "SMA20", "SMA50", "RSI14", "ANNVOL%", "SCORE", "MS");
+        int rank = 0;
+        for (var r : report.ranked()) {
+            if (++rank > top) break;
+            var s = r.summary();
+            System.out.printf("%-4d %-10s %-9s %10.2f %10.2f %7.2f %8.2f %8.4f %6d%n",
+                rank, r.symbol(), s.trend(), s.sma20(), s.sma50(), s.rsi14(), s.annVol()*100.0, r.score(),
+                r.loadMillis() + r.analyzeMillis());
+        }
+        for (var r : report.failed()) System.out.printf("FAILED %s (%s): %s%n", r.symbol(), r.file(), r.error());
+    }
+
+    // --convert <CSV|DIR> ...: write a .candles store next to each CSV, which later scans read instead
+    private static void convert(String[] args) throws Exception {
+        for (int i = 1; i < args.length; i++) {
+            Path p = Path.of(args[i]);
+            for (Path csv : Files.isDirectory(p) ? TrendScanner.listCsv(p) : List.of(p)) {
+                String name = csv.getFileName().toString();
+                int dot = name.lastIndexOf('.');
+                Path out = csv.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + CandleStore.EXTENSION);
+                try (var store = CandleStore.convertCsv(csv, out)) {
+                    System.out.printf("%s -> %s (%d candles)%n", csv, out, store.size());
+                } catch (Exception e) {
+                    System.out.printf("FAILED %s: %s%n", csv, e.getMessage());
+                }
+            }
+        }
+    }
+
     private static String suggest(TrendAnalyzer.Summary s){
         if (s.trend() == TrendAnalyzer.Trend.BULLISH && s.rsi14() < 70) {
             return "Suggestion: momentum up. Consider bullish structures (e.g., call spreads) if IV is reasonable.";
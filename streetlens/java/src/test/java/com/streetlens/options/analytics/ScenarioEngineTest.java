@@ -0,0 +1,77 @@
+package com.streetlens.options.analytics;
+
+import com.streetlens.options.domain.OptionContract;
+import com.streetlens.options.domain.OptionType;
+import com.streetlens.options.domain.Quote;
+import com.streetlens.options.pricing.BlackScholes;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioEngineTest {
+    private static ScenarioEngine.Position position(OptionType type, double strike, double spot, double iv, double years, double qty){
+        var c = new OptionContract("XYZ", type, strike, LocalDate.now().plusDays(Math.round(years * 365)), 100);
+        return new ScenarioEngine.Position(c, new Quote(spot, iv, 0.04, years, 1, 1, 1, 1), qty);
+    }
+
+    @Test
+    void everyCellMatchesPerPositionBlackScholes(){
+        var book = List.of(
+            position(OptionType.CALL, 105, 100, 0.25, 0.5, 2),
+            position(OptionType.PUT, 95, 100, 0.30, 0.5, -3),
+            position(OptionType.PUT, 40, 100, 0.20, 0.25, 1),   // deep OTM put: worth ~1e-16, must not round to 0
+            position(OptionType.CALL, 100, 100, 0.40, 10.0 / 365, 1)); // expires inside the grid
+        var grid = new ScenarioEngine.Grid(new double[]{-0.3, -0.05, 0, 0.1, 0.5}, new double[]{-0.3, 0, 0.1}, new double[]{0, 5, 30});
+        var engine = new ScenarioEngine(book);
+        var surface = engine.run(grid, new ForkJoinPool(3));
+
+        for (int h = 0; h < grid.horizonDays().length; h++)
+            for (int v = 0; v < grid.volShocks().length; v++)
+                for (int s = 0; s < grid.spotShocks().length; s++) {
+                    double value = 0, delta = 0, gamma = 0, vega = 0, theta = 0;
+                    for (var p : book) {
+                        double w = p.contract().multiplier() * p.quantity(), K = p.contract().strike();
+                        double S = p.quote().spot() * (1 + grid.spotShocks()[s]);
+                        double T = p.quote().t() - grid.horizonDays()[h] / 365.0;
+                        OptionType type = p.contract().type();
+                        if (T <= 0) {
+                            boolean call = type == OptionType.CALL;
+                            value += w * (call ? Math.max(0, S - K) : Math.max(0, K - S));
+                            delta += w * (call ? (S > K ? 1 : 0) : (S < K ? -1 : 0));
+                            continue;
+                        }
+                        double sigma = Math.max(1e-4, p.quote().iv() + grid.volShocks()[v]);
+                        var g = BlackScholes.greeks(type, S, K, 0.04, sigma, T);
+                        value += w * BlackScholes.price(type, S, K, 0.04, sigma, T);
+                        delta += w * g.delta(); gamma += w * g.gamma(); vega += w * g.vega(); theta += w * g.theta();
+                    }
+                    int i = surface.index(h, v, s);
+                    String at = "h=" + h + " v=" + v + " s=" + s;
+                    assertClose(value - engine.baseValue(), surface.pnl[i], at + " pnl");
+                    assertClose(delta, surface.delta[i], at + " delta");
+                    assertClose(gamma, surface.gamma[i], at + " gamma");
+                    assertClose(vega, surface.vega[i], at + " vega");
+                    assertClose(theta, surface.theta[i], at + " theta");
+                }
+    }
+
+    @Test
+    void deepOutOfTheMoneyPutKeepsItsValue(){
+        var put = position(OptionType.PUT, 40, 100, 0.20, 0.25, 1); // 1 - N(d) cancels to exactly 0 here
+        var engine = new ScenarioEngine(List.of(put));
+        var surface = engine.run(new ScenarioEngine.Grid(new double[]{0}, new double[]{0}, new double[]{0}), ForkJoinPool.commonPool());
+        double expected = 100 * BlackScholes.price(OptionType.PUT, 100, 40, 0.04, 0.20, 0.25);
+        assertTrue(expected > 0);
+        assertEquals(expected, engine.baseValue(), expected * 1e-12);
+        assertEquals(expected, surface.pnl[0] + surface.baseValue, expected * 1e-9);
+        assertTrue(surface.delta[0] < 0, "delta " + surface.delta[0]);
+    }
+
+    private static void assertClose(double expected, double actual, String at){
+        assertEquals(expected, actual, 1e-9 * Math.max(1, Math.abs(expected)), at);
+    }
+}
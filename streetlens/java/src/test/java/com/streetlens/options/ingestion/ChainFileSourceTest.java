@@ -0,0 +1,70 @@
+package com.streetlens.options.ingestion;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChainFileSourceTest {
+    private static final String HEADER = "symbol,type,strike,expiry,spot,iv,r,bid,ask,volume,openInterest\n";
+
+    private static String row(String symbol, String type, double strike){
+        return symbol + "," + type + "," + strike + "," + LocalDate.now().plusDays(30) + ",100,0.3,0.04,1.0,1.1,500,900\n";
+    }
+
+    @Test
+    void directoryFilesAreReadOnceStableAndOnlyMarkedDeliveredWhenTheyParse(@TempDir Path dir) throws IOException {
+        var source = ChainFileSource.follow(dir);
+        Path a = dir.resolve("a.csv");
+        Files.writeString(a, HEADER + row("AAA", "call", 100));
+        assertNull(source.nextBatch(), "first sighting waits a poll");
+        Files.writeString(a, row("AAA", "put", 100), StandardOpenOption.APPEND);
+        assertNull(source.nextBatch(), "still growing");
+        assertEquals(2, source.nextBatch().size());
+        assertNull(source.nextBatch());
+
+        Path b = dir.resolve("b.csv");
+        Files.writeString(b, HEADER + row("BBB", "banana", 100));
+        assertNull(source.nextBatch());
+        assertThrows(IllegalArgumentException.class, source::nextBatch);
+        assertNull(source.nextBatch(), "an unchanged bad file is not retried");
+
+        // rewritten: tried again, and this time it is delivered
+        Files.writeString(b, HEADER + row("BBB", "call", 100) + row("BBB", "call", 105));
+        assertNull(source.nextBatch());
+        assertEquals(2, source.nextBatch().size());
+        assertNull(source.nextBatch());
+    }
+
+    @Test
+    void aFailedFileDoesNotHoldUpNewerOnes(@TempDir Path dir) throws IOException {
+        var source = ChainFileSource.follow(dir);
+        Files.writeString(dir.resolve("a.csv"), HEADER + row("AAA", "banana", 100));
+        assertNull(source.nextBatch());
+        assertThrows(IllegalArgumentException.class, source::nextBatch);
+        Files.writeString(dir.resolve("b.csv"), HEADER + row("BBB", "call", 100));
+        assertNull(source.nextBatch());
+        assertEquals("BBB", source.nextBatch().symbol(0));
+        assertNull(source.nextBatch());
+    }
+
+    @Test
+    void aFollowedFileIsReReadOnceItSettlesAfterAChange(@TempDir Path dir) throws IOException {
+        Path f = dir.resolve("chain.csv");
+        Files.writeString(f, HEADER + row("AAA", "call", 100));
+        var source = ChainFileSource.follow(f);
+        assertNull(source.nextBatch());
+        assertEquals(1, source.nextBatch().size());
+        assertNull(source.nextBatch());
+        Files.writeString(f, HEADER + row("AAA", "call", 100) + row("AAA", "call", 110));
+        assertNull(source.nextBatch());
+        assertEquals(2, source.nextBatch().size());
+        assertTrue(source.latest().isEmpty());
+    }
+}
@@ -0,0 +1,172 @@
+package com.streetlens.options.ingestion;
+
+import com.streetlens.options.domain.OptionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedChainParserTest {
+    private static final String HEADER = "symbol,type,strike,expiry,spot,iv,r,bid,ask,volume,openInterest";
+    private static final LocalDate TODAY = LocalDate.of(2026, 1, 15);
+
+    private record Row(String symbol, OptionType type, double strike, long expiry, double spot, double iv,
+                       double r, double t, double bid, double ask, long volume, long oi) {}
+
+    private static List<Row> parse(Path csv, long window) throws IOException {
+        List<Row> out = new ArrayList<>();
+        long n = new MappedChainParser((s, type, k, exp, spot, iv, r, t, bid, ask, vol, oi)
+            -> out.add(new Row(s, type, k, exp, spot, iv, r, t, bid, ask, vol, oi)), TODAY, window).parse(csv);
+        assertEquals(out.size(), n);
+        return out;
+    }
+
+    /** The loader this parser replaced, plus its two rules: blank iv is NaN, expired rows are skipped before parsing. */
+    private static List<Row> reference(Path csv) throws IOException {
+        List<Row> out = new ArrayList<>();
+        var lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) continue;
+            String[] t = line.split(",", -1);
+            if (t.length < 11) continue;
+            long expiry = LocalDate.parse(t[3].trim()).toEpochDay();
+            long days = expiry - TODAY.toEpochDay();
+            if (days <= 0) continue;
+            String iv = t[5].trim();
+            out.add(new Row(t[0].trim(), OptionType.valueOf(t[1].trim().toUpperCase()), Double.parseDouble(t[2].trim()), expiry,
+                Double.parseDouble(t[4].trim()), iv.isEmpty() ? Double.NaN : Double.parseDouble(iv), Double.parseDouble(t[6].trim()),
+                days / 365.0, Double.parseDouble(t[7].trim()), Double.parseDouble(t[8].trim()),
+                Long.parseLong(t[9].trim()), Long.parseLong(t[10].trim())));
+        }
+        return out;
+    }
+
+    /** Decimal spellings that exercise both the fast path and every fallback. */
+    private static String number(Random rnd){
+        double v = Math.pow(10, rnd.nextInt(12) - 6) * rnd.nextDouble();
+        String s = switch (rnd.nextInt(9)) {
+            case 0 -> Double.toString(v);                                    // shortest repr, often 16-17 digits, sometimes E notation
+            case 1 -> String.format(Locale.ROOT, "%.2f", v * 1000);                        // prices
+            case 2 -> String.format(Locale.ROOT, "%.4f", v);
+            case 3 -> new BigDecimal(v).toPlainString();                      // exact binary value, dozens of digits
+            case 4 -> String.format(Locale.ROOT, "%.6e", v);                               // exponent
+            case 5 -> String.format(Locale.ROOT, "%.3E", v).replace("E-0", "E-");
+            case 6 -> Long.toString(rnd.nextInt(100_000));                    // integer
+            case 7 -> "0." + "0".repeat(rnd.nextInt(25)) + (1 + rnd.nextInt(999)); // tiny: past the power-of-ten table
+            default -> new BigDecimal(v).round(new java.math.MathContext(15 + rnd.nextInt(3))).toPlainString(); // 15..17 digits
+        };
+        return switch (rnd.nextInt(6)) {
+            case 0 -> "-" + s;
+            case 1 -> "+" + s;
+            default -> s;
+        };
+    }
+
+    private static String integer(Random rnd){
+        long v = rnd.nextInt(4) == 0 ? rnd.nextLong() >>> 1 : rnd.nextInt(10_000);
+        return switch (rnd.nextInt(5)) {
+            case 0 -> "+" + v;
+            case 1 -> "-" + v;
+            default -> Long.toString(v);
+        };
+    }
+
+    private static Path fuzzedChain(Path dir, int rows, long seed) throws IOException {
+        var rnd = new Random(seed);
+        var sb = new StringBuilder(HEADER).append('\n');
+        for (int i = 0; i < rows; i++) {
+            String pad = rnd.nextInt(8) == 0 ? " " : "";
+            LocalDate expiry = TODAY.plusDays(rnd.nextInt(400) - 20);     // some expired, one on today
+            String iv = rnd.nextInt(5) == 0 ? (rnd.nextBoolean() ? "" : "  ") : number(rnd);
+            sb.append("SYM").append(rnd.nextInt(4)).append(',').append(pad)
+              .append(rnd.nextBoolean() ? "call" : "PUT").append(',')
+              .append(number(rnd)).append(',').append(expiry).append(',')
+              .append(number(rnd)).append(',').append(iv).append(',').append(pad).append(number(rnd)).append(pad).append(',')
+              .append(number(rnd)).append(',').append(number(rnd)).append(',')
+              .append(integer(rnd)).append(',').append(integer(rnd));
+            if (rnd.nextInt(10) == 0) sb.append(",extra");
+            sb.append(rnd.nextInt(6) == 0 ? "\r\n" : "\n");
+            if (rnd.nextInt(20) == 0) sb.append(rnd.nextBoolean() ? "\n" : "  \r\n"); // blank lines
+            if (rnd.nextInt(30) == 0) sb.append("SHORT,call,1\n");                   // too few columns
+        }
+        Path csv = dir.resolve("fuzz-" + seed + ".csv");
+        Files.writeString(csv, sb, StandardCharsets.US_ASCII);
+        return csv;
+    }
+
+    @Test
+    void matchesTheJdkParsersOnFuzzedRows(@TempDir Path dir) throws IOException {
+        for (long seed = 1; seed <= 5; seed++) {
+            Path csv = fuzzedChain(dir, 4000, seed);
+            var expected = reference(csv);
+            assertFalse(expected.isEmpty());
+            // Row equality compares doubles bit for bit (Double.compare), so -0.0, NaN and the last ulp all count
+            assertEquals(expected, parse(csv, MappedChainParser.WINDOW), "seed " + seed);
+        }
+    }
+
+    @Test
+    void rowsAcrossMappingWindowsParseTheSame(@TempDir Path dir) throws IOException {
+        Path csv = fuzzedChain(dir, 500, 42);
+        var expected = reference(csv);
+        // every window from just over the longest line upward moves the seams through different bytes of a row
+        int longest = Files.readAllLines(csv).stream().mapToInt(String::length).max().orElseThrow() + 2;
+        for (long window = longest; window < longest + 300; window += 7)
+            assertEquals(expected, parse(csv, window), "window " + window);
+    }
+
+    @Test
+    void aLineLongerThanTheWindowIsAnError(@TempDir Path dir) throws IOException {
+        Path csv = dir.resolve("long.csv");
+        Files.writeString(csv, HEADER + "\nAAA,call,100," + TODAY.plusDays(30) + ",100,0.3,0.04,1,1.1,5,9\n");
+        var e = assertThrows(IOException.class, () -> parse(csv, 32));
+        assertTrue(e.getMessage().contains("longer than 32 bytes"), e.getMessage());
+    }
+
+    @Test
+    void specificSpellings(@TempDir Path dir) throws IOException {
+        String exp = TODAY.plusDays(73).toString();
+        Path csv = dir.resolve("spellings.csv");
+        Files.writeString(csv, String.join("\n", HEADER,
+            "AAA,Call,1.5e2," + exp + ",  +195.123456789012345 ,,0.045,-0,.5,+10,-3",
+            "AAA,put,150.," + exp + ",1E+2,\t,4.5E-2,0.000000000000000000000012,1234567890.12345,9223372036854775807,0",
+            // expired: never parsed, so its malformed fields are not an error
+            "BBB,call,not-a-number," + TODAY + ",x,x,x,x,x,x,x",
+            "") + "\n");
+        var rows = parse(csv, MappedChainParser.WINDOW);
+        assertEquals(reference(csv), rows);
+        assertEquals(2, rows.size());
+        Row a = rows.get(0), b = rows.get(1);
+        assertEquals(150.0, a.strike());
+        assertEquals(Double.parseDouble("195.123456789012345"), a.spot());
+        assertTrue(Double.isNaN(a.iv()) && Double.isNaN(b.iv()));
+        assertEquals(-0.0, a.bid());
+        assertEquals(0.5, a.ask());
+        assertEquals(10, a.volume());
+        assertEquals(-3, a.oi());
+        assertEquals(73 / 365.0, a.t());
+        assertEquals(100.0, b.spot());
+        assertEquals(1.2e-23, b.bid());
+        assertEquals(Long.MAX_VALUE, b.volume());
+    }
+
+    @Test
+    void malformedNumbersFailLikeTheJdk(@TempDir Path dir) throws IOException {
+        for (String bad : new String[]{"1.2.3", "-", "+", "12a", "1e"}) {
+            Path csv = dir.resolve("bad.csv");
+            Files.writeString(csv, HEADER + "\nAAA,call," + bad + "," + TODAY.plusDays(30) + ",100,0.3,0.04,1,1.1,5,9\n");
+            assertThrows(NumberFormatException.class, () -> parse(csv, MappedChainParser.WINDOW), bad);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.streetlens.options.pricing;
+
+import com.streetlens.options.domain.OptionType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchGreeksTest {
+    private static final double[] MONEYNESS = {0.3, 0.6, 0.8, 0.95, 1.0, 1.05, 1.25, 1.6, 3.0};
+    private static final double[] YEARS = {1.0 / 365, 7.0 / 365, 30.0 / 365, 0.25, 1.0, 3.0};
+    private static final double[] VOLS = {0.05, 0.25, 0.8};
+
+    /** Grid over type x moneyness x T x vol, plus rows with d1 and d2 exactly 0 (the N(0) = 0.5 case). */
+    private record Inputs(boolean[] call, double[] S, double[] K, double[] r, double[] sigma, double[] T) {
+        int size(){ return call.length; }
+
+        static Inputs grid(){
+            int n = 2 * MONEYNESS.length * YEARS.length * VOLS.length + 4;
+            var in = new Inputs(new boolean[n], new double[n], new double[n], new double[n], new double[n], new double[n]);
+            int i = 0;
+            for (boolean call : new boolean[]{true, false})
+                for (double m : MONEYNESS) for (double t : YEARS) for (double v : VOLS) in.set(i++, call, 100, 100 * m, 0.045, v, t);
+            // at the money, d1 = 0 when r = -sigma^2/2 and d2 = 0 when r = sigma^2/2
+            double half = 0.5 * 0.2 * 0.2;
+            in.set(i++, true, 100, 100, -half, 0.2, 0.5);
+            in.set(i++, false, 100, 100, -half, 0.2, 0.5);
+            in.set(i++, true, 100, 100, half, 0.2, 0.5);
+            in.set(i++, false, 100, 100, half, 0.2, 0.5);
+            return in;
+        }
+
+        void set(int i, boolean c, double s, double k, double rate, double vol, double t){
+            call[i] = c; S[i] = s; K[i] = k; r[i] = rate; sigma[i] = vol; T[i] = t;
+        }
+    }
+
+    @Test
+    void vectorKernelMatchesScalarKernel(){
+        assumeVector();
+        var in = Inputs.grid();
+        var vec = new BatchGreeks.Out(in.size()); var sca = new BatchGreeks.Out(in.size());
+        VectorGreeksKernel.compute(in.call, in.S, in.K, in.r, in.sigma, in.T, 0, in.size(), vec);
+        BatchGreeks.scalar(in.call, in.S, in.K, in.r, in.sigma, in.T, 0, in.size(), sca);
+        for (int i = 0; i < in.size(); i++) {
+            String row = "row " + i;
+            close(sca.price[i], vec.price[i], row + " price");
+            close(sca.delta[i], vec.delta[i], row + " delta");
+            close(sca.gamma[i], vec.gamma[i], row + " gamma");
+            close(sca.vega[i], vec.vega[i], row + " vega");
+            close(sca.theta[i], vec.theta[i], row + " theta");
+            close(sca.rho[i], vec.rho[i], row + " rho");
+            close(sca.d1[i], vec.d1[i], row + " d1");
+        }
+    }
+
+    @Test
+    void batchMatchesBlackScholes(){
+        var in = Inputs.grid();
+        var out = new BatchGreeks.Out(in.size());
+        BatchGreeks.compute(in.call, in.S, in.K, in.r, in.sigma, in.T, 0, in.size(), out);
+        for (int i = 0; i < in.size(); i++) {
+            var type = in.call[i] ? OptionType.CALL : OptionType.PUT;
+            var g = BlackScholes.greeks(type, in.S[i], in.K[i], in.r[i], in.sigma[i], in.T[i]);
+            String row = "row " + i;
+            close(BlackScholes.price(type, in.S[i], in.K[i], in.r[i], in.sigma[i], in.T[i]), out.price[i], row + " price");
+            close(g.delta(), out.delta[i], row + " delta");
+            close(g.gamma(), out.gamma[i], row + " gamma");
+            close(g.vega(), out.vega[i], row + " vega");
+            close(g.theta(), out.theta[i], row + " theta");
+            close(g.rho(), out.rho[i], row + " rho");
+        }
+    }
+
+    @Test
+    void atTheZeroOfD1AndD2HalfTheMassIsEachSide(){
+        var in = Inputs.grid();
+        var out = new BatchGreeks.Out(in.size());
+        BatchGreeks.compute(in.call, in.S, in.K, in.r, in.sigma, in.T, 0, in.size(), out);
+        int n = in.size();
+        assertEquals(0, out.d1[n - 4], 1e-15);
+        assertEquals(0.5, out.delta[n - 4], 1e-15);
+        assertEquals(-0.5, out.delta[n - 3], 1e-15);
+        assertEquals(0, out.d2[n - 2], 1e-15);
+    }
+
+    @Test
+    void farOutOfTheMoneyPutKeepsItsValue(){
+        var out = new BatchGreeks.Out(1);
+        BatchGreeks.compute(new boolean[]{false}, new double[]{100}, new double[]{50}, new double[]{0.045},
+            new double[]{0.2}, new double[]{30.0 / 365}, 0, 1, out);
+        double ref = BlackScholes.price(OptionType.PUT, 100, 50, 0.045, 0.2, 30.0 / 365);
+        assertTrue(ref > 0);
+        assertEquals(ref, out.price[0], ref * 1e-9);
+    }
+
+    /** Relative to the magnitude, with an absolute floor for values that are 0 or nearly so. */
+    private static void close(double expected, double actual, String what){
+        assertEquals(expected, actual, 1e-12 * Math.max(1, Math.abs(expected)), what);
+    }
+
+    private static void assumeVector(){
+        org.junit.jupiter.api.Assumptions.assumeTrue(BatchGreeks.vectorized(), "vector module not present");
+    }
+}
@@ -0,0 +1,96 @@
+package com.streetlens.options.pricing;
+
+import com.streetlens.options.domain.OptionChainBatch;
+import com.streetlens.options.domain.OptionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImpliedVolTest {
+    private static final double[] MONEYNESS = {0.7, 0.9, 1.0, 1.1, 1.4};
+    private static final double[] YEARS = {7.0 / 365, 0.25, 1.0, 2.0};
+    private static final double[] VOLS = {0.08, 0.25, 0.6, 1.5};
+
+    @Test
+    void priceToVolToPriceRoundTrips(){
+        for (OptionType type : OptionType.values())
+            for (double m : MONEYNESS) for (double t : YEARS) for (double v : VOLS) {
+                double S = 100, K = 100 * m, r = 0.04;
+                double price = BlackScholes.price(type, S, K, r, v, t);
+                if (timeValue(type == OptionType.CALL, price, S, K, r, t) < 1e-6 * S) continue; // vol not identifiable
+                double iv = ImpliedVol.solve(type, price, S, K, r, t);
+                String at = type + " K=" + K + " T=" + t + " vol=" + v;
+                assertFalse(Double.isNaN(iv), at);
+                assertEquals(price, BlackScholes.price(type, S, K, r, iv, t), 1e-8 * S, at);
+                assertEquals(v, iv, 1e-4 * v + 1e-6, at);
+            }
+    }
+
+    @Test
+    void batchSolveRoundTripsOutOfOrderRows(){
+        // two symbols and two expiries, strikes descending so grouping has to reorder them
+        var b = new OptionChainBatch.Builder();
+        long expiry = 20_000;
+        for (String sym : new String[]{"BBB", "AAA"})
+            for (long e : new long[]{expiry + 90, expiry + 30})
+                for (int k = 140; k >= 60; k -= 10)
+                    for (OptionType type : OptionType.values()) {
+                        double t = (e - expiry) / 365.0, vol = 0.2 + 0.001 * Math.abs(k - 100);
+                        double p = BlackScholes.price(type, 100, k, 0.03, vol, t);
+                        b.add(sym, type, k, e, 100, Double.NaN, 0.03, t, p, p, 1, 1);
+                    }
+        var batch = b.build();
+        double[] out = new double[batch.size()];
+        var stats = ImpliedVol.solve(batch, out, true, ForkJoinPool.commonPool(), 4);
+        assertEquals(batch.size(), stats.rows());
+        for (int i = 0; i < batch.size(); i++) {
+            if (timeValue(batch.isCall(i), batch.mid(i), batch.spot(i), batch.strike(i), batch.r(i), batch.t(i)) < 1e-6 * batch.spot(i)) continue;
+            assertFalse(Double.isNaN(out[i]), "row " + i);
+            double back = BlackScholes.price(batch.type(i), batch.spot(i), batch.strike(i), batch.r(i), out[i], batch.t(i));
+            assertEquals(batch.mid(i), back, 1e-8 * batch.spot(i), "row " + i);
+        }
+    }
+
+    /** Price above the no-arbitrage floor; with almost none, any low vol reproduces it. */
+    private static double timeValue(boolean call, double price, double S, double K, double r, double T){
+        double disc = K * Math.exp(-r * T);
+        return price - Math.max(0.0, call ? S - disc : disc - S);
+    }
+
+    @Test
+    void groupOrdersBySymbolExpiryTypeStrike(){
+        var b = new OptionChainBatch.Builder();
+        b.add("B", OptionType.CALL, 110, 10, 100, 0.2, 0, 0.1, 1, 1, 1, 1);
+        b.add("A", OptionType.CALL, 120, 10, 100, 0.2, 0, 0.1, 1, 1, 1, 1);
+        b.add("A", OptionType.PUT, 90, 10, 100, 0.2, 0, 0.1, 1, 1, 1, 1);
+        b.add("A", OptionType.CALL, 100, 10, 100, 0.2, 0, 0.1, 1, 1, 1, 1);
+        b.add("B", OptionType.CALL, 105, 10, 100, 0.2, 0, 0.1, 1, 1, 1, 1);
+        var batch = b.build();
+        int[] order = new int[batch.size()];
+        int[] start = ImpliedVol.group(batch, order);
+        // groups follow the dictionary codes (B first), puts before calls, strikes ascending within
+        assertArrayEquals(new int[]{0, 2, 3, 5}, start);
+        assertArrayEquals(new int[]{4, 0, 2, 3, 1}, order);
+    }
+
+    @Test
+    void groupSortsShuffledStrikesExactly(){
+        var rnd = new java.util.Random(7);
+        var b = new OptionChainBatch.Builder();
+        for (int i = 0; i < 5000; i++) {
+            // many strikes a float cannot tell apart from their neighbour
+            double k = i % 3 == 0 ? 100 + 1e-9 * rnd.nextInt(1000) : 50 + 100 * rnd.nextDouble();
+            b.add("S" + (i % 2), OptionType.PUT, k, 10, 100, 0.2, 0, 0.1, 1, 1, 1, 1);
+        }
+        var batch = b.build();
+        int[] order = new int[batch.size()];
+        int[] start = ImpliedVol.group(batch, order);
+        assertEquals(3, start.length);
+        assertArrayEquals(java.util.stream.IntStream.range(0, batch.size()).toArray(), java.util.Arrays.stream(order.clone()).sorted().toArray());
+        for (int g = 0; g + 1 < start.length; g++)
+            for (int j = start[g] + 1; j < start[g + 1]; j++)
+                assertTrue(batch.strike(order[j - 1]) <= batch.strike(order[j]), "at " + j);
+    }
+}
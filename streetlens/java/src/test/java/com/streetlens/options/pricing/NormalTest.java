@@ -0,0 +1,84 @@
+package com.streetlens.options.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NormalTest {
+    private static final MathContext MC = new MathContext(80);
+    private static final BigDecimal PI = new BigDecimal("3.14159265358979323846264338327950288419716939937510582097494459230781640628620899");
+    private static final BigDecimal SQRT_2PI = PI.multiply(BigDecimal.valueOf(2)).sqrt(MC);
+
+    @Test
+    void cdfMatchesTabulatedValues(){
+        assertEquals(0.5, Normal.cdf(0.0), 0.0);
+        assertEquals(0.5, Normal.cdf(-0.0), 0.0);
+        assertRelative(0.49601064368536840, Normal.cdf(-0.01), 1e-14);
+        assertRelative(0.50398935631463160, Normal.cdf(0.01), 1e-14);
+        assertRelative(0.15865525393145707, Normal.cdf(-1.0), 1e-14);
+        assertRelative(0.97500210485177952, Normal.cdf(1.96), 1e-14);
+        assertRelative(1.3498980316300946e-3, Normal.cdf(-3.0), 1e-12);
+        assertRelative(2.8665157187919391e-7, Normal.cdf(-5.0), 1e-9);
+        assertRelative(6.2209605742717841e-16, Normal.cdf(-8.0), 1e-8);
+        assertRelative(7.6198530241604730e-24, Normal.cdf(-10.0), 1e-8);
+        assertEquals(0.0, Normal.cdf(-40.0), 0.0);
+        assertEquals(1.0, Normal.cdf(40.0), 0.0);
+    }
+
+    @Test
+    void cdfMatchesHighPrecisionReference(){
+        // the accuracy claimed in Normal's doc: ~1e-16 absolute everywhere, 1e-8 relative in the lower tail
+        double maxAbs = 0, maxRel = 0;
+        for (int i = 0; i <= 1000; i++) {
+            double x = -10.0 + 20.0 * i / 1000;
+            double ref = reference(x).doubleValue(), y = Normal.cdf(x);
+            maxAbs = Math.max(maxAbs, Math.abs(y - ref));
+            if (x < 0) maxRel = Math.max(maxRel, Math.abs(y - ref) / ref);
+        }
+        assertTrue(maxAbs < 5e-16, "max abs error " + maxAbs);
+        assertTrue(maxRel < 1e-8, "max rel error " + maxRel);
+    }
+
+    @Test
+    void cdfIsSymmetricAndMonotone(){
+        double prev = 0;
+        for (int i = -3000; i <= 3000; i++) {
+            double x = i / 250.0, y = Normal.cdf(x);
+            assertEquals(1.0, y + Normal.cdf(-x), 1e-15, "x=" + x);
+            assertTrue(y >= prev, "x=" + x);
+            prev = y;
+        }
+    }
+
+    private static void assertRelative(double expected, double actual, double tol){
+        assertEquals(expected, actual, Math.abs(expected) * tol, () -> "relative error " + Math.abs(actual - expected) / expected);
+    }
+
+    /** N(x) = 1/2 + pdf(x) * sum x^(2n+1) / (2n+1)!!, evaluated in 80-digit arithmetic. */
+    private static BigDecimal reference(double x){
+        BigDecimal a = new BigDecimal(Math.abs(x));
+        BigDecimal a2 = a.multiply(a, MC);
+        BigDecimal term = a, sum = a;
+        BigDecimal eps = new BigDecimal("1e-60");
+        for (int n = 1; term.compareTo(eps) > 0 || n < 3; n++) {
+            term = term.multiply(a2, MC).divide(BigDecimal.valueOf(2L*n + 1), MC);
+            sum = sum.add(term, MC);
+        }
+        BigDecimal pdf = BigDecimal.ONE.divide(exp(a2.divide(BigDecimal.valueOf(2), MC)).multiply(SQRT_2PI, MC), MC);
+        BigDecimal upper = new BigDecimal("0.5").add(pdf.multiply(sum, MC), MC);
+        return x >= 0 ? upper : BigDecimal.ONE.subtract(upper, MC);
+    }
+
+    private static BigDecimal exp(BigDecimal y){
+        BigDecimal term = BigDecimal.ONE, sum = BigDecimal.ONE;
+        BigDecimal eps = new BigDecimal("1e-70");
+        for (int n = 1; term.compareTo(eps) > 0; n++) {
+            term = term.multiply(y, MC).divide(BigDecimal.valueOf(n), MC);
+            sum = sum.add(term, MC);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,143 @@
+package com.streetlens.options.pricing;
+
+import com.streetlens.options.domain.OptionChainBatch;
+import com.streetlens.options.domain.OptionType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VolSurfaceTest {
+    private static final long TODAY = 20_000, NEAR = TODAY + 30, FAR = TODAY + 90;
+    private static final double SPOT = 100, R = 0.04;
+
+    private static double t(long expiry){ return (expiry - TODAY) / 365.0; }
+    private static double fwd(long expiry){ return SPOT * Math.exp(R * t(expiry)); }
+
+    /** A smile {@code a + b*k + c*k^2} in {@code k = ln(K/F)}. */
+    private record Smile(double a, double b, double c) {
+        double at(double strike, long expiry){
+            double k = Math.log(strike / fwd(expiry));
+            return a + k * (b + k * c);
+        }
+    }
+
+    private static final Smile NEAR_SMILE = new Smile(0.30, -0.25, 0.60), FAR_SMILE = new Smile(0.24, -0.12, 0.30);
+
+    private static void addSlice(OptionChainBatch.Builder b, String symbol, long expiry, Smile smile, double... strikes){
+        for (double k : strikes)
+            for (OptionType type : OptionType.values())
+                b.add(symbol, type, k, expiry, SPOT, smile.at(k, expiry), R, t(expiry), 1, 1.1, 100, 100);
+    }
+
+    private static VolSurface surface(){
+        var b = new OptionChainBatch.Builder();
+        addSlice(b, "AAA", FAR, FAR_SMILE, 70, 80, 90, 95, 100, 105, 110, 120, 135);
+        addSlice(b, "AAA", NEAR, NEAR_SMILE, 110, 80, 100, 90, 120, 95, 105); // listed out of order
+        return VolSurface.of(b.build());
+    }
+
+    @Test
+    void fitsAnExactQuadraticSmile(){
+        var s = surface();
+        for (double k = 60; k <= 160; k += 2.5) {
+            assertEquals(NEAR_SMILE.at(k, NEAR), s.smile("AAA", NEAR, k), 1e-10, "near K=" + k); // past the wings too
+            assertEquals(FAR_SMILE.at(k, FAR), s.smile("AAA", FAR, k), 1e-10, "far K=" + k);
+        }
+        assertEquals(NEAR_SMILE.b(), s.skew("AAA", NEAR), 1e-9);
+        assertEquals(FAR_SMILE.b(), s.skew("AAA", FAR), 1e-9);
+        assertEquals(0.01, s.residual("AAA", NEAR, 100, NEAR_SMILE.at(100, NEAR) + 0.01), 1e-10);
+    }
+
+    @Test
+    void marketVolsInterpolateLinearlyInStrikeAndHoldFlatPastTheWings(){
+        var s = surface();
+        assertEquals(NEAR_SMILE.at(95, NEAR), s.iv("AAA", NEAR, 95), 1e-15);
+        double v95 = NEAR_SMILE.at(95, NEAR), v100 = NEAR_SMILE.at(100, NEAR);
+        assertEquals(v95 + (v100 - v95) * 0.3, s.iv("AAA", NEAR, 96.5), 1e-15);
+        assertEquals(NEAR_SMILE.at(80, NEAR), s.iv("AAA", NEAR, 50), 1e-15);
+        assertEquals(NEAR_SMILE.at(120, NEAR), s.iv("AAA", NEAR, 200), 1e-15);
+    }
+
+    @Test
+    void totalVarianceInterpolatesLinearlyBetweenExpiries(){
+        var s = surface();
+        long mid = TODAY + 50;
+        double t = t(mid), t0 = t(NEAR), t1 = t(FAR);
+        for (double k : new double[]{75, 92.5, 100, 104, 140}) {
+            double w0 = Math.pow(NEAR_SMILE.at(k, NEAR), 2) * t0, w1 = Math.pow(FAR_SMILE.at(k, FAR), 2) * t1;
+            double expected = Math.sqrt((w0 + (w1 - w0) * (t - t0) / (t1 - t0)) / t);
+            assertEquals(expected, s.smile("AAA", mid, k), 1e-10, "smile K=" + k);
+            double m0 = s.iv("AAA", NEAR, k), m1 = s.iv("AAA", FAR, k);
+            double market = Math.sqrt((m0 * m0 * t0 + (m1 * m1 * t1 - m0 * m0 * t0) * (t - t0) / (t1 - t0)) / t);
+            assertEquals(market, s.iv("AAA", mid, k), 1e-12, "iv K=" + k);
+        }
+        // at a listed expiry the interpolation hands back that slice unchanged
+        assertEquals(NEAR_SMILE.at(100, NEAR), s.smile("AAA", NEAR, 100), 1e-10);
+        assertEquals(NEAR_SMILE.b() + (FAR_SMILE.b() - NEAR_SMILE.b()) * 20 / 60.0, s.skew("AAA", mid), 1e-9);
+    }
+
+    @Test
+    void outsideTheListedExpiriesTheNearestSliceApplies(){
+        var s = surface();
+        for (double k : new double[]{85, 100, 150}) {
+            assertEquals(s.smile("AAA", NEAR, k), s.smile("AAA", TODAY + 5, k), "before K=" + k);
+            assertEquals(s.iv("AAA", NEAR, k), s.iv("AAA", TODAY + 5, k));
+            assertEquals(s.smile("AAA", FAR, k), s.smile("AAA", FAR + 400, k), "after K=" + k);
+            assertEquals(s.iv("AAA", FAR, k), s.iv("AAA", FAR + 400, k));
+        }
+        assertTrue(Double.isNaN(s.iv("ZZZ", NEAR, 100)));
+        assertTrue(Double.isNaN(s.smile("ZZZ", NEAR, 100)));
+        assertTrue(Double.isNaN(s.skew("ZZZ", NEAR)));
+    }
+
+    @Test
+    void usesTheOutOfTheMoneySideAndFallsBackToTheOther(){
+        double f = fwd(NEAR);
+        var b = new OptionChainBatch.Builder();
+        b.add("BBB", OptionType.PUT, 90, NEAR, SPOT, 0.31, R, t(NEAR), 1, 1.1, 1, 1);
+        b.add("BBB", OptionType.CALL, 90, NEAR, SPOT, 0.51, R, t(NEAR), 1, 1.1, 1, 1);
+        b.add("BBB", OptionType.PUT, 110, NEAR, SPOT, 0.52, R, t(NEAR), 1, 1.1, 1, 1);
+        b.add("BBB", OptionType.CALL, 110, NEAR, SPOT, 0.22, R, t(NEAR), 1, 1.1, 1, 1);
+        b.add("BBB", OptionType.PUT, 120, NEAR, SPOT, 0.26, R, t(NEAR), 1, 1.1, 1, 1);
+        b.add("BBB", OptionType.CALL, 120, NEAR, SPOT, Double.NaN, R, t(NEAR), 1, 1.1, 1, 1); // OTM side missing
+        var s = VolSurface.of(b.build());
+        assertTrue(90 < f && f < 110);
+        assertEquals(0.31, s.iv("BBB", NEAR, 90));
+        assertEquals(0.22, s.iv("BBB", NEAR, 110));
+        assertEquals(0.26, s.iv("BBB", NEAR, 120));
+        assertEquals(3, s.points());
+    }
+
+    @Test
+    void fewPointsFitALineOrAFlatSmile(){
+        var b = new OptionChainBatch.Builder();
+        b.add("TWO", OptionType.CALL, 100, NEAR, SPOT, 0.30, R, t(NEAR), 1, 1.1, 1, 1);
+        b.add("TWO", OptionType.CALL, 120, NEAR, SPOT, 0.20, R, t(NEAR), 1, 1.1, 1, 1);
+        b.add("ONE", OptionType.CALL, 100, NEAR, SPOT, 0.27, R, t(NEAR), 1, 1.1, 1, 1);
+        var s = VolSurface.of(b.build());
+        double k0 = Math.log(100 / fwd(NEAR)), k1 = Math.log(120 / fwd(NEAR));
+        double slope = (0.20 - 0.30) / (k1 - k0);
+        assertEquals(slope, s.skew("TWO", NEAR), 1e-12);
+        assertEquals(0.30 + slope * (Math.log(140 / fwd(NEAR)) - k0), s.smile("TWO", NEAR, 140), 1e-12);
+        assertEquals(0.27, s.smile("ONE", NEAR, 60), 1e-15);
+        assertEquals(0.0, s.skew("ONE", NEAR));
+    }
+
+    @Test
+    void fillReplacesOnlyMissingVols(){
+        var b = new OptionChainBatch.Builder();
+        addSlice(b, "AAA", NEAR, NEAR_SMILE, 90, 100, 110);
+        b.add("AAA", OptionType.CALL, 105, NEAR, SPOT, Double.NaN, R, t(NEAR), 1, 1.1, 1, 1);
+        b.add("ZZZ", OptionType.CALL, 105, NEAR, SPOT, Double.NaN, R, t(NEAR), 1, 1.1, 1, 1);
+        var batch = b.build();
+        var filled = VolSurface.of(batch).fill(batch);
+        double v100 = NEAR_SMILE.at(100, NEAR), v110 = NEAR_SMILE.at(110, NEAR);
+        assertEquals((v100 + v110) / 2, filled.iv(6), 1e-15);
+        assertTrue(Double.isNaN(filled.iv(7)));
+        for (int i = 0; i < 6; i++) assertEquals(batch.iv(i), filled.iv(i));
+        var complete = new OptionChainBatch.Builder();
+        addSlice(complete, "AAA", NEAR, NEAR_SMILE, 90, 100);
+        var full = complete.build();
+        assertSame(full, VolSurface.of(full).fill(full));
+    }
+}
@@ -0,0 +1,223 @@
+package com.streetlens.options.strategies;
+
+import com.streetlens.options.domain.OptionChainBatch;
+import com.streetlens.options.domain.OptionType;
+import com.streetlens.options.pricing.BlackScholes;
+import com.streetlens.options.pricing.Normal;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StrategySearchTest {
+    private static final StrategyRanker RANKER = new StrategyRanker();
+
+    /** What a structure should come out as, computed without any of the search's pruning. */
+    private record Expected(double netCredit, double maxProfit, double maxLoss, double beLow, double beHigh,
+                            double pop, double edge, double score) {}
+
+    /**
+     * Two symbols, three expiries (one past maxDte), strikes listed out of order, a duplicate
+     * strike, and a few legs that fail the liquidity or spread filters. Quotes are Black-Scholes
+     * on a smile plus noise, so credits and widths vary enough to trip every pruning rule.
+     */
+    private static OptionChainBatch chain(){
+        var rnd = new Random(11);
+        var b = new OptionChainBatch.Builder();
+        for (String sym : new String[]{"AAA", "BBB"}) {
+            double spot = sym.equals("AAA") ? 100 : 47.5;
+            for (int days : new int[]{30, 60, 200}) {
+                double t = days / 365.0;
+                List<Double> strikes = new ArrayList<>();
+                for (double k = spot * 0.8; k <= spot * 1.2; k += spot * 0.025) strikes.add(Math.round(k * 2) / 2.0);
+                strikes.add(strikes.get(5)); // listed twice: zero-width pairs must be skipped, not break the loops
+                Collections.shuffle(strikes, rnd);
+                for (double k : strikes)
+                    for (OptionType type : OptionType.values()) {
+                        double iv = 0.25 + 0.4 * Math.pow(Math.log(k / spot), 2) + 0.02 * rnd.nextDouble();
+                        double fair = BlackScholes.price(type, spot, k, 0.04, iv, t);
+                        double half = Math.max(0.02, fair * (0.01 + 0.08 * rnd.nextDouble()));
+                        double mid = fair * (1 + 0.06 * (rnd.nextDouble() - 0.5));
+                        double bid = Math.max(0.01, mid - half), ask = mid + half;
+                        long volume = rnd.nextInt(12) == 0 ? 20 : 100 + rnd.nextInt(5000);
+                        if (rnd.nextInt(15) == 0) ask = bid * 2 + 1; // too wide to trade
+                        b.add(sym, type, k, 20_000 + days, spot, iv, 0.04, t, bid, ask, volume, 500 + rnd.nextInt(9000));
+                    }
+            }
+        }
+        return b.build();
+    }
+
+    /** Legs by type, strike and bid (the bid tells the duplicate-strike rows apart) and quantity. */
+    private static String key(StrategyType type, OptionChainBatch b, int... rowsAndQty){
+        var sb = new StringBuilder(type.name()).append(' ').append(b.symbol(rowsAndQty[0])).append(' ').append(b.expiryEpochDay(rowsAndQty[0]));
+        List<String> legs = new ArrayList<>();
+        for (int j = 0; j < rowsAndQty.length; j += 2)
+            legs.add((b.isCall(rowsAndQty[j]) ? "C" : "P") + b.strike(rowsAndQty[j]) + "@" + b.bid(rowsAndQty[j]) + "x" + rowsAndQty[j + 1]);
+        Collections.sort(legs);
+        return sb.append(' ').append(legs).toString();
+    }
+
+    private static String key(Strategy s){
+        List<String> legs = new ArrayList<>();
+        for (var l : s.legs())
+            legs.add((l.contract().type() == OptionType.CALL ? "C" : "P") + l.contract().strike() + "@" + l.quote().bid() + "x" + l.quantity());
+        Collections.sort(legs);
+        return s.type().name() + " " + s.symbol() + " " + s.expiry().toEpochDay() + " " + legs;
+    }
+
+    private static double above(double spot, double r, double t, double level, double sigma){
+        if (!(level > 0)) return 1.0;
+        return Normal.cdf(BlackScholes.d2(BlackScholes.d1(spot, level, r, sigma, t), sigma, t));
+    }
+
+    private static double model(OptionChainBatch b, int i){
+        return BlackScholes.price(b.type(i), b.spot(i), b.strike(i), b.r(i), b.iv(i), b.t(i));
+    }
+
+    /** A credit spread kept for condors: short and long row, credit and width per share. */
+    private record Spread(int sh, int lg, double credit, double width) {
+        double rank(){ return credit / (width - credit); }
+    }
+
+    /**
+     * Every pair and every condor of every symbol/expiry, filtered only by the limits' stated
+     * rules. Condors combine each side's {@code condorSide} best credit spreads by return on risk.
+     */
+    private static Map<String, Expected> bruteForce(OptionChainBatch b, StrategySearch.Limits lim){
+        Map<String, List<Integer>> groups = new TreeMap<>();
+        for (int i = 0; i < b.size(); i++) {
+            double dte = b.t(i) * 365.0;
+            if (dte < lim.minDte() || dte > lim.maxDte()) continue;
+            if (!(b.bid(i) > 0 && b.ask(i) >= b.bid(i) && b.iv(i) > 0)) continue;
+            if (b.volume(i) < lim.minVolume() || b.openInterest(i) < lim.minOpenInterest()) continue;
+            if (b.spreadPct(i) > lim.maxLegSpreadPct()) continue;
+            groups.computeIfAbsent(b.symbol(i) + "/" + b.expiryEpochDay(i), x -> new ArrayList<>()).add(i);
+        }
+        Map<String, Expected> out = new HashMap<>();
+        for (var rows : groups.values()) {
+            int first = rows.get(0);
+            double spot = b.spot(first), r = b.r(first), t = b.t(first), m = b.multiplier(first);
+            double lossCap = lim.maxLoss() / m, maxWidth = lim.maxWidthPct() * spot;
+            List<Spread> putSide = new ArrayList<>(), callSide = new ArrayList<>();
+            for (int x : rows) for (int y : rows) {
+                if (b.isCall(x) != b.isCall(y) || !(b.strike(x) < b.strike(y))) continue;
+                int lo = x, hi = y;
+                double width = b.strike(hi) - b.strike(lo);
+                if (width > maxWidth) continue;
+                long liq = Math.min(b.volume(lo) + b.openInterest(lo), b.volume(hi) + b.openInterest(hi));
+                double sigma = (b.iv(lo) + b.iv(hi)) / 2;
+                if (b.isCall(lo)) {
+                    double cost = b.ask(lo) - b.bid(hi);
+                    if (cost > 0 && cost < width && cost <= lossCap) {
+                        double be = b.strike(lo) + cost, pop = above(spot, r, t, be, sigma), edge = model(b, lo) - model(b, hi) - cost;
+                        out.put(key(StrategyType.BULL_CALL_DEBIT, b, lo, 1, hi, -1), new Expected(-cost * m, (width - cost) * m, cost * m,
+                            be, Double.NaN, pop, edge * m, RANKER.score((width - cost) * m, cost * m, pop, edge * m, liq)));
+                    }
+                    double credit = b.bid(lo) - b.ask(hi);
+                    if (credit > 0 && credit >= lim.minCreditPct() * width && width - credit <= lossCap) {
+                        if (b.strike(lo) > spot) callSide.add(new Spread(lo, hi, credit, width));
+                        double be = b.strike(lo) + credit, pop = 1 - above(spot, r, t, be, sigma), edge = credit - (model(b, lo) - model(b, hi));
+                        out.put(key(StrategyType.BEAR_CALL_CREDIT, b, lo, -1, hi, 1), new Expected(credit * m, credit * m, (width - credit) * m,
+                            be, Double.NaN, pop, edge * m, RANKER.score(credit * m, (width - credit) * m, pop, edge * m, liq)));
+                    }
+                } else {
+                    double cost = b.ask(hi) - b.bid(lo);
+                    if (cost > 0 && cost < width && cost <= lossCap) {
+                        double be = b.strike(hi) - cost, pop = 1 - above(spot, r, t, be, sigma), edge = model(b, hi) - model(b, lo) - cost;
+                        out.put(key(StrategyType.BEAR_PUT_DEBIT, b, hi, 1, lo, -1), new Expected(-cost * m, (width - cost) * m, cost * m,
+                            be, Double.NaN, pop, edge * m, RANKER.score((width - cost) * m, cost * m, pop, edge * m, liq)));
+                    }
+                    double credit = b.bid(hi) - b.ask(lo);
+                    if (credit > 0 && credit >= lim.minCreditPct() * width && width - credit <= lossCap) {
+                        if (b.strike(hi) < spot) putSide.add(new Spread(hi, lo, credit, width));
+                        double be = b.strike(hi) - credit, pop = above(spot, r, t, be, sigma), edge = credit - (model(b, hi) - model(b, lo));
+                        out.put(key(StrategyType.BULL_PUT_CREDIT, b, hi, -1, lo, 1), new Expected(credit * m, credit * m, (width - credit) * m,
+                            be, Double.NaN, pop, edge * m, RANKER.score(credit * m, (width - credit) * m, pop, edge * m, liq)));
+                    }
+                }
+            }
+            Comparator<Spread> byRank = Comparator.comparingDouble(Spread::rank).reversed();
+            putSide.sort(byRank);
+            callSide.sort(byRank);
+            for (Spread p : putSide.subList(0, Math.min(lim.condorSide(), putSide.size())))
+                for (Spread c : callSide.subList(0, Math.min(lim.condorSide(), callSide.size()))) {
+                    if (!(b.strike(p.sh()) < b.strike(c.sh()))) continue;
+                    double credit = p.credit() + c.credit(), loss = Math.max(p.width(), c.width()) - credit;
+                    if (!(loss > 0 && loss <= lossCap)) continue;
+                    double beLow = b.strike(p.sh()) - credit, beHigh = b.strike(c.sh()) + credit;
+                    if (beLow >= beHigh) continue;
+                    double sigma = (b.iv(p.sh()) + b.iv(p.lg()) + b.iv(c.sh()) + b.iv(c.lg())) / 4;
+                    double pop = above(spot, r, t, beLow, sigma) - above(spot, r, t, beHigh, sigma);
+                    double edge = credit - (model(b, p.sh()) - model(b, p.lg()) + model(b, c.sh()) - model(b, c.lg()));
+                    long liq = Long.MAX_VALUE;
+                    for (int i : new int[]{p.sh(), p.lg(), c.sh(), c.lg()}) liq = Math.min(liq, b.volume(i) + b.openInterest(i));
+                    out.put(key(StrategyType.IRON_CONDOR, b, p.lg(), 1, p.sh(), -1, c.sh(), -1, c.lg(), 1),
+                        new Expected(credit * m, credit * m, loss * m, beLow, beHigh, pop, edge * m,
+                            RANKER.score(credit * m, loss * m, pop, edge * m, liq)));
+                }
+        }
+        return out;
+    }
+
+    private static void assertMatches(Map<String, Expected> expected, StrategySearch.Result result){
+        assertEquals(expected.size(), result.candidates(), "candidates scored");
+        Map<String, Strategy> found = new HashMap<>();
+        for (var s : result.top()) assertNull(found.put(key(s), s), "built twice: " + key(s));
+        assertEquals(new TreeSet<>(expected.keySet()), new TreeSet<>(found.keySet()));
+        for (var e : expected.entrySet()) {
+            var want = e.getValue();
+            var got = found.get(e.getKey());
+            String at = e.getKey();
+            assertEquals(want.netCredit(), got.netCredit(), 1e-9, at);
+            assertEquals(want.maxProfit(), got.maxProfit(), 1e-9, at);
+            assertEquals(want.maxLoss(), got.maxLoss(), 1e-9, at);
+            assertEquals(want.beLow(), got.breakEvenLow(), 1e-12, at);
+            assertEquals(want.beHigh(), got.breakEvenHigh(), 1e-12, at); // NaN for verticals on both sides
+            assertEquals(want.pop(), got.probProfit(), 1e-12, at);
+            assertEquals(want.edge(), got.modelEdge(), 1e-6, at);     // batched vs scalar Black-Scholes
+            assertEquals(want.score(), got.score(), 1e-8, at);
+            assertTrue(got.probProfit() >= 0 && got.probProfit() <= 1, at);
+        }
+    }
+
+    private static StrategySearch.Result searchAll(OptionChainBatch b, StrategySearch.Limits lim){
+        return new StrategySearch(lim, RANKER).search(b, EnumSet.allOf(StrategyType.class), 1_000_000);
+    }
+
+    @Test
+    void prunedSearchFindsEveryPairTheBruteForceDoes(){
+        var b = chain();
+        // tight width and loss caps, so both the width break and the credit-spread loss break fire
+        var tight = new StrategySearch.Limits(100, 500, 0.25, 7, 120, 0.08, 250, 0.10, 1_000_000);
+        var loose = new StrategySearch.Limits(100, 500, 0.25, 7, 120, 0.40, 5000, 0.05, 1_000_000);
+        for (var lim : List.of(tight, loose)) {
+            var expected = bruteForce(b, lim);
+            for (StrategyType type : StrategyType.values())
+                assertTrue(expected.keySet().stream().anyMatch(k -> k.startsWith(type.name() + " ")), type + " never built under " + lim);
+            assertMatches(expected, searchAll(b, lim));
+        }
+    }
+
+    @Test
+    void condorsOnlyCombineEachSidesBestSpreads(){
+        var b = chain();
+        var lim = new StrategySearch.Limits(100, 500, 0.25, 7, 120, 0.20, 1500, 0.05, 3);
+        var expected = bruteForce(b, lim);
+        var all = bruteForce(b, new StrategySearch.Limits(100, 500, 0.25, 7, 120, 0.20, 1500, 0.05, 1_000_000));
+        long condors = expected.keySet().stream().filter(k -> k.startsWith("IRON_CONDOR")).count();
+        assertTrue(condors > 0 && condors < all.keySet().stream().filter(k -> k.startsWith("IRON_CONDOR")).count());
+        assertMatches(expected, searchAll(b, lim));
+    }
+
+    @Test
+    void topKIsTheHighestScoringCandidates(){
+        var b = chain();
+        var lim = StrategySearch.Limits.DEFAULT;
+        var scores = bruteForce(b, lim).values().stream().map(Expected::score).sorted(Comparator.reverseOrder()).toList();
+        var top = new StrategySearch(lim, RANKER).search(b, EnumSet.allOf(StrategyType.class), 10).top();
+        assertEquals(Math.min(10, scores.size()), top.size());
+        for (int i = 0; i < top.size(); i++) assertEquals(scores.get(i), top.get(i).score(), 1e-8, "rank " + i);
+    }
+}
@@ -0,0 +1,145 @@
+package com.streetlens.options.streaming;
+
+import com.streetlens.options.domain.OptionChainBatch;
+import com.streetlens.options.domain.OptionContract;
+import com.streetlens.options.domain.OptionType;
+import com.streetlens.options.domain.Quote;
+import com.streetlens.options.ranking.Ranker;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveScreenTest {
+    private record Row(String symbol, OptionType type, double strike, long expiry, double bid, double ask) {}
+
+    private static List<Row> chain(){
+        List<Row> rows = new ArrayList<>();
+        for (String sym : new String[]{"AAA", "BBB"})
+            for (int k = 80; k <= 120; k += 5)
+                for (OptionType type : OptionType.values()) rows.add(new Row(sym, type, k, 20_100, 1.0 + k / 100.0, 1.1 + k / 100.0));
+        return rows;
+    }
+
+    private static OptionChainBatch batch(List<Row> rows){
+        var b = new OptionChainBatch.Builder();
+        for (var r : rows) b.add(r.symbol(), r.type(), r.strike(), r.expiry(), 100, 0.3, 0.04, 0.25, r.bid(), r.ask(), 500, 900);
+        return b.build();
+    }
+
+    private static LiveScreen screen(){ return new LiveScreen((c, q) -> true, new Ranker(), 5); }
+
+    @Test
+    void sameOrderRescoresOnlyChangedRows(){
+        var live = screen();
+        var rows = chain();
+        assertEquals(rows.size(), live.replace(batch(rows)).added());
+        rows.set(3, new Row(rows.get(3).symbol(), rows.get(3).type(), rows.get(3).strike(), rows.get(3).expiry(), 9.0, 9.2));
+        var u = live.replace(batch(rows));
+        assertEquals(1, u.changed());
+        assertEquals(rows.size() - 1, u.unchanged());
+        assertEquals(0, u.added() + u.removed());
+        assertEquals(rows.size(), live.size());
+    }
+
+    @Test
+    void reorderedRowsStillMatchByContract(){
+        var live = screen();
+        var rows = chain();
+        live.replace(batch(rows));
+        var top = live.top();
+        Collections.reverse(rows);
+        var u = live.replace(batch(rows));
+        assertEquals(rows.size(), u.unchanged());
+        assertEquals(top, live.top());
+    }
+
+    @Test
+    void symbolsMissingFromTheSnapshotAreDropped(){
+        var live = screen();
+        var rows = chain();
+        live.replace(batch(rows));
+        var onlyA = rows.stream().filter(r -> r.symbol().equals("AAA")).toList();
+        var u = live.replace(batch(onlyA));
+        assertEquals(rows.size() - onlyA.size(), u.removed());
+        assertEquals(onlyA.size(), u.unchanged());
+        assertEquals(onlyA.size(), live.size());
+        assertTrue(live.top("BBB").isEmpty());
+        assertTrue(live.top().stream().allMatch(s -> s.contract().symbol().equals("AAA")));
+        // the positions now point at different contracts; the next full chain must still line up
+        var back = live.replace(batch(rows));
+        assertEquals(rows.size() - onlyA.size(), back.added());
+        assertEquals(onlyA.size(), back.unchanged());
+    }
+
+    @Test
+    void listenersReadingTheScreenDoNotDeadlockConcurrentUpdates(){
+        var live = screen();
+        AtomicInteger events = new AtomicInteger();
+        live.subscribe((symbol, top) -> {
+            // reads take the state lock while another thread may be mid-update
+            assertNotNull(symbol == null ? live.top() : live.top(symbol));
+            live.accepted();
+            events.incrementAndGet();
+        });
+        assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            var start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (String sym : new String[]{"AAA", "BBB"})
+                threads.add(Thread.ofPlatform().start(() -> {
+                    var c = new OptionContract(sym, OptionType.CALL, 100, LocalDate.ofEpochDay(20_100), 100);
+                    try { start.await(); } catch (InterruptedException e) { return; }
+                    for (int i = 0; i < 2000; i++)
+                        live.update(List.of(Map.entry(c, new Quote(100, 0.3, 0.04, 0.25, 1 + i % 7, 1.1 + i % 7, 500, 900))));
+                }));
+            start.countDown();
+            for (var t : threads) t.join();
+        });
+        assertTrue(events.get() > 0);
+        assertEquals(2, live.size());
+    }
+
+    @Test
+    void rowsWhoseRuleThrowsAreHeldUnrankedAndTheUpdateGoesOn(){
+        boolean[] broken = {false};
+        var live = new LiveScreen((c, q) -> {
+            if (broken[0] && c.strike() == 100) throw new IllegalStateException("bad row");
+            return true;
+        }, new Ranker(), 5);
+        var rows = chain();
+        live.replace(batch(rows));
+        int accepted = live.accepted();
+        // strike-100 rows were ranked; now they change and the rule throws on them
+        broken[0] = true;
+        List<Row> changed = rows.stream().map(r -> new Row(r.symbol(), r.type(), r.strike(), r.expiry(), r.bid() + 0.5, r.ask() + 0.5)).toList();
+        var u = live.replace(batch(changed));
+        assertEquals(rows.size(), u.changed());
+        assertEquals(4, live.failedRows());
+        assertEquals(accepted - 4, live.accepted());
+        assertTrue(live.top().stream().noneMatch(s -> s.contract().strike() == 100));
+        // the failed rows can be changed and removed again without tripping over the ranked sets
+        broken[0] = false;
+        u = live.replace(batch(rows));
+        assertEquals(rows.size(), u.changed());
+        assertEquals(accepted, live.accepted());
+        assertEquals(rows.size(), live.replace(batch(List.of())).removed());
+        assertEquals(0, live.accepted());
+    }
+
+    @Test
+    void nanScoresAreNeverRanked(){
+        var live = screen();
+        var c = new OptionContract("AAA", OptionType.CALL, 100, LocalDate.ofEpochDay(20_100), 100);
+        var blankIv = new OptionContract("AAA", OptionType.CALL, 105, LocalDate.ofEpochDay(20_100), 100);
+        live.update(List.of(Map.entry(c, new Quote(100, 0.3, 0.04, 0.25, 1.0, 1.1, 500, 900)),
+                            Map.entry(blankIv, new Quote(100, Double.NaN, 0.04, 0.25, 1.0, 1.1, 500, 900))));
+        assertEquals(2, live.size());
+        assertEquals(1, live.accepted());
+        assertEquals(List.of(c), live.top().stream().map(Ranker.Scored::contract).toList());
+    }
+}
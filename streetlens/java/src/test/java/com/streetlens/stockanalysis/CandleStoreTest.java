@@ -0,0 +1,60 @@
+package com.streetlens.stockanalysis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandleStoreTest {
+    @TempDir Path dir;
+
+    @Test
+    void writeReopenReadRoundTrip() throws IOException {
+        Path file = dir.resolve("x" + CandleStore.EXTENSION);
+        int n = 1000; // from a capacity of 16 this grows six times
+        try (var store = CandleStore.create(file, CandleStore.TimeKey.EPOCH_SECOND, 16)) {
+            for (int i = 0; i < n / 2; i++) append(store, i);
+        }
+        try (var store = CandleStore.openForAppend(file)) {
+            assertEquals(n / 2, store.size());
+            for (int i = n / 2; i < n; i++) append(store, i);
+        }
+        try (var store = CandleStore.open(file)) {
+            assertEquals(CandleStore.TimeKey.EPOCH_SECOND, store.unit());
+            assertEquals(n, store.size());
+            for (int i = 0; i < n; i++) {
+                assertEquals(1_700_000_000L + 60L * i, store.time(i));
+                assertEquals(100 + i, store.open(i));
+                assertEquals(101 + i, store.high(i));
+                assertEquals(99 + i, store.low(i));
+                assertEquals(100.5 + i, store.close(i));
+                assertEquals(10L * i, store.volume(i));
+            }
+            assertEquals(100.5 + n - 1, store.closes().get(n - 1));
+        }
+    }
+
+    @Test
+    void corruptTimeKeyIsAnIOException() throws IOException {
+        Path file = dir.resolve("bad" + CandleStore.EXTENSION);
+        try (var store = CandleStore.create(file, CandleStore.TimeKey.EPOCH_DAY, 16)) {
+            append(store, 0);
+        }
+        try (var ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, 7), 12);
+        }
+        var e = assertThrows(IOException.class, () -> CandleStore.open(file));
+        assertTrue(e.getMessage().contains("time key"), e.getMessage());
+    }
+
+    private static void append(CandleStore store, int i) throws IOException {
+        store.append(1_700_000_000L + 60L * i, 100 + i, 101 + i, 99 + i, 100.5 + i, 10L * i);
+    }
+}